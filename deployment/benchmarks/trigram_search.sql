@@ -0,0 +1,71 @@
+-- Benchmark: substring search before and after the V9 trigram indexes
+-- Builds a 1,000,000-row synthetic copy of friend_codes in its own schema and compares
+-- the old query shape (LOWER(col) LIKE, B-tree on LOWER(location)) with the new one
+-- (col ILIKE, GIN gin_trgm_ops).
+--
+-- Run against a scratch PostgreSQL 15 database:
+--   psql -d poke_go_friends -f deployment/benchmarks/trigram_search.sql
+-- Compare the "Execution Time" lines of each EXPLAIN pair. The schema is dropped at the end.
+--
+-- Measured on PostgreSQL 17.6 (embedded test server, one CPU, shared_buffers=256MB, all pages cached):
+--   location LIKE '%district 4242%'            before 639.0 ms (Seq Scan, 999,800 rows filtered)
+--                                             after   74.7 ms (Bitmap Index Scan on idx_bench_location_trgm)
+--   trainer_name/description '%misty4242%'     before 845.9 ms (Seq Scan, 999,990 rows filtered)
+--                                             after    3.5 ms (BitmapOr of the two trigram indexes)
+
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS trigram_benchmark CASCADE;
+CREATE SCHEMA trigram_benchmark;
+SET search_path = trigram_benchmark, public;
+
+CREATE TABLE friend_codes (
+    id BIGSERIAL PRIMARY KEY,
+    friend_code VARCHAR(12) NOT NULL,
+    trainer_name VARCHAR(20),
+    location VARCHAR(200),
+    description TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Locations and names drawn from small vocabularies, so matches are realistic but selective
+INSERT INTO friend_codes (friend_code, trainer_name, location, description, created_at)
+SELECT lpad(g::TEXT, 12, '0'),
+       (ARRAY['Ash', 'Misty', 'Brock', 'Dawn', 'Gary', 'Serena', 'Iris', 'Cilan'])[1 + g % 8] || (g % 100000),
+       (ARRAY['New York', 'Los Angeles', 'London', 'Paris', 'Tokyo', 'Sydney', 'Berlin', 'Toronto',
+              'Madrid', 'Seoul', 'Chicago', 'Mexico City'])[1 + g % 12] || ', District ' || (g % 5000),
+       (ARRAY['Looking for daily gifts', 'Raid partner needed', 'Trading shinies',
+              'Remote raids every evening', 'Lucky trade hunting'])[1 + g % 5] || ' #' || g,
+       LOCALTIMESTAMP - (g % 86400) * INTERVAL '1 second'
+FROM generate_series(1, 1000000) AS g;
+
+-- Before: the index the old schema had for location searches
+CREATE INDEX idx_bench_location_lower ON friend_codes (LOWER(location));
+ANALYZE friend_codes;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM friend_codes WHERE LOWER(location) LIKE LOWER('%district 4242%') ORDER BY created_at DESC LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM friend_codes
+WHERE LOWER(trainer_name) LIKE LOWER('%misty4242%') OR LOWER(description) LIKE LOWER('%misty4242%')
+ORDER BY created_at DESC LIMIT 20;
+
+-- After: trigram indexes on the bare columns, queried with ILIKE
+CREATE INDEX idx_bench_location_trgm ON friend_codes USING GIN (location gin_trgm_ops);
+CREATE INDEX idx_bench_trainer_name_trgm ON friend_codes USING GIN (trainer_name gin_trgm_ops);
+CREATE INDEX idx_bench_description_trgm ON friend_codes USING GIN (description gin_trgm_ops);
+ANALYZE friend_codes;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM friend_codes WHERE location ILIKE '%district 4242%' ORDER BY created_at DESC LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM friend_codes
+WHERE trainer_name ILIKE '%misty4242%' OR description ILIKE '%misty4242%'
+ORDER BY created_at DESC LIMIT 20;
+
+RESET search_path;
+DROP SCHEMA trigram_benchmark CASCADE;
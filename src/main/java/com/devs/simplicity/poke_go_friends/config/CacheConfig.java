@@ -0,0 +1,15 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction.
+ *
+ * The cache manager itself is auto-configured from the spring.cache properties
+ * (Caffeine with a size bound, TTL and recorded statistics, which are published to Micrometer).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -34,16 +34,7 @@ public class CircuitBreakerConfig {
     @Bean
     @Primary
     public CircuitBreaker rateLimiterCircuitBreaker() {
-        io.github.resilience4j.circuitbreaker.CircuitBreakerConfig config = io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
-                .failureRateThreshold(failureRateThreshold)
-                .minimumNumberOfCalls(minimumNumberOfCalls)
-                .waitDurationInOpenState(Duration.ofSeconds(waitDurationInOpenStateSeconds))
-                .slidingWindowSize(slidingWindowSize)
-                .permittedNumberOfCallsInHalfOpenState(permittedNumberOfCallsInHalfOpenState)
-                .automaticTransitionFromOpenToHalfOpenEnabled(true)
-                .build();
-        
-        CircuitBreaker circuitBreaker = CircuitBreaker.of("rateLimiter", config);
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("rateLimiter", buildCircuitBreakerConfig());
         
         // Add event listeners for monitoring
         circuitBreaker.getEventPublisher()
@@ -67,6 +58,36 @@ public class CircuitBreakerConfig {
         return circuitBreaker;
     }
     
+    /**
+     * Creates a Circuit Breaker for the Redis-backed hot feed.
+     * Uses the same thresholds as the rate limiter so both degrade alike when Redis is down.
+     * 
+     * @return Configured CircuitBreaker instance
+     */
+    @Bean
+    public CircuitBreaker hotFeedCircuitBreaker() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("hotFeed", buildCircuitBreakerConfig());
+        
+        circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> 
+                    log.warn("Hot feed circuit breaker state transition: {} -> {}", 
+                            event.getStateTransition().getFromState(), 
+                            event.getStateTransition().getToState()));
+        
+        return circuitBreaker;
+    }
+    
+    private io.github.resilience4j.circuitbreaker.CircuitBreakerConfig buildCircuitBreakerConfig() {
+        return io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(Duration.ofSeconds(waitDurationInOpenStateSeconds))
+                .slidingWindowSize(slidingWindowSize)
+                .permittedNumberOfCallsInHalfOpenState(permittedNumberOfCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+    }
+    
     // Getters and setters for configuration properties
     
     public int getFailureRateThreshold() {
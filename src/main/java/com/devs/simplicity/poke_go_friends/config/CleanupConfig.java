@@ -0,0 +1,30 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for removing old friend codes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cleanup")
+@Data
+public class CleanupConfig {
+
+    /**
+     * How long friend codes are kept after they are created.
+     */
+    private int retentionHours = 24;
+
+    /**
+     * Whether friend_codes is partitioned by created_at, so old codes are removed by dropping partitions.
+     * Requires the PostgreSQL partition functions; row deletes are used otherwise.
+     */
+    private boolean partitioned = false;
+
+    /**
+     * How far ahead hourly partitions are created.
+     */
+    private int partitionsAheadHours = 48;
+}
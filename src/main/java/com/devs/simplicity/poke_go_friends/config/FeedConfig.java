@@ -0,0 +1,112 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the friend code feed.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.feed")
+@Data
+public class FeedConfig {
+
+    /**
+     * How long an estimated total count is reused before it is recomputed.
+     */
+    private int countCacheTtlSeconds = 30;
+
+    /**
+     * Maximum number of distinct filter combinations whose counts are cached.
+     */
+    private int countCacheMaxEntries = 500;
+
+    /**
+     * Whether the first pages of the unfiltered feed are served from the Redis hot feed.
+     */
+    private boolean hotFeedEnabled = true;
+
+    /**
+     * Number of newest active friend codes kept in the hot feed.
+     */
+    private int hotFeedSize = 200;
+
+    /**
+     * Redis key of the hot feed list.
+     */
+    private String hotFeedKey = "feed:hot";
+
+    /**
+     * Redis key of the global feed version used to derive feed ETags.
+     */
+    private String versionKey = "feed:version";
+
+    /**
+     * How long the feed version read from Redis is reused before it is read again.
+     */
+    private long versionCacheMillis = 1000;
+
+    /**
+     * Longest time a feed ETag stays valid for responses whose time window slides, such as the recent codes.
+     */
+    private long etagWindowSeconds = 60;
+
+    /**
+     * Number of rows fetched per database round trip while streaming an export.
+     */
+    private int exportFetchSize = 500;
+
+    /**
+     * Whether new friend codes are relayed through Redis pub/sub to stream subscribers on all instances.
+     * When disabled, subscribers only receive codes created on the instance they are connected to.
+     */
+    private boolean streamRedisEnabled = true;
+
+    /**
+     * Redis pub/sub channel new friend codes are relayed on.
+     */
+    private String streamChannel = "feed:new";
+
+    /**
+     * How long a stream connection stays open before the client has to reconnect.
+     */
+    private long streamTimeoutMillis = 1_800_000;
+
+    /**
+     * Interval between heartbeat comments sent to keep stream connections open.
+     */
+    private int streamHeartbeatSeconds = 30;
+
+    /**
+     * Events queued for one stream subscriber before it is considered too slow and disconnected.
+     */
+    private int streamQueueCapacity = 256;
+
+    /**
+     * Interval between reconciliations of the in-memory facet counts with grouped counts from the database.
+     */
+    private int facetsReconcileMinutes = 5;
+
+    /**
+     * Whether search text is matched with PostgreSQL full-text search and results are ranked by relevance.
+     * Requires the full-text search migration; substring matching is used otherwise.
+     */
+    private boolean fullTextSearchEnabled = true;
+
+    /**
+     * Whether criteria searches are answered from the in-memory index of active friend codes once it is built.
+     */
+    private boolean searchIndexEnabled = true;
+
+    /**
+     * Interval between checks of the in-memory active friend codes against the active ids in the database;
+     * they are reloaded when the two differ.
+     */
+    private int activeCodesCheckSeconds = 60;
+
+    /**
+     * Interval between reloads of the in-memory active friend codes, picking up edits made on other instances.
+     */
+    private int activeCodesRebuildMinutes = 10;
+}
@@ -0,0 +1,48 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the HQL/Criteria functions used for full-text search of friend codes.
+ *
+ * Both functions take the trainer name, location and description columns followed by the search text,
+ * and render against the {@code friend_code_search_document} SQL function the GIN index is built on.
+ * They only work on PostgreSQL with the full-text search migration applied; see
+ * {@link FeedConfig#isFullTextSearchEnabled()}. Registered through
+ * {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class FullTextSearchFunctionContributor implements FunctionContributor {
+
+    /**
+     * Whether the document matches all words of the search text: {@code document @@ plainto_tsquery(text)}.
+     */
+    public static final String MATCH_FUNCTION = "fts_match";
+
+    /**
+     * Relevance of the document for the search text: {@code ts_rank(document, plainto_tsquery(text))}.
+     */
+    public static final String RANK_FUNCTION = "fts_rank";
+
+    private static final String DOCUMENT = "friend_code_search_document(?1, ?2, ?3)";
+    private static final String QUERY = "plainto_tsquery('english', ?4)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(MATCH_FUNCTION, "(" + DOCUMENT + " @@ " + QUERY + ")")
+                .setExactArgumentCount(4)
+                .setInvariantType(basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(RANK_FUNCTION, "ts_rank(" + DOCUMENT + ", " + QUERY + ")")
+                .setExactArgumentCount(4)
+                .setInvariantType(basicTypeRegistry.resolve(StandardBasicTypes.DOUBLE))
+                .register();
+    }
+}
@@ -0,0 +1,29 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Custom converter for Goal enum from URL parameters.
+ * Handles case-insensitive conversion of goal names.
+ */
+@Component
+public class GoalConverter implements Converter<String, Goal> {
+
+    @Override
+    public Goal convert(String source) {
+        if (source == null || source.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Goal.fromValue(source.trim());
+        } catch (IllegalArgumentException e) {
+            // Re-throw with a more specific message for the parameter handler
+            throw new IllegalArgumentException(String.format(
+                "Invalid value '%s' for parameter 'goals'. Valid values are: gifts, exp, raids, all",
+                source));
+        }
+    }
+}
@@ -41,4 +41,14 @@ public class RateLimitConfig {
      * Rate limit cleanup interval in minutes.
      */
     private int cleanupIntervalMinutes = 60;
+    
+    /**
+     * How long a per-client submission status is cached for feed responses, in seconds.
+     */
+    private int statusCacheSeconds = 5;
+    
+    /**
+     * Maximum number of per-client submission statuses kept in the cache.
+     */
+    private int statusCacheMaxEntries = 10000;
 }
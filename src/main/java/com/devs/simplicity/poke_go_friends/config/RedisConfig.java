@@ -1,9 +1,13 @@
 package com.devs.simplicity.poke_go_friends.config;
 
+import com.devs.simplicity.poke_go_friends.service.FriendCodeStreamBroadcaster;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -42,4 +46,24 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Subscribes the friend code stream broadcaster to the channel new friend codes are relayed on,
+     * so stream subscribers on every instance receive them.
+     *
+     * @param connectionFactory The Redis connection factory
+     * @param broadcaster       The broadcaster delivering codes to local subscribers
+     * @param feedConfig        Feed configuration holding the channel name
+     * @return Listener container for the stream channel
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.feed", name = "stream-redis-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer friendCodeStreamListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           FriendCodeStreamBroadcaster broadcaster,
+                                                                           FeedConfig feedConfig) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(broadcaster, new ChannelTopic(feedConfig.getStreamChannel()));
+        return container;
+    }
 }
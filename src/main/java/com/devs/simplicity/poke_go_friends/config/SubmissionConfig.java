@@ -0,0 +1,32 @@
+package com.devs.simplicity.poke_go_friends.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for saving submitted and scraped friend codes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.submission")
+@Data
+public class SubmissionConfig {
+
+    /**
+     * Whether new friend codes are saved with a single INSERT ... ON CONFLICT DO NOTHING statement
+     * that skips existing codes, instead of a duplicate check followed by a save.
+     * Requires the PostgreSQL friend_code_keys table.
+     */
+    private boolean upsertEnabled = false;
+
+    /**
+     * Whether duplicate checks first consult the in-memory set of known friend codes and skip the
+     * database lookup for codes it has never seen.
+     */
+    private boolean knownCodesFilterEnabled = true;
+
+    /**
+     * How often the known friend codes are reloaded from the database, in minutes.
+     */
+    private int knownCodesRebuildMinutes = 60;
+}
@@ -11,13 +11,16 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
     
     private final TeamConverter teamConverter;
+    private final GoalConverter goalConverter;
     
-    public WebConfig(TeamConverter teamConverter) {
+    public WebConfig(TeamConverter teamConverter, GoalConverter goalConverter) {
         this.teamConverter = teamConverter;
+        this.goalConverter = goalConverter;
     }
     
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(teamConverter);
+        registry.addConverter(goalConverter);
     }
 }
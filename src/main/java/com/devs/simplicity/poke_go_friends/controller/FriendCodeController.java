@@ -1,13 +1,27 @@
 package com.devs.simplicity.poke_go_friends.controller;
 
 import com.devs.simplicity.poke_go_friends.dto.ErrorResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeBatchSubmissionRequest;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeBatchSubmissionResponse;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeFacetsResponse;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeFeedResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeLookupRequest;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeLookupResponse;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeSubmissionRequest;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
 import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.exception.ValidationException;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeCountEstimator;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeFacetCounter;
+import com.devs.simplicity.poke_go_friends.service.FeedVersionService;
 import com.devs.simplicity.poke_go_friends.service.FriendCodeService;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeStreamBroadcaster;
+import com.devs.simplicity.poke_go_friends.service.RandomFriendCodeSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,18 +33,33 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.servlet.http.HttpServletRequest;
 
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
 /**
  * REST Controller for friend code operations.
  * Provides endpoints for creating, reading, updating, and deleting friend codes.
@@ -43,6 +72,12 @@ import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 public class FriendCodeController {
 
     private final FriendCodeService friendCodeService;
+    private final FriendCodeCountEstimator friendCodeCountEstimator;
+    private final FeedVersionService feedVersionService;
+    private final ObjectMapper objectMapper;
+    private final FriendCodeStreamBroadcaster friendCodeStreamBroadcaster;
+    private final RandomFriendCodeSampler randomFriendCodeSampler;
+    private final FriendCodeFacetCounter friendCodeFacetCounter;
 
     /**
      * Submit a new friend code.
@@ -116,6 +151,60 @@ public class FriendCodeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Submit many friend codes at once.
+     * POST /api/friend-codes/batch
+     */
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Submit friend codes in bulk",
+        description = "Creates up to " + FriendCodeBatchSubmissionRequest.MAX_ENTRIES + " friend codes in one request. " +
+                     "Each entry counts as one submission against the rate limits, which are charged once for the whole batch. " +
+                     "Entries are validated individually: invalid and duplicate entries are reported in the results " +
+                     "without rejecting the others."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed; see the per-entry results",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = FriendCodeBatchSubmissionResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty or oversized batch",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Rate limit exceeded by the batch",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @RateLimiter(name = "friendCodeSubmissionLimiter")
+    public ResponseEntity<FriendCodeBatchSubmissionResponse> submitFriendCodes(
+            @Valid @RequestBody FriendCodeBatchSubmissionRequest request,
+            HttpServletRequest httpRequest,
+            @RequestHeader(value = "X-User-ID", required = false) Long userId) {
+
+        log.info("Received batch submission of {} friend codes", request.getFriendCodes().size());
+
+        String ipAddress = getClientIpAddress(httpRequest);
+
+        FriendCodeBatchSubmissionResponse response =
+                friendCodeService.createFriendCodes(request.getFriendCodes(), ipAddress, userId);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get paginated list of friend codes with optional filters.
      * GET /api/friend-codes
@@ -124,7 +213,10 @@ public class FriendCodeController {
     @Operation(
         summary = "Get friend codes with pagination and filters",
         description = "Retrieves a paginated list of active friend codes. " +
-                     "Supports filtering by location, level range, and search terms."
+                     "Supports filtering by location, team, level range, goals, and search terms. " +
+                     "Pass the nextCursor of a previous response as 'after' to page with a keyset cursor " +
+                     "instead of a page number. Totals are approximate and can be skipped with includeTotals=false. " +
+                     "Responses carry a weak ETag; send it back as If-None-Match to get 304 while the feed is unchanged."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -161,21 +253,34 @@ public class FriendCodeController {
             @RequestParam(required = false) Integer minLevel,
             @Parameter(description = "Maximum player level", example = "50")
             @RequestParam(required = false) Integer maxLevel,
-            @Parameter(description = "Search term for trainer name or description", example = "casual")
+            @Parameter(description = "Search words for trainer name, location or description; " +
+                                     "in the default sort, page-based results are ranked by relevance", example = "raids daily gifts")
             @RequestParam(required = false) String search,
+            @Parameter(description = "Filter by goals (comma-separated, matches any)", example = "gifts,raids")
+            @RequestParam(required = false) Set<Goal> goals,
+            @Parameter(description = "Opaque cursor from a previous response's nextCursor; takes precedence over page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Include approximate totalElements/totalPages (ignored in cursor mode)", example = "true")
+            @RequestParam(defaultValue = "true") boolean includeTotals,
             HttpServletRequest httpRequest,
+            WebRequest webRequest,
             @RequestHeader(value = "X-User-ID", required = false) Long userId) {
         
-        log.debug("Fetching friend codes - page: {}, size: {}, location: {}, team: {}, levels: {}-{}, search: {}",
-                 page, size, location, team, minLevel, maxLevel, search);
+        log.debug("Fetching friend codes - page: {}, size: {}, location: {}, team: {}, levels: {}-{}, search: {}, goals: {}, after: {}",
+                 page, size, location, team, minLevel, maxLevel, search, goals, after);
 
         // Validate and limit page size
         size = Math.min(size, 100); // Maximum 100 items per page
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Page<FriendCode> friendCodesPage;
+        boolean feedOrder = isFeedOrder(sortBy, sortDir);
+
+        String ipAddress = getClientIpAddress(httpRequest);
+        boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
+        String eTag = feedETag(httpRequest, rateLimited, false);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            log.debug("Feed unchanged since {}, returning 304", eTag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         
         // Create search criteria object
         FriendCodeSearchCriteria criteria = FriendCodeSearchCriteria.builder()
@@ -184,24 +289,51 @@ public class FriendCodeController {
                 .minLevel(minLevel)
                 .maxLevel(maxLevel)
                 .searchText(search)
+                .goals(goals)
                 .build();
 
-        // Use advanced search if any filters are provided, otherwise get all active codes
-        if (criteria.hasFilters()) {
-            friendCodesPage = friendCodeService.searchWithCriteria(criteria, pageable);
+        FriendCodeFeedResponse response;
+        
+        if (StringUtils.hasText(after)) {
+            // Keyset mode: seek past the cursor instead of skipping rows
+            if (!feedOrder) {
+                throw new ValidationException("Cursor pagination only supports sortBy=createdAt and sortDir=desc");
+            }
+            FeedCursor cursor = FeedCursor.decode(after);
+            Slice<FriendCodeResponse> friendCodesSlice = criteria.hasFilters()
+                    ? friendCodeService.searchWithCriteriaAfter(criteria, cursor, size)
+                    : friendCodeService.getActiveFriendCodesAfter(cursor, size);
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodesSlice, null);
         } else {
-            friendCodesPage = friendCodeService.getActiveFriendCodes(pageable);
+            Sort.Direction direction = Sort.Direction.fromString(sortDir);
+            // Secondary sort on id keeps ordering stable for rows sharing a timestamp
+            Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+            Pageable pageable = PageRequest.of(page, size, sort);
+            
+            Slice<FriendCodeResponse> friendCodesSlice;
+            
+            // Use advanced search if any filters are provided, otherwise get all active codes
+            if (criteria.hasFilters()) {
+                friendCodesSlice = friendCodeService.searchWithCriteria(criteria, pageable);
+            } else {
+                friendCodesSlice = friendCodeService.getActiveFriendCodes(pageable);
+            }
+            
+            // Totals come from a cached count rather than a COUNT query per request
+            Long estimatedTotal = includeTotals ? friendCodeCountEstimator.estimateMatchingCount(criteria) : null;
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodesSlice, estimatedTotal);
+            if (!feedOrder || friendCodeService.ranksByRelevance(criteria, pageable)) {
+                // Cursors are only defined against feed order
+                response.setNextCursor(null);
+            }
         }
         
-        FriendCodeFeedResponse response = FriendCodeFeedResponse.fromPage(friendCodesPage);
-        String ipAddress = getClientIpAddress(httpRequest);
-        boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
         response.setRateLimited(rateLimited);
 
         log.debug("Returning {} friend codes out of {} total",
              response.getContent().size(), response.getTotalElements());
 
-        return ResponseEntity.ok(response);
+        return okWithETag(eTag, response);
     }
 
     /**
@@ -211,7 +343,8 @@ public class FriendCodeController {
     @GetMapping("/{id}")
     @Operation(
         summary = "Get friend code by ID",
-        description = "Retrieves a specific friend code by its unique identifier."
+        description = "Retrieves a specific friend code by its unique identifier. " +
+                     "Supports If-None-Match and If-Modified-Since based on the friend code's last update."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -233,13 +366,66 @@ public class FriendCodeController {
     })
     public ResponseEntity<FriendCodeResponse> getFriendCode(
             @Parameter(description = "Friend code ID", example = "123")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         log.debug("Fetching friend code with ID: {}", id);
         
         FriendCode friendCode = friendCodeService.getFriendCodeById(id);
+        if (friendCode.getUpdatedAt() == null) {
+            return ResponseEntity.ok(FriendCodeResponse.fromEntity(friendCode));
+        }
+
+        // Timestamps are stored in UTC; the ETag keeps the sub-second precision Last-Modified drops
+        // Timestamps are stored in the server's local time
+        long lastModified = friendCode.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String eTag = "W/\"" + id + "-" + lastModified + "\"";
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModified).build();
+        }
+
         FriendCodeResponse response = FriendCodeResponse.fromEntity(friendCode);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+    }
+
+    /**
+     * Look up many friend codes by id and/or by code.
+     * POST /api/friend-codes/lookup
+     */
+    @PostMapping("/lookup")
+    @Operation(
+        summary = "Look up friend codes in bulk",
+        description = "Resolves up to " + FriendCodeLookupRequest.MAX_ENTRIES + " ids and/or 12-digit friend codes " +
+                     "in one request. Returns the friend codes found, including inactive ones with currentlyActive=false, " +
+                     "and the requested ids and codes that matched nothing."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lookup completed",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = FriendCodeLookupResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request data",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    public ResponseEntity<FriendCodeLookupResponse> lookupFriendCodes(
+            @Valid @RequestBody FriendCodeLookupRequest request) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> friendCodes = request.getFriendCodes() != null ? request.getFriendCodes() : List.of();
+        log.debug("Looking up {} ids and {} friend codes", ids.size(), friendCodes.size());
+
+        List<FriendCode> matches = friendCodeService.lookupFriendCodes(ids, friendCodes);
+
+        return ResponseEntity.ok(FriendCodeLookupResponse.of(ids, friendCodes, matches));
     }
 
     /**
@@ -255,41 +441,54 @@ public class FriendCodeController {
             @RequestParam(required = false) Integer maxLevel,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals,
             HttpServletRequest httpRequest,
+            WebRequest webRequest,
             @RequestHeader(value = "X-User-ID", required = false) Long userId) {
         
         log.debug("Searching friend codes - trainer: {}, location: {}, levels: {}-{}", 
                  trainerName, location, minLevel, maxLevel);
         
         size = Math.min(size, 100); // Maximum 100 items per page
+
+        String ipAddress = getClientIpAddress(httpRequest);
+        boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
+        String eTag = feedETag(httpRequest, rateLimited, false);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<FriendCode> friendCodesPage;
+        FriendCodeFeedResponse response;
         
-        // Use specific search methods based on provided parameters
+        // Use specific search methods based on provided parameters; all fetch slices without a COUNT
         if (StringUtils.hasText(trainerName)) {
-            friendCodesPage = friendCodeService.searchByTrainerName(trainerName, pageable);
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodeService.searchByTrainerName(trainerName, pageable),
+                    includeTotals ? friendCodeCountEstimator.estimateTrainerNameCount(trainerName) : null);
         } else if (StringUtils.hasText(description)) {
-            friendCodesPage = friendCodeService.searchByDescription(description, pageable);
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodeService.searchByDescription(description, pageable),
+                    includeTotals ? friendCodeCountEstimator.estimateDescriptionCount(description) : null);
         } else if (StringUtils.hasText(location)) {
-            friendCodesPage = friendCodeService.getFriendCodesByLocation(location, pageable);
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodeService.getFriendCodesByLocation(location, pageable),
+                    includeTotals ? friendCodeCountEstimator.estimateLocationCount(location) : null);
         } else if (minLevel != null || maxLevel != null) {
-            friendCodesPage = friendCodeService.getFriendCodesByLevelRange(minLevel, maxLevel, pageable);
+            response = FriendCodeFeedResponse.fromResponseSlice(
+                    friendCodeService.getFriendCodesByLevelRange(minLevel, maxLevel, pageable),
+                    includeTotals ? friendCodeCountEstimator.estimateLevelRangeCount(minLevel, maxLevel) : null);
         } else {
             // If no specific search criteria, return active friend codes
-            friendCodesPage = friendCodeService.getActiveFriendCodes(pageable);
+            response = FriendCodeFeedResponse.fromResponseSlice(friendCodeService.getActiveFriendCodes(pageable),
+                    includeTotals ? friendCodeCountEstimator.estimateActiveCount() : null);
         }
+        response.setNextCursor(null); // Cursor pagination is only offered on the main feed
         
-    FriendCodeFeedResponse response = FriendCodeFeedResponse.fromPage(friendCodesPage);
-    String ipAddress = getClientIpAddress(httpRequest);
-    boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
     response.setRateLimited(rateLimited);
 
     log.debug("Search returned {} friend codes", response.getContent().size());
 
-    return ResponseEntity.ok(response);
+    return okWithETag(eTag, response);
     }
 
     /**
@@ -301,22 +500,136 @@ public class FriendCodeController {
             @RequestParam(defaultValue = "24") int hours,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals,
             HttpServletRequest httpRequest,
+            WebRequest webRequest,
             @RequestHeader(value = "X-User-ID", required = false) Long userId) {
         
         log.debug("Fetching friend codes from last {} hours", hours);
         
         size = Math.min(size, 100);
+
+        String ipAddress = getClientIpAddress(httpRequest);
+        boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
+        String eTag = feedETag(httpRequest, rateLimited, true);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<FriendCode> friendCodesPage = friendCodeService.getRecentSubmissions(hours, pageable);
-    FriendCodeFeedResponse response = FriendCodeFeedResponse.fromPage(friendCodesPage);
-    String ipAddress = getClientIpAddress(httpRequest);
-    boolean rateLimited = friendCodeService.isSubmissionRateLimited(ipAddress, userId);
+        Slice<FriendCodeResponse> friendCodesSlice = friendCodeService.getRecentSubmissions(hours, pageable);
+    FriendCodeFeedResponse response = FriendCodeFeedResponse.fromResponseSlice(friendCodesSlice,
+            includeTotals ? friendCodeCountEstimator.estimateRecentCount(hours) : null);
+    response.setNextCursor(null); // Cursor pagination is only offered on the main feed
     response.setRateLimited(rateLimited);
-    return ResponseEntity.ok(response);
+    return okWithETag(eTag, response);
+    }
+
+    /**
+     * Get random active friend codes.
+     * GET /api/friend-codes/random
+     */
+    @GetMapping("/random")
+    @Operation(
+        summary = "Get random friend codes",
+        description = "Returns up to 'count' distinct active friend codes picked at random."
+    )
+    public ResponseEntity<List<FriendCodeResponse>> getRandomFriendCodes(
+            @Parameter(description = "Number of friend codes (max 100)", example = "10")
+            @RequestParam(defaultValue = "10") int count) {
+        log.debug("Fetching {} random friend codes", count);
+
+        count = Math.max(1, Math.min(count, 100)); // Between 1 and 100 friend codes
+
+        return ResponseEntity.ok(randomFriendCodeSampler.sample(count));
+    }
+
+    /**
+     * Export active friend codes as newline-delimited JSON.
+     * GET /api/friend-codes/export
+     */
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export active friend codes",
+        description = "Streams all active friend codes matching the filters as newline-delimited JSON, " +
+                     "one friend code per line, oldest first. Supports the same filters as the feed."
+    )
+    public ResponseEntity<StreamingResponseBody> exportFriendCodes(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Team team,
+            @RequestParam(required = false) Integer minLevel,
+            @RequestParam(required = false) Integer maxLevel,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Set<Goal> goals) {
+
+        log.debug("Exporting friend codes - location: {}, team: {}, levels: {}-{}, search: {}, goals: {}",
+                 location, team, minLevel, maxLevel, search, goals);
+
+        FriendCodeSearchCriteria criteria = FriendCodeSearchCriteria.builder()
+                .location(location)
+                .team(team)
+                .minLevel(minLevel)
+                .maxLevel(maxLevel)
+                .searchText(search)
+                .goals(goals)
+                .build();
+
+        // Reject bad filters before the response is committed to streaming
+        friendCodeService.validateSearchCriteria(criteria);
+
+        StreamingResponseBody body = outputStream -> {
+            friendCodeService.exportFriendCodes(criteria, friendCode -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(friendCode));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"friend-codes.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Stream newly submitted friend codes as Server-Sent Events.
+     * GET /api/friend-codes/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream new friend codes",
+        description = "Pushes each newly submitted friend code as a '" + FriendCodeStreamBroadcaster.EVENT_NAME +
+                     "' Server-Sent Event. Optionally filtered by team and by a case-insensitive location substring."
+    )
+    public SseEmitter streamFriendCodes(
+            @Parameter(description = "Only stream friend codes of this team", example = "MYSTIC")
+            @RequestParam(required = false) Team team,
+            @Parameter(description = "Only stream friend codes whose location contains this text", example = "york")
+            @RequestParam(required = false) String location) {
+        log.debug("Opening friend code stream - team: {}, location: {}", team, location);
+
+        return friendCodeStreamBroadcaster.subscribe(team, location);
+    }
+
+    /**
+     * Get facet counts for the feed filters.
+     * GET /api/friend-codes/facets
+     */
+    @GetMapping("/facets")
+    @Operation(
+        summary = "Get filter facet counts",
+        description = "Returns the number of active friend codes per team, goal and player level range."
+    )
+    public ResponseEntity<FriendCodeFacetsResponse> getFacets() {
+        log.debug("Fetching friend code facet counts");
+
+        return ResponseEntity.ok(friendCodeFacetCounter.getFacets());
     }
 
     /**
@@ -332,6 +645,38 @@ public class FriendCodeController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Check whether the requested sort matches the order keyset cursors are defined against.
+     */
+    private boolean isFeedOrder(String sortBy, String sortDir) {
+        return "createdAt".equals(sortBy) && "desc".equalsIgnoreCase(sortDir);
+    }
+
+    /**
+     * Derive a weak ETag for a feed response from the global feed version, the feed's time boundary,
+     * the request path and query parameters, and the per-client rate limit flag included in the body.
+     *
+     * @param slidingWindow Whether the response covers a window relative to the current time
+     * @return The ETag, or null when the feed version is unavailable
+     */
+    @Nullable
+    private String feedETag(HttpServletRequest request, boolean rateLimited, boolean slidingWindow) {
+        return feedVersionService.currentVersion()
+                .map(version -> {
+                    StringBuilder key = new StringBuilder(request.getRequestURI());
+                    key.append('@').append(feedVersionService.timeBoundary(slidingWindow));
+                    new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                            key.append('&').append(name).append('=').append(String.join(",", values)));
+                    String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+                    return "W/\"" + version + "-" + hash.substring(0, 16) + (rateLimited ? "-r" : "") + "\"";
+                })
+                .orElse(null);
+    }
+
+    private <T> ResponseEntity<T> okWithETag(@Nullable String eTag, T body) {
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).body(body) : ResponseEntity.ok(body);
+    }
+
     /**
      * Extract client IP address from HTTP request.
      */
@@ -0,0 +1,51 @@
+package com.devs.simplicity.poke_go_friends.controller;
+
+import com.devs.simplicity.poke_go_friends.dto.LocationSuggestion;
+import com.devs.simplicity.poke_go_friends.service.LocationSuggestionIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for location lookups used by the location filter.
+ */
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Locations", description = "Locations shared by active friend codes")
+public class LocationController {
+
+    private final LocationSuggestionIndex locationSuggestionIndex;
+
+    /**
+     * Suggest locations for autocomplete.
+     * GET /api/locations/suggest
+     */
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Suggest locations",
+        description = "Returns locations of active friend codes starting with the given text, " +
+                     "most used first, with the number of active friend codes for each."
+    )
+    public ResponseEntity<List<LocationSuggestion>> suggestLocations(
+            @Parameter(description = "Start of the location, case-insensitive", example = "new y")
+            @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Maximum number of suggestions (max 20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Suggesting locations for: {}", q);
+
+        limit = Math.max(1, Math.min(limit, 20)); // Between 1 and 20 suggestions
+
+        return ResponseEntity.ok(locationSuggestionIndex.suggest(q, limit));
+    }
+}
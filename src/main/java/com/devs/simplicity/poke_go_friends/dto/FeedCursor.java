@@ -0,0 +1,115 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.exception.ValidationException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset cursor for the friend code feed.
+ * Encodes the (createdAt, id) position of the last friend code a client has seen,
+ * so the next page can seek past it instead of skipping rows with OFFSET.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class FeedCursor {
+
+    /**
+     * Feed order the cursor is defined against: newest first, id as tie-breaker.
+     */
+    public static final Sort FEED_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public FeedCursor(LocalDateTime createdAt, Long id) {
+        if (createdAt == null || id == null) {
+            throw new IllegalArgumentException("Cursor requires both createdAt and id");
+        }
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor positioned at the given friend code.
+     *
+     * @param friendCode The last friend code returned to the client
+     * @return Cursor pointing after the friend code
+     */
+    public static FeedCursor of(FriendCode friendCode) {
+        return new FeedCursor(friendCode.getCreatedAt(), friendCode.getId());
+    }
+
+    /**
+     * Creates a cursor positioned at the given friend code response.
+     *
+     * @param response The last friend code returned to the client
+     * @return Cursor pointing after the friend code
+     */
+    public static FeedCursor of(FriendCodeResponse response) {
+        return new FeedCursor(response.getCreatedAt(), response.getId());
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe opaque token.
+     *
+     * @return Encoded cursor token
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token previously produced by {@link #encode()}.
+     *
+     * @param token The opaque cursor token
+     * @return The decoded cursor
+     * @throws ValidationException if the token is malformed
+     */
+    public static FeedCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            throw new ValidationException("Cursor cannot be empty");
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new FeedCursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Builds the token for the page following the given slice.
+     *
+     * @param slice Slice of friend code responses in feed order
+     * @return Encoded cursor, or null if there is no next page
+     */
+    public static String nextToken(Slice<FriendCodeResponse> slice) {
+        List<FriendCodeResponse> content = slice.getContent();
+        if (!slice.hasNext() || content.isEmpty()) {
+            return null;
+        }
+        return of(content.get(content.size() - 1)).encode();
+    }
+}
@@ -0,0 +1,34 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for submitting many friend codes at once.
+ * Entries are validated one by one by the service, so one invalid entry does not reject the others.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request object for submitting several Pokemon Go friend codes at once")
+public class FriendCodeBatchSubmissionRequest {
+
+    /**
+     * Maximum number of friend codes in one batch submission.
+     */
+    public static final int MAX_ENTRIES = 50;
+
+    @NotEmpty(message = "At least one friend code is required")
+    @Size(max = MAX_ENTRIES, message = "Cannot submit more than " + MAX_ENTRIES + " friend codes at once")
+    @Schema(description = "Friend code submissions, each with the same fields as a single submission")
+    private List<@NotNull(message = "Friend code submissions cannot be null") FriendCodeSubmissionRequest> friendCodes =
+            new ArrayList<>();
+}
@@ -0,0 +1,76 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch submission responses.
+ * Holds one result per submitted entry, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendCodeBatchSubmissionResponse {
+
+    private int createdCount;
+    private int rejectedCount;
+    private List<Result> results;
+
+    /**
+     * Outcome of one submitted entry.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+
+        /**
+         * Position of the entry in the request.
+         */
+        private int index;
+
+        private String friendCode;
+
+        private Status status;
+
+        /**
+         * The created friend code; null when the entry was rejected.
+         */
+        private FriendCodeResponse created;
+
+        /**
+         * Why the entry was rejected; null when it was created.
+         */
+        private String error;
+
+        public static Result created(int index, FriendCodeResponse created) {
+            return new Result(index, created.getFriendCode(), Status.CREATED, created, null);
+        }
+
+        public static Result rejected(int index, String friendCode, Status status, String error) {
+            return new Result(index, friendCode, status, null, error);
+        }
+    }
+
+    /**
+     * Outcome of an entry: created, or rejected as invalid or as an existing friend code.
+     */
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE
+    }
+
+    /**
+     * Factory method to create a batch response from the per-entry results.
+     */
+    public static FriendCodeBatchSubmissionResponse of(List<Result> results) {
+        int created = (int) results.stream().filter(result -> result.getStatus() == Status.CREATED).count();
+        return new FriendCodeBatchSubmissionResponse(created, results.size() - created, results);
+    }
+}
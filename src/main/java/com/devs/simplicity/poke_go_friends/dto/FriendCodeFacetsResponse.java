@@ -0,0 +1,33 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for facet counts shown next to the feed filters.
+ * Each count is the number of active friend codes the corresponding filter would match.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of active friend codes per filter value")
+public class FriendCodeFacetsResponse {
+
+    @Schema(description = "Number of active friend codes", example = "2500")
+    private int total;
+
+    @Schema(description = "Active friend codes per team", example = "{\"mystic\": 1204, \"valor\": 980, \"instinct\": 210}")
+    private Map<String, Integer> teams;
+
+    @Schema(description = "Active friend codes matching each goal filter; codes looking for all goals count towards every goal",
+            example = "{\"gifts\": 1500, \"exp\": 600, \"raids\": 800, \"all\": 1900}")
+    private Map<String, Integer> goals;
+
+    @Schema(description = "Active friend codes per player level range; codes without a level are not counted",
+            example = "{\"1-19\": 120, \"20-29\": 400, \"30-39\": 900, \"40+\": 312}")
+    private Map<String, Integer> levels;
+}
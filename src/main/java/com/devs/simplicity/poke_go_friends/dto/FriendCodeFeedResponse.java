@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -22,12 +23,21 @@ public class FriendCodeFeedResponse {
     private List<FriendCodeResponse> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements = 0L;
+    private Integer totalPages = 0;
     private boolean first;
     private boolean last;
     private boolean empty;
     private boolean rateLimited;
+    private String nextCursor;
+
+    /**
+     * Constructor for page-based responses without a cursor.
+     */
+    public FriendCodeFeedResponse(List<FriendCodeResponse> content, int page, int size, long totalElements,
+                                  int totalPages, boolean first, boolean last, boolean empty, boolean rateLimited) {
+        this(content, page, size, totalElements, totalPages, first, last, empty, rateLimited, null);
+    }
 
     /**
      * Factory method to create feed response from Spring Data Page.
@@ -50,12 +60,63 @@ public class FriendCodeFeedResponse {
         );
     }
 
+    /**
+     * Factory method to create a cursor-paginated feed response from a Spring Data Slice.
+     * Totals are omitted because slices are fetched without a count query.
+     */
+    public static FriendCodeFeedResponse fromSlice(Slice<FriendCode> slice) {
+        return fromSlice(slice, null);
+    }
+
+    /**
+     * Factory method to create a feed response from a Spring Data Slice with an estimated total.
+     *
+     * @param slice          Slice of friend codes
+     * @param estimatedTotal Approximate total, or null to omit totals
+     */
+    public static FriendCodeFeedResponse fromSlice(Slice<FriendCode> slice, Long estimatedTotal) {
+        return fromResponseSlice(slice.map(FriendCodeResponse::fromEntity), estimatedTotal);
+    }
+
+    /**
+     * Factory method to create a feed response from a slice of projected responses.
+     * The estimate is raised if needed so it never contradicts the rows already returned.
+     *
+     * @param slice          Slice of friend code responses
+     * @param estimatedTotal Approximate total, or null to omit totals
+     */
+    public static FriendCodeFeedResponse fromResponseSlice(Slice<FriendCodeResponse> slice, Long estimatedTotal) {
+        List<FriendCodeResponse> content = slice.getContent();
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (estimatedTotal != null) {
+            long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0L;
+            long seen = offset + content.size() + (slice.hasNext() ? 1 : 0);
+            totalElements = Math.max(estimatedTotal, seen);
+            totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / slice.getSize());
+        }
+
+        return new FriendCodeFeedResponse(
+            content,
+            slice.getNumber(),
+            slice.getSize(),
+            totalElements,
+            totalPages,
+            slice.isFirst(),
+            slice.isLast(),
+            slice.isEmpty(),
+            false,
+            FeedCursor.nextToken(slice)
+        );
+    }
+
     /**
      * Constructor for simple responses.
      */
     public FriendCodeFeedResponse(List<FriendCodeResponse> content) {
         this.content = content;
-        this.totalElements = content.size();
+        this.totalElements = (long) content.size();
         this.empty = content.isEmpty();
         this.rateLimited = false;
     }
@@ -0,0 +1,37 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for looking up many friend codes at once by id and/or by code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request object for looking up friend codes by id and/or by 12-digit code")
+public class FriendCodeLookupRequest {
+
+    /**
+     * Maximum number of ids plus codes in one lookup.
+     */
+    public static final int MAX_ENTRIES = 500;
+
+    @Size(max = MAX_ENTRIES, message = "Cannot look up more than " + MAX_ENTRIES + " ids at once")
+    @Schema(description = "Friend code ids to look up", example = "[1, 2, 3]")
+    private List<@NotNull(message = "Ids cannot be null") Long> ids = new ArrayList<>();
+
+    @Size(max = MAX_ENTRIES, message = "Cannot look up more than " + MAX_ENTRIES + " friend codes at once")
+    @Schema(description = "12-digit friend codes to look up", example = "[\"123456789012\"]")
+    private List<@NotNull(message = "Friend codes cannot be null")
+                 @Pattern(regexp = "^\\d{12}$", message = "Friend code must be exactly 12 digits") String> friendCodes =
+            new ArrayList<>();
+}
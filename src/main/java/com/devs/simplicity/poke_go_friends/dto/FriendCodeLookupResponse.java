@@ -0,0 +1,71 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO for batch lookup responses.
+ * Lists the friend codes found and the requested ids and codes that matched nothing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendCodeLookupResponse {
+
+    private List<Entry> found;
+    private List<Long> missingIds;
+    private List<String> missingFriendCodes;
+
+    /**
+     * A found friend code with whether it is currently active.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        @JsonUnwrapped
+        private FriendCodeResponse friendCode;
+
+        /**
+         * Whether the friend code is active and not expired, per {@link FriendCode#isCurrentlyActive()}.
+         */
+        private boolean currentlyActive;
+    }
+
+    /**
+     * Factory method to create a lookup response from the requested ids and codes and the matching entities.
+     */
+    public static FriendCodeLookupResponse of(Collection<Long> ids, Collection<String> friendCodes,
+                                              List<FriendCode> matches) {
+        Set<Long> foundIds = new HashSet<>();
+        Set<String> foundCodes = new HashSet<>();
+        for (FriendCode match : matches) {
+            foundIds.add(match.getId());
+            foundCodes.add(match.getFriendCode());
+        }
+
+        List<Entry> found = matches.stream()
+                .sorted(Comparator.comparing(FriendCode::getId))
+                .map(match -> new Entry(FriendCodeResponse.fromEntity(match), match.isCurrentlyActive()))
+                .toList();
+        List<Long> missingIds = new LinkedHashSet<>(ids).stream()
+                .filter(id -> !foundIds.contains(id))
+                .toList();
+        List<String> missingFriendCodes = new LinkedHashSet<>(friendCodes).stream()
+                .filter(code -> !foundCodes.contains(code))
+                .toList();
+
+        return new FriendCodeLookupResponse(found, missingIds, missingFriendCodes);
+    }
+}
@@ -1,5 +1,6 @@
 package com.devs.simplicity.poke_go_friends.dto;
 
+import com.devs.simplicity.poke_go_friends.entity.Goal;
 import com.devs.simplicity.poke_go_friends.entity.Team;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.util.StringUtils;
 
+import java.util.Set;
+
 /**
  * Data Transfer Object for friend code search criteria.
  * Encapsulates all possible search and filter parameters.
@@ -42,6 +45,11 @@ public class FriendCodeSearchCriteria {
      */
     private String searchText;
 
+    /**
+     * Goals filter - matches codes sharing at least one of the goals
+     */
+    private Set<Goal> goals;
+
     /**
      * Check if any filter criteria is specified
      * @return true if at least one filter is specified, false otherwise
@@ -51,6 +59,7 @@ public class FriendCodeSearchCriteria {
                team != null ||
                minLevel != null ||
                maxLevel != null ||
-               StringUtils.hasText(searchText);
+               StringUtils.hasText(searchText) ||
+               (goals != null && !goals.isEmpty());
     }
 }
@@ -0,0 +1,22 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a suggested location filter value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A location shared by active friend codes")
+public class LocationSuggestion {
+
+    @Schema(description = "Location as entered by a trainer", example = "New York, NY")
+    private String location;
+
+    @Schema(description = "Number of active friend codes with this location", example = "12")
+    private int count;
+}
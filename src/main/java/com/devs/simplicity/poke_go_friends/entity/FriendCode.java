@@ -2,9 +2,13 @@ package com.devs.simplicity.poke_go_friends.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,23 +24,64 @@ import java.util.HashSet;
 @Table(name = "friend_codes", indexes = {
     @Index(name = "idx_friend_codes_active", columnList = "isActive"),
     @Index(name = "idx_friend_codes_created", columnList = "createdAt"),
-    @Index(name = "idx_friend_codes_location", columnList = "location")
+    @Index(name = "idx_friend_codes_location", columnList = "location"),
+    @Index(name = "idx_friend_codes_visible_created", columnList = "createdAt DESC, id DESC")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = FriendCode.FRIEND_CODE_KEY, columnNames = "friend_code")
 })
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class FriendCode {
 
+    /**
+     * Visibility bound of active friend codes without an expiration.
+     */
+    public static final LocalDateTime VISIBLE_FOREVER = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Visibility bound of deactivated friend codes.
+     * The feed index leaves them out with "visible_until > HIDDEN"; active-code queries repeat that
+     * bound as a literal, which the planner needs to use a partial index.
+     */
+    public static final LocalDateTime HIDDEN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Name of the constraint keeping friend codes unique: the primary key of friend_code_keys in PostgreSQL,
+     * and the unique constraint generated from this mapping elsewhere.
+     */
+    public static final String FRIEND_CODE_KEY = "friend_code_keys_pkey";
+
+    /**
+     * Number of ids reserved per sequence call; must match the increment of friend_codes_id_seq.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Ids are taken from the sequence in blocks (pooled optimizer), so new friend codes get their ids
+     * without a round trip per row and inserts can be sent as JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "friend_codes_id_seq")
+    @SequenceGenerator(name = "friend_codes_id_seq", sequenceName = "friend_codes_id_seq",
+                       allocationSize = FriendCode.ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
-    @Column(name = "friend_code", unique = true, nullable = false, length = 12)
+    // Stored as a BIGINT, so lookups and the unique key compare 8-byte integers; read back zero-padded
+    @Convert(converter = FriendCodeNumberConverter.class)
+    @Column(name = "friend_code", nullable = false)
     @NotBlank(message = "Friend code is required")
     @Pattern(regexp = "\\d{12}", message = "Friend code must be exactly 12 digits")
     private String friendCode;
 
+    // Read-only view of the same column, used to read friend codes as numbers without formatting them
+    @Column(name = "friend_code", insertable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Long friendCodeNumber;
+
     @Column(name = "trainer_name", nullable = true, length = 20)
     @Size(max = 20, message = "Trainer name cannot exceed 20 characters")
     @Pattern(regexp = "^[a-zA-Z0-9]*$", 
@@ -60,12 +105,18 @@ public class FriendCode {
     @Column(name = "team", length = 20)
     private Team team;
 
-    @ElementCollection(targetClass = Goal.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "friend_code_goals", joinColumns = @JoinColumn(name = "friend_code_id"))
-    @Column(name = "goal")
+    // Stored as a bitmask in the row itself, so reading goals needs no join or extra select
+    @Convert(converter = GoalSetConverter.class)
+    @Column(name = "goals_mask", nullable = false)
     private Set<Goal> goals = new HashSet<>();
 
+    // Read-only view of the same column, used for bitwise goal filtering in queries
+    @Column(name = "goals_mask", insertable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Short goalsMask;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
@@ -80,6 +131,11 @@ public class FriendCode {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 
+    // Derived from isActive and expiresAt so visibility is a single range predicate: visibleUntil > now
+    @Column(name = "visible_until", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime visibleUntil = VISIBLE_FOREVER;
+
     // Many-to-one relationship with User (optional for now, can be null for anonymous submissions)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -149,6 +205,19 @@ public class FriendCode {
         return true;
     }
 
+    /**
+     * Derives {@link #visibleUntil} from the active flag and expiration before every write.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateVisibleUntil() {
+        if (!Boolean.TRUE.equals(isActive)) {
+            visibleUntil = HIDDEN;
+        } else {
+            visibleUntil = expiresAt != null ? expiresAt : VISIBLE_FOREVER;
+        }
+    }
+
     /**
      * Deactivates the friend code.
      */
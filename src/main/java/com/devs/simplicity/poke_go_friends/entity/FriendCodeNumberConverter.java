@@ -0,0 +1,74 @@
+package com.devs.simplicity.poke_go_friends.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * JPA converter storing a 12-digit friend code as a number in the BIGINT friend_code column.
+ * Codes are zero-padded back to 12 digits when read, so leading zeros survive the round trip.
+ */
+@Converter
+public class FriendCodeNumberConverter implements AttributeConverter<String, Long> {
+
+    /**
+     * Largest value a 12-digit friend code can take.
+     */
+    public static final long MAX_FRIEND_CODE = 999_999_999_999L;
+
+    @Override
+    public Long convertToDatabaseColumn(String friendCode) {
+        if (friendCode == null) {
+            return null;
+        }
+        Long number = toNumber(friendCode);
+        if (number == null) {
+            throw new IllegalArgumentException("Friend code must be exactly 12 digits: " + friendCode);
+        }
+        return number;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long number) {
+        return number != null ? format(number) : null;
+    }
+
+    /**
+     * Parses a friend code into its number, ignoring the spaces and dashes users might add.
+     *
+     * @param friendCode The friend code (may be null)
+     * @return The number, or null if the code is not 12 digits
+     */
+    public static Long toNumber(String friendCode) {
+        if (friendCode == null) {
+            return null;
+        }
+        long number = 0;
+        int digits = 0;
+        for (int i = 0; i < friendCode.length(); i++) {
+            char c = friendCode.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 12) {
+                    return null;
+                }
+                number = number * 10 + (c - '0');
+            } else if (c != '-' && !Character.isWhitespace(c)) {
+                return null;
+            }
+        }
+        return digits == 12 ? number : null;
+    }
+
+    /**
+     * Formats a friend code number as 12 zero-padded digits.
+     *
+     * @param number The friend code number
+     * @return The 12-digit friend code
+     */
+    public static String format(long number) {
+        if (number < 0 || number > MAX_FRIEND_CODE) {
+            throw new IllegalArgumentException("Not a friend code number: " + number);
+        }
+        String digits = Long.toString(number);
+        return "0".repeat(12 - digits.length()) + digits;
+    }
+}
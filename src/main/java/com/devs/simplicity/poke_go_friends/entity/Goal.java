@@ -8,21 +8,33 @@ import com.fasterxml.jackson.annotation.JsonValue;
  * Based on the activities players want to participate in.
  */
 public enum Goal {
-    GIFTS("gifts"),
-    EXP("exp"),
-    RAIDS("raids"),
-    ALL("all");
+    GIFTS("gifts", 1),
+    EXP("exp", 2),
+    RAIDS("raids", 4),
+    ALL("all", 8);
 
     private final String value;
+    private final int bit;
 
-    Goal(String value) {
+    Goal(String value, int bit) {
         this.value = value;
+        this.bit = bit;
     }
 
     public String getValue() {
         return value;
     }
 
+    /**
+     * Bit representing this goal in the persisted goals mask.
+     * Bits are fixed explicitly so reordering the constants never changes stored data.
+     *
+     * @return The goal's bit
+     */
+    public int getBit() {
+        return bit;
+    }
+
     /**
      * Convert string value to Goal enum.
      * Used for deserialization from JSON.
@@ -0,0 +1,75 @@
+package com.devs.simplicity.poke_go_friends.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA converter storing a set of goals as a bitmask in the goals_mask column.
+ * Each goal contributes its {@link Goal#getBit()}; an empty or null set is stored as 0.
+ */
+@Converter
+public class GoalSetConverter implements AttributeConverter<Set<Goal>, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Set<Goal> goals) {
+        return (short) toMask(goals);
+    }
+
+    @Override
+    public Set<Goal> convertToEntityAttribute(Short mask) {
+        return fromMask(mask != null ? mask : 0);
+    }
+
+    /**
+     * Combines goals into a bitmask.
+     *
+     * @param goals The goals (may be null)
+     * @return Bitmask with one bit set per goal
+     */
+    public static int toMask(Collection<Goal> goals) {
+        int mask = 0;
+        if (goals != null) {
+            for (Goal goal : goals) {
+                if (goal != null) {
+                    mask |= goal.getBit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask a stored goals_mask is matched against when filtering by goals.
+     * Codes marked ALL match any goal filter, and filtering by ALL matches codes with any goal at all.
+     *
+     * @param goals The goals being filtered by
+     * @return Bitmask that shares at least one bit with every matching goals_mask
+     */
+    public static int toFilterMask(Collection<Goal> goals) {
+        if (goals != null && goals.contains(Goal.ALL)) {
+            return toMask(EnumSet.allOf(Goal.class));
+        }
+        return toMask(goals) | Goal.ALL.getBit();
+    }
+
+    /**
+     * Expands a bitmask into the goals it contains.
+     *
+     * @param mask The bitmask
+     * @return Mutable set of goals whose bit is set
+     */
+    public static Set<Goal> fromMask(int mask) {
+        Set<Goal> goals = new HashSet<>();
+        for (Goal goal : Goal.values()) {
+            if ((mask & goal.getBit()) != 0) {
+                goals.add(goal);
+            }
+        }
+        return goals;
+    }
+}
@@ -26,8 +26,14 @@ import java.util.List;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class User {
 
+    /**
+     * Number of ids reserved per sequence call; must match the increment of users_id_seq.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = User.ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -0,0 +1,14 @@
+package com.devs.simplicity.poke_go_friends.event;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+
+import java.util.List;
+
+/**
+ * Published when existing friend codes were deactivated or had their expiration changed,
+ * so they may have left or moved within the active feed.
+ *
+ * @param friendCodes The changed friend codes
+ */
+public record FriendCodesChangedEvent(List<FriendCode> friendCodes) {
+}
@@ -0,0 +1,14 @@
+package com.devs.simplicity.poke_go_friends.event;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+
+import java.util.List;
+
+/**
+ * Published when new friend codes have been saved, either by a user submission
+ * or by the Reddit scraper.
+ *
+ * @param friendCodes The saved friend codes
+ */
+public record FriendCodesCreatedEvent(List<FriendCode> friendCodes) {
+}
@@ -0,0 +1,12 @@
+package com.devs.simplicity.poke_go_friends.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when friend codes created before a cutoff have been deleted.
+ *
+ * @param createdBefore Cutoff used for the deletion
+ * @param deletedCount  Number of deleted friend codes
+ */
+public record FriendCodesPurgedEvent(LocalDateTime createdBefore, int deletedCount) {
+}
@@ -2,26 +2,40 @@ package com.devs.simplicity.poke_go_friends.repository;
 
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
 import com.devs.simplicity.poke_go_friends.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for FriendCode entity.
  * Provides custom queries for finding, filtering, and searching friend codes.
- * Extends JpaSpecificationExecutor for dynamic query building.
+ * Extends JpaSpecificationExecutor for dynamic query building and
+ * FriendCodeRepositoryCustom for count-free slice queries.
  */
 @Repository
-public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, JpaSpecificationExecutor<FriendCode> {
+public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, JpaSpecificationExecutor<FriendCode>,
+        FriendCodeRepositoryCustom {
+
+    /**
+     * JPQL condition for friend codes visible at :currentTime, on the alias fc.
+     * The constant bound is the predicate of the partial feed index, repeated so the planner can prove
+     * the index covers the query; see {@link FriendCode#HIDDEN}. Written as a Hibernate datetime literal,
+     * which is rendered as a timestamp without time zone like the column; a JDBC {ts} escape is not.
+     */
+    String VISIBLE = "fc.visibleUntil > datetime 1970-01-01 00:00:00 AND fc.visibleUntil > :currentTime ";
 
     /**
      * Find all active friend codes (not expired and isActive = true).
@@ -30,8 +44,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable Pagination information
      * @return Page of active friend codes
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodes(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
 
@@ -41,8 +54,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param currentTime Current timestamp to check expiration
      * @return List of active friend codes
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
            "ORDER BY fc.createdAt DESC")
     List<FriendCode> findActiveFriendCodes(@Param("currentTime") LocalDateTime currentTime);
 
@@ -54,9 +66,8 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable    Pagination information
      * @return Page of friend codes matching the location
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
-           "AND LOWER(fc.location) LIKE LOWER(CONCAT('%', :location, '%')) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
+           "AND fc.location ILIKE CONCAT('%', :location, '%') " +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesByLocation(@Param("location") String location,
                                                      @Param("currentTime") LocalDateTime currentTime,
@@ -71,8 +82,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable    Pagination information
      * @return Page of friend codes within the level range
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
            "AND fc.playerLevel BETWEEN :minLevel AND :maxLevel " +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesByLevelRange(@Param("minLevel") Integer minLevel,
@@ -99,9 +109,8 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable    Pagination information
      * @return Page of friend codes matching the trainer name
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
-           "AND LOWER(fc.trainerName) LIKE LOWER(CONCAT('%', :trainerName, '%')) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
+           "AND fc.trainerName ILIKE CONCAT('%', :trainerName, '%') " +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesByTrainerName(@Param("trainerName") String trainerName,
                                                         @Param("currentTime") LocalDateTime currentTime,
@@ -115,9 +124,8 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable    Pagination information
      * @return Page of friend codes matching the description
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
-           "AND LOWER(fc.description) LIKE LOWER(CONCAT('%', :description, '%')) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
+           "AND fc.description ILIKE CONCAT('%', :description, '%') " +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesByDescription(@Param("description") String description,
                                                         @Param("currentTime") LocalDateTime currentTime,
@@ -141,8 +149,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @return Page of active friend codes submitted by the user
      */
     @Query("SELECT fc FROM FriendCode fc WHERE fc.user = :user " +
-           "AND fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
+           "AND " + VISIBLE +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesByUser(@Param("user") User user,
                                                  @Param("currentTime") LocalDateTime currentTime,
@@ -172,8 +179,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param currentTime Current timestamp to check expiration
      * @return Number of active friend codes
      */
-    @Query("SELECT COUNT(fc) FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime)")
+    @Query("SELECT COUNT(fc) FROM FriendCode fc WHERE " + VISIBLE)
     Long countActiveFriendCodes(@Param("currentTime") LocalDateTime currentTime);
 
     /**
@@ -192,8 +198,7 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @return Number of active friend codes submitted by the user
      */
     @Query("SELECT COUNT(fc) FROM FriendCode fc WHERE fc.user = :user " +
-           "AND fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime)")
+           "AND " + VISIBLE)
     Long countActiveFriendCodesByUser(@Param("user") User user,
                                      @Param("currentTime") LocalDateTime currentTime);
 
@@ -208,14 +213,13 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
      * @param pageable       Pagination information
      * @return Page of friend codes matching the criteria
      */
-    @Query("SELECT fc FROM FriendCode fc WHERE fc.isActive = true " +
-           "AND (fc.expiresAt IS NULL OR fc.expiresAt > :currentTime) " +
-           "AND (:location IS NULL OR LOWER(fc.location) LIKE LOWER(CONCAT('%', :location, '%'))) " +
+    @Query("SELECT fc FROM FriendCode fc WHERE " + VISIBLE +
+           "AND (:location IS NULL OR fc.location ILIKE CONCAT('%', :location, '%')) " +
            "AND (:minLevel IS NULL OR fc.playerLevel IS NULL OR fc.playerLevel >= :minLevel) " +
            "AND (:maxLevel IS NULL OR fc.playerLevel IS NULL OR fc.playerLevel <= :maxLevel) " +
            "AND (:searchText IS NULL OR " +
-           "     LOWER(fc.trainerName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "     LOWER(fc.description) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
+           "     fc.trainerName ILIKE CONCAT('%', :searchText, '%') OR " +
+           "     fc.description ILIKE CONCAT('%', :searchText, '%')) " +
            "ORDER BY fc.createdAt DESC")
     Page<FriendCode> findActiveFriendCodesWithFilters(@Param("location") String location,
                                                       @Param("minLevel") Integer minLevel,
@@ -224,6 +228,40 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
                                                       @Param("currentTime") LocalDateTime currentTime,
                                                       Pageable pageable);
 
+    /**
+     * Find the ids of all active friend codes (not expired and isActive = true).
+     *
+     * @param currentTime Current timestamp to check expiration
+     * @return Ids of active friend codes
+     */
+    @Query("SELECT fc.id FROM FriendCode fc WHERE " + VISIBLE)
+    List<Long> findActiveFriendCodeIds(@Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Count active friend codes per combination of team, goals and player level, for the filter facets.
+     * Each row holds the team (may be null), the goals bitmask, the player level (may be null) and the count.
+     *
+     * @param currentTime Current timestamp to check expiration
+     * @return One row per distinct combination
+     */
+    @Query("SELECT fc.team, fc.goalsMask, fc.playerLevel, COUNT(fc) FROM FriendCode fc " +
+           "WHERE " + VISIBLE +
+           "GROUP BY fc.team, fc.goalsMask, fc.playerLevel")
+    List<Object[]> countActiveFriendCodesByFacet(@Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Stream every stored friend code as its number, active or not, reading rows forward-only in batches.
+     * Must be called inside a transaction and the stream closed after use.
+     *
+     * @return Stream of all friend code numbers
+     */
+    @Query("SELECT fc.friendCodeNumber FROM FriendCode fc")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Long> streamAllFriendCodeNumbers();
+
     /**
      * Delete friend codes created before the specified timestamp.
      * This is used for cleanup of old friend codes.
@@ -234,4 +272,26 @@ public interface FriendCodeRepository extends JpaRepository<FriendCode, Long>, J
     @Modifying
     @Query("DELETE FROM FriendCode fc WHERE fc.createdAt < :timestamp")
     int deleteByCreatedAtBefore(@Param("timestamp") LocalDateTime timestamp);
+
+    /**
+     * Create the missing hourly partitions of the partitioned friend_codes table for a time range.
+     * Requires the PostgreSQL partition functions.
+     *
+     * @param from  Start of the range
+     * @param until End of the range (exclusive)
+     * @return The number of partitions created
+     */
+    @Query(value = "SELECT create_friend_code_partitions(CAST(:fromTime AS TIMESTAMP), CAST(:untilTime AS TIMESTAMP))",
+           nativeQuery = true)
+    int createPartitions(@Param("fromTime") LocalDateTime from, @Param("untilTime") LocalDateTime until);
+
+    /**
+     * Remove friend codes created before the specified timestamp by dropping expired partitions
+     * and deleting the remaining older rows. Requires the PostgreSQL partition functions.
+     *
+     * @param timestamp The cutoff timestamp - friend codes created before this will be removed
+     * @return The number of friend codes removed
+     */
+    @Query(value = "SELECT drop_friend_code_partitions(CAST(:timestamp AS TIMESTAMP))", nativeQuery = true)
+    int dropPartitionsBefore(@Param("timestamp") LocalDateTime timestamp);
 }
@@ -0,0 +1,64 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository fragment for FriendCode queries that Spring Data
+ * cannot derive on its own.
+ */
+public interface FriendCodeRepositoryCustom {
+
+    /**
+     * Finds a slice of friend codes matching the specification.
+     * Fetches one row more than the page size to determine whether a next slice exists,
+     * so no COUNT query is issued.
+     *
+     * @param specification Filter to apply
+     * @param pageable      Pagination and sorting information
+     * @return Slice of matching friend codes
+     */
+    Slice<FriendCode> findSlice(Specification<FriendCode> specification, Pageable pageable);
+
+    /**
+     * Finds a slice of friend codes matching the specification, projected straight into responses.
+     * Selects only the columns the response needs, so no entities are hydrated or tracked
+     * by the persistence context.
+     *
+     * @param specification Filter to apply
+     * @param pageable      Pagination and sorting information
+     * @return Slice of matching friend codes as responses
+     */
+    Slice<FriendCodeResponse> findResponseSlice(Specification<FriendCode> specification, Pageable pageable);
+
+    /**
+     * Streams all friend codes matching the specification, projected straight into responses.
+     * Rows are read forward-only in batches of the fetch size, so memory use does not grow
+     * with the number of matches. Must be called inside a transaction and the stream closed
+     * after use.
+     *
+     * @param specification Filter to apply
+     * @param sort          Sort order
+     * @param fetchSize     Number of rows the JDBC driver fetches per round trip
+     * @return Stream of matching friend codes as responses
+     */
+    Stream<FriendCodeResponse> streamResponses(Specification<FriendCode> specification, Sort sort, int fetchSize);
+
+    /**
+     * Inserts the friend codes that do not exist yet in a single statement, skipping existing codes
+     * instead of failing. Each code is claimed in friend_code_keys with INSERT ... ON CONFLICT DO NOTHING
+     * and only claimed codes are inserted into friend_codes. Requires PostgreSQL.
+     * Inserted friend codes get their generated id and timestamps set; they are not managed afterwards.
+     *
+     * @param friendCodes New friend codes (duplicates within the list are inserted once)
+     * @return The friend codes that were inserted, in input order; codes that already existed are left out
+     */
+    List<FriendCode> insertIfAbsent(List<FriendCode> friendCodes);
+}
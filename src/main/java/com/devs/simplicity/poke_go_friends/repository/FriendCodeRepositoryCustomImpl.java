@@ -0,0 +1,244 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.FriendCodeNumberConverter;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Criteria API implementation of {@link FriendCodeRepositoryCustom}, plus the native multi-row insert.
+ */
+@RequiredArgsConstructor
+public class FriendCodeRepositoryCustomImpl implements FriendCodeRepositoryCustom {
+
+    /**
+     * Claims each code in friend_code_keys and inserts only the claimed ones, all in one statement.
+     * The friend_codes insert trigger accepts keys already claimed for the same id.
+     */
+    private static final String INSERT_IF_ABSENT_SQL = """
+            WITH input AS (
+                SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::int[], ?::varchar[], ?::text[],
+                                     ?::varchar[], ?::smallint[], ?::timestamp[], ?::bigint[])
+                    AS t(friend_code, trainer_name, player_level, location, description,
+                         team, goals_mask, expires_at, user_id)
+            ), claimed AS (
+                INSERT INTO friend_code_keys (friend_code, friend_code_id, created_at)
+                SELECT friend_code, nextval('friend_codes_id_seq'), ?::timestamp FROM input
+                ON CONFLICT (friend_code) DO NOTHING
+                RETURNING friend_code, friend_code_id
+            )
+            INSERT INTO friend_codes (id, friend_code, trainer_name, player_level, location, description,
+                                      team, goals_mask, is_active, created_at, updated_at, expires_at, user_id)
+            SELECT c.friend_code_id, i.friend_code, i.trainer_name, i.player_level, i.location, i.description,
+                   i.team, i.goals_mask, TRUE, ?::timestamp, ?::timestamp, i.expires_at, i.user_id
+            FROM claimed c
+            JOIN input i ON i.friend_code = c.friend_code
+            RETURNING friend_code, id
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<FriendCode> findSlice(Specification<FriendCode> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FriendCode> query = criteriaBuilder.createQuery(FriendCode.class);
+        Root<FriendCode> root = query.from(FriendCode.class);
+
+        return fetchSlice(query, root, specification, pageable);
+    }
+
+    @Override
+    public Slice<FriendCodeResponse> findResponseSlice(Specification<FriendCode> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FriendCodeResponse> query = criteriaBuilder.createQuery(FriendCodeResponse.class);
+        Root<FriendCode> root = selectResponse(query);
+
+        return fetchSlice(query, root, specification, pageable);
+    }
+
+    @Override
+    public Stream<FriendCodeResponse> streamResponses(Specification<FriendCode> specification, Sort sort, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FriendCodeResponse> query = criteriaBuilder.createQuery(FriendCodeResponse.class);
+        Root<FriendCode> root = selectResponse(query);
+
+        applyFilterAndSort(query, root, specification, sort);
+
+        // Projected rows are never managed, so the persistence context stays empty while streaming
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    @Override
+    public List<FriendCode> insertIfAbsent(List<FriendCode> friendCodes) {
+        Map<String, FriendCode> byCode = new LinkedHashMap<>();
+        for (FriendCode friendCode : friendCodes) {
+            byCode.putIfAbsent(friendCode.getFriendCode(), friendCode);
+        }
+        if (byCode.isEmpty()) {
+            return List.of();
+        }
+
+        // Same precision as the column, so the returned entities match what was stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Map<String, Long> insertedIds = entityManager.unwrap(Session.class)
+            .doReturningWork(connection -> executeInsertIfAbsent(connection, byCode.values(), now));
+
+        List<FriendCode> inserted = new ArrayList<>(insertedIds.size());
+        byCode.forEach((code, friendCode) -> {
+            Long id = insertedIds.get(code);
+            if (id != null) {
+                friendCode.setId(id);
+                friendCode.setCreatedAt(now);
+                friendCode.setUpdatedAt(now);
+                inserted.add(friendCode);
+            }
+        });
+        return inserted;
+    }
+
+    private Map<String, Long> executeInsertIfAbsent(Connection connection, Collection<FriendCode> friendCodes,
+                                                    LocalDateTime now) throws SQLException {
+        int size = friendCodes.size();
+        Long[] codes = new Long[size];
+        String[] trainerNames = new String[size];
+        Integer[] playerLevels = new Integer[size];
+        String[] locations = new String[size];
+        String[] descriptions = new String[size];
+        String[] teams = new String[size];
+        Short[] goalsMasks = new Short[size];
+        Timestamp[] expiresAt = new Timestamp[size];
+        Long[] userIds = new Long[size];
+
+        int i = 0;
+        for (FriendCode friendCode : friendCodes) {
+            codes[i] = FriendCodeNumberConverter.toNumber(friendCode.getFriendCode());
+            trainerNames[i] = friendCode.getTrainerName();
+            playerLevels[i] = friendCode.getPlayerLevel();
+            locations[i] = friendCode.getLocation();
+            descriptions[i] = friendCode.getDescription();
+            teams[i] = friendCode.getTeam() != null ? friendCode.getTeam().name() : null;
+            goalsMasks[i] = (short) GoalSetConverter.toMask(friendCode.getGoals());
+            expiresAt[i] = friendCode.getExpiresAt() != null ? Timestamp.valueOf(friendCode.getExpiresAt()) : null;
+            userIds[i] = friendCode.getUser() != null ? friendCode.getUser().getId() : null;
+            i++;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT_SQL)) {
+            statement.setArray(1, connection.createArrayOf("int8", codes));
+            statement.setArray(2, connection.createArrayOf("varchar", trainerNames));
+            statement.setArray(3, connection.createArrayOf("int4", playerLevels));
+            statement.setArray(4, connection.createArrayOf("varchar", locations));
+            statement.setArray(5, connection.createArrayOf("text", descriptions));
+            statement.setArray(6, connection.createArrayOf("varchar", teams));
+            statement.setArray(7, connection.createArrayOf("int2", goalsMasks));
+            statement.setArray(8, connection.createArrayOf("timestamp", expiresAt));
+            statement.setArray(9, connection.createArrayOf("int8", userIds));
+            statement.setTimestamp(10, timestamp);
+            statement.setTimestamp(11, timestamp);
+            statement.setTimestamp(12, timestamp);
+
+            Map<String, Long> insertedIds = new HashMap<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    insertedIds.put(FriendCodeNumberConverter.format(resultSet.getLong("friend_code")),
+                        resultSet.getLong("id"));
+                }
+            }
+            return insertedIds;
+        }
+    }
+
+    /**
+     * Selects the columns of a {@link FriendCodeResponse} from a new friend code root.
+     */
+    private Root<FriendCode> selectResponse(CriteriaQuery<FriendCodeResponse> query) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Root<FriendCode> root = query.from(FriendCode.class);
+
+        query.select(criteriaBuilder.construct(FriendCodeResponse.class,
+            root.get("id"),
+            root.get("friendCode"),
+            root.get("trainerName"),
+            root.get("playerLevel"),
+            root.get("location"),
+            root.get("description"),
+            root.get("team"),
+            root.get("goals"),
+            root.get("isActive"),
+            root.get("createdAt"),
+            root.get("updatedAt"),
+            root.get("expiresAt")
+        ));
+
+        return root;
+    }
+
+    private <T> Slice<T> fetchSlice(CriteriaQuery<T> query, Root<FriendCode> root,
+                                    Specification<FriendCode> specification, Pageable pageable) {
+        applyFilterAndSort(query, root, specification, pageable.getSort());
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+
+        // Fetch one extra row to find out whether another slice follows
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<T> results = typedQuery.getResultList();
+        boolean hasNext = results.size() > pageable.getPageSize();
+        List<T> content = hasNext ? results.subList(0, pageable.getPageSize()) : results;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private void applyFilterAndSort(CriteriaQuery<?> query, Root<FriendCode> root,
+                                    Specification<FriendCode> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+    }
+}
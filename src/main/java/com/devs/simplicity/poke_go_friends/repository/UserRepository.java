@@ -77,7 +77,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Page of users matching the trainer name
      */
     @Query("SELECT u FROM User u WHERE u.isActive = true " +
-           "AND LOWER(u.trainerName) LIKE LOWER(CONCAT('%', :trainerName, '%')) " +
+           "AND u.trainerName ILIKE CONCAT('%', :trainerName, '%') " +
            "ORDER BY u.createdAt DESC")
     Page<User> findActiveUsersByTrainerName(@Param("trainerName") String trainerName, Pageable pageable);
 
@@ -89,7 +89,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Page of users matching the location
      */
     @Query("SELECT u FROM User u WHERE u.isActive = true " +
-           "AND LOWER(u.location) LIKE LOWER(CONCAT('%', :location, '%')) " +
+           "AND u.location ILIKE CONCAT('%', :location, '%') " +
            "ORDER BY u.createdAt DESC")
     Page<User> findActiveUsersByLocation(@Param("location") String location, Pageable pageable);
 
@@ -1,13 +1,22 @@
 package com.devs.simplicity.poke_go_friends.repository.specification;
 
+import com.devs.simplicity.poke_go_friends.config.FullTextSearchFunctionContributor;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
 import com.devs.simplicity.poke_go_friends.entity.Team;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * JPA Specifications for building dynamic queries for FriendCode entity.
@@ -21,19 +30,16 @@ public final class FriendCodeSpecifications {
 
     /**
      * Creates a Specification for active friend codes that haven't expired.
+     * Uses the derived visibleUntil column, plus the constant bound of the partial feed index so the
+     * planner can use it (see {@link FriendCode#HIDDEN}).
      *
      * @param currentTime Current timestamp to check expiration
      * @return Specification for active friend codes
      */
     public static Specification<FriendCode> isActive(LocalDateTime currentTime) {
-        return (root, query, criteriaBuilder) -> {
-            Predicate isActive = criteriaBuilder.isTrue(root.get("isActive"));
-            Predicate notExpired = criteriaBuilder.or(
-                criteriaBuilder.isNull(root.get("expiresAt")),
-                criteriaBuilder.greaterThan(root.get("expiresAt"), currentTime)
-            );
-            return criteriaBuilder.and(isActive, notExpired);
-        };
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+            criteriaBuilder.greaterThan(root.get("visibleUntil"), criteriaBuilder.literal(FriendCode.HIDDEN)),
+            criteriaBuilder.greaterThan(root.get("visibleUntil"), currentTime));
     }
 
     /**
@@ -47,10 +53,37 @@ public final class FriendCodeSpecifications {
             if (!StringUtils.hasText(location)) {
                 return criteriaBuilder.conjunction(); // Always true
             }
-            return criteriaBuilder.like(
-                criteriaBuilder.lower(root.get("location")),
-                "%" + location.toLowerCase() + "%"
-            );
+            return containsIgnoringCase(criteriaBuilder, root.get("location"), location);
+        };
+    }
+
+    /**
+     * Creates a Specification for filtering by trainer name.
+     *
+     * @param trainerName Trainer name to search for (case-insensitive partial match)
+     * @return Specification for trainer name filter
+     */
+    public static Specification<FriendCode> hasTrainerName(String trainerName) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(trainerName)) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+            return containsIgnoringCase(criteriaBuilder, root.get("trainerName"), trainerName);
+        };
+    }
+
+    /**
+     * Creates a Specification for filtering by description.
+     *
+     * @param description Description text to search for (case-insensitive partial match)
+     * @return Specification for description filter
+     */
+    public static Specification<FriendCode> hasDescription(String description) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(description)) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+            return containsIgnoringCase(criteriaBuilder, root.get("description"), description);
         };
     }
 
@@ -105,6 +138,55 @@ public final class FriendCodeSpecifications {
         };
     }
 
+    /**
+     * Creates a Specification for friend codes with a player level in a range.
+     * Unlike {@link #hasMinimumLevel(Integer)} and {@link #hasMaximumLevel(Integer)}, friend codes
+     * without a level do not match.
+     *
+     * @param minLevel Minimum player level (inclusive, may be null)
+     * @param maxLevel Maximum player level (inclusive, may be null)
+     * @return Specification for the level range
+     */
+    public static Specification<FriendCode> hasLevelBetween(Integer minLevel, Integer maxLevel) {
+        return (root, query, criteriaBuilder) -> {
+            if (minLevel == null && maxLevel == null) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+            Predicate level = criteriaBuilder.isNotNull(root.get("playerLevel"));
+            if (minLevel != null) {
+                level = criteriaBuilder.and(level, criteriaBuilder.greaterThanOrEqualTo(root.get("playerLevel"), minLevel));
+            }
+            if (maxLevel != null) {
+                level = criteriaBuilder.and(level, criteriaBuilder.lessThanOrEqualTo(root.get("playerLevel"), maxLevel));
+            }
+            return level;
+        };
+    }
+
+    /**
+     * Creates a Specification for friend codes sharing at least one of the given goals.
+     * Matches with a single bitwise AND on goals_mask. Codes marked ALL match any goal filter,
+     * and filtering by ALL matches codes with any goal at all.
+     *
+     * @param goals Goals to filter by
+     * @return Specification for goal filtering
+     */
+    public static Specification<FriendCode> hasAnyGoal(Set<Goal> goals) {
+        return (root, query, criteriaBuilder) -> {
+            if (goals == null || goals.isEmpty()) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+
+            int requestedMask = GoalSetConverter.toFilterMask(goals);
+
+            return criteriaBuilder.notEqual(
+                criteriaBuilder.function("bitand", Integer.class,
+                    root.get("goalsMask"), criteriaBuilder.literal(requestedMask)),
+                0
+            );
+        };
+    }
+
     /**
      * Creates a Specification for text search in trainer name and description.
      *
@@ -117,22 +199,111 @@ public final class FriendCodeSpecifications {
                 return criteriaBuilder.conjunction(); // Always true
             }
 
-            String searchPattern = "%" + searchText.toLowerCase() + "%";
+            Predicate trainerNameMatch = containsIgnoringCase(criteriaBuilder, root.get("trainerName"), searchText);
+            Predicate descriptionMatch = containsIgnoringCase(criteriaBuilder, root.get("description"), searchText);
 
-            Predicate trainerNameMatch = criteriaBuilder.like(
-                criteriaBuilder.lower(root.get("trainerName")),
-                searchPattern
-            );
+            return criteriaBuilder.or(trainerNameMatch, descriptionMatch);
+        };
+    }
 
-            Predicate descriptionMatch = criteriaBuilder.like(
-                criteriaBuilder.lower(root.get("description")),
-                searchPattern
-            );
+    /**
+     * Creates a Specification for full-text search in trainer name, location and description.
+     * Matches friend codes containing all words of the search text, after stemming
+     * (so "raids" also matches "raid"). Requires PostgreSQL; see {@link FullTextSearchFunctionContributor}.
+     *
+     * @param searchText Words to search for
+     * @return Specification for full-text search
+     */
+    public static Specification<FriendCode> matchesFullText(String searchText) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(searchText)) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+            return criteriaBuilder.isTrue(criteriaBuilder.function(
+                FullTextSearchFunctionContributor.MATCH_FUNCTION, Boolean.class,
+                root.get("trainerName"), root.get("location"), root.get("description"),
+                criteriaBuilder.literal(searchText)));
+        };
+    }
 
-            return criteriaBuilder.or(trainerNameMatch, descriptionMatch);
+    /**
+     * Creates a Specification that orders results by full-text relevance for the search text,
+     * newest first among equally relevant friend codes. Adds no filter of its own.
+     * Only takes effect when the query is not given an explicit sort. Requires PostgreSQL.
+     *
+     * @param searchText Words to rank by
+     * @return Specification ordering by relevance
+     */
+    public static Specification<FriendCode> orderByRelevance(String searchText) {
+        return (root, query, criteriaBuilder) -> {
+            if (StringUtils.hasText(searchText) && query != null) {
+                query.orderBy(
+                    criteriaBuilder.desc(criteriaBuilder.function(
+                        FullTextSearchFunctionContributor.RANK_FUNCTION, Double.class,
+                        root.get("trainerName"), root.get("location"), root.get("description"),
+                        criteriaBuilder.literal(searchText))),
+                    criteriaBuilder.desc(root.get("createdAt")),
+                    criteriaBuilder.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Creates a Specification that seeks past a keyset cursor in feed order
+     * (createdAt descending, id descending).
+     * The leading createdAt bound lets the planner range-scan the created_at index;
+     * the id comparison only breaks ties between rows sharing the same timestamp.
+     *
+     * @param cursor Cursor of the last friend code already returned (may be null)
+     * @return Specification for rows after the cursor
+     */
+    public static Specification<FriendCode> createdBefore(FeedCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction(); // Always true
+            }
+            return criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), cursor.getCreatedAt()),
+                criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                    criteriaBuilder.lessThan(root.get("id"), cursor.getId())
+                )
+            );
         };
     }
 
+    /**
+     * Creates a Specification for friend codes submitted at or after the given time.
+     *
+     * @param since Earliest creation time to include
+     * @return Specification for recent submissions
+     */
+    public static Specification<FriendCode> createdSince(LocalDateTime since) {
+        return (root, query, criteriaBuilder) ->
+            criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), since);
+    }
+
+    /**
+     * Creates a Specification for friend codes with one of the given ids.
+     *
+     * @param ids Ids to match
+     * @return Specification for the given friend codes
+     */
+    public static Specification<FriendCode> hasIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Creates a Specification for friend codes with one of the given 12-digit codes.
+     *
+     * @param friendCodes Friend codes to match
+     * @return Specification for the given friend codes
+     */
+    public static Specification<FriendCode> hasFriendCodeIn(Collection<String> friendCodes) {
+        return (root, query, criteriaBuilder) -> root.get("friendCode").in(friendCodes);
+    }
+
     /**
      * Creates a composite Specification based on search criteria.
      * Combines all applicable filters using AND logic.
@@ -142,11 +313,35 @@ public final class FriendCodeSpecifications {
      * @return Combined Specification for all criteria
      */
     public static Specification<FriendCode> withCriteria(FriendCodeSearchCriteria criteria, LocalDateTime currentTime) {
+        return withCriteria(criteria, currentTime, false);
+    }
+
+    /**
+     * Creates a composite Specification based on search criteria, matching the search text
+     * either by substring or with full-text search.
+     *
+     * @param criteria       Search criteria containing all filter parameters
+     * @param currentTime    Current timestamp for checking expiration
+     * @param fullTextSearch Whether to match the search text with {@link #matchesFullText(String)}
+     * @return Combined Specification for all criteria
+     */
+    public static Specification<FriendCode> withCriteria(FriendCodeSearchCriteria criteria, LocalDateTime currentTime,
+                                                         boolean fullTextSearch) {
         return isActive(currentTime)
                 .and(hasLocation(criteria.getLocation()))
                 .and(hasTeam(criteria.getTeam()))
                 .and(hasMinimumLevel(criteria.getMinLevel()))
                 .and(hasMaximumLevel(criteria.getMaxLevel()))
-                .and(containsText(criteria.getSearchText()));
+                .and(fullTextSearch ? matchesFullText(criteria.getSearchText()) : containsText(criteria.getSearchText()))
+                .and(hasAnyGoal(criteria.getGoals()));
+    }
+
+    /**
+     * Case-insensitive substring match on the bare column, rendered as ILIKE where the dialect
+     * supports it so PostgreSQL can use the trigram indexes; other dialects get LOWER(..) LIKE LOWER(..).
+     */
+    private static Predicate containsIgnoringCase(CriteriaBuilder criteriaBuilder, Expression<String> column,
+                                                  String text) {
+        return ((HibernateCriteriaBuilder) criteriaBuilder).ilike(column, "%" + text + "%");
     }
 }
@@ -0,0 +1,352 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory snapshot of the active friend codes, shared by the structures that answer reads without a query.
+ *
+ * The search index, location suggestions, facet counts and random pool register a {@link View} and are
+ * handed every change to the active friend codes, so the database is read once for all of them. The
+ * snapshot is loaded when the application starts, follows local create/change/purge events and drops
+ * codes when their expiration passes. It is compared with the active ids in the database periodically,
+ * and reloaded when the two differ and on a longer interval, picking up codes created or edited on
+ * other instances. Changes made while a reload reads the database are replayed onto the reloaded codes.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ActiveFriendCodes {
+
+    private final FriendCodeRepository friendCodeRepository;
+
+    private final Snapshot snapshot = new Snapshot();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    /**
+     * Receives the active friend codes and every change to them.
+     * A view is loaded when the application starts and then kept in step with the database; until that
+     * first load it is empty, and it decides itself how to answer in the meantime.
+     * Called under the snapshot's lock, so calls never overlap and arrive in order; implementations must
+     * not call back into {@link ActiveFriendCodes}.
+     */
+    public interface View {
+
+        /**
+         * Replaces everything with the given active friend codes.
+         */
+        void reset(Collection<FriendCodeResponse> active);
+
+        /**
+         * Adds a friend code that became active.
+         */
+        void add(FriendCodeResponse friendCode);
+
+        /**
+         * Removes a friend code that is no longer active or is about to be replaced.
+         *
+         * @param friendCode The friend code as it was added
+         */
+        void remove(FriendCodeResponse friendCode);
+    }
+
+    /**
+     * One change to apply, the friend code being null when it left the active codes.
+     */
+    private record Change(Long id, FriendCodeResponse friendCode) {
+    }
+
+    /**
+     * Active friend codes by id plus their expirations, passing changes on to the views.
+     */
+    static final class Snapshot {
+
+        private final List<View> views = new ArrayList<>();
+        private final ChangesDuringRebuild<Change> changesDuringRebuild = new ChangesDuringRebuild<>();
+        private Map<Long, FriendCodeResponse> byId = new HashMap<>();
+        private NavigableMap<LocalDateTime, Set<Long>> expirations = new TreeMap<>();
+        private boolean loaded;
+
+        synchronized void register(View view) {
+            views.add(view);
+            if (loaded) {
+                view.reset(List.copyOf(byId.values()));
+            }
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        synchronized Set<Long> ids() {
+            return new HashSet<>(byId.keySet());
+        }
+
+        /**
+         * Adds, replaces or removes (when the friend code is null) one friend code.
+         */
+        synchronized void update(Long id, FriendCodeResponse friendCode) {
+            changesDuringRebuild.record(new Change(id, friendCode));
+            apply(new Change(id, friendCode), true);
+        }
+
+        synchronized void removeCreatedBefore(LocalDateTime cutoff) {
+            List<Long> purged = byId.values().stream()
+                    .filter(friendCode -> friendCode.getCreatedAt().isBefore(cutoff))
+                    .map(FriendCodeResponse::getId)
+                    .toList();
+            purged.forEach(id -> update(id, null));
+        }
+
+        synchronized LocalDateTime nextExpiration(LocalDateTime now) {
+            removeExpired(now);
+            return expirations.isEmpty() ? null : expirations.firstKey();
+        }
+
+        synchronized void removeExpired(LocalDateTime now) {
+            NavigableMap<LocalDateTime, Set<Long>> expired = expirations.headMap(now, true);
+            if (expired.isEmpty()) {
+                return;
+            }
+            List<Long> ids = expired.values().stream().flatMap(Collection::stream).toList();
+            ids.forEach(id -> update(id, null));
+        }
+
+        /**
+         * Starts tracking changes made while a snapshot is read from the database.
+         */
+        synchronized void beginRebuild() {
+            changesDuringRebuild.begin();
+        }
+
+        synchronized void abortRebuild() {
+            changesDuringRebuild.abort();
+        }
+
+        /**
+         * Replaces the friend codes with a snapshot, replaying changes made since the snapshot was started,
+         * and resets every view to the result.
+         */
+        synchronized void replace(Collection<FriendCodeResponse> active) {
+            byId = new HashMap<>(active.size() * 2);
+            expirations = new TreeMap<>();
+            active.forEach(friendCode -> add(friendCode, false));
+            changesDuringRebuild.replay(change -> apply(change, false));
+            loaded = true;
+            Collection<FriendCodeResponse> friendCodes = List.copyOf(byId.values());
+            views.forEach(view -> view.reset(friendCodes));
+        }
+
+        private void apply(Change change, boolean notify) {
+            remove(change.id(), notify);
+            if (change.friendCode() != null) {
+                add(change.friendCode(), notify);
+            }
+        }
+
+        private void add(FriendCodeResponse friendCode, boolean notify) {
+            byId.put(friendCode.getId(), friendCode);
+            if (friendCode.getExpiresAt() != null) {
+                expirations.computeIfAbsent(friendCode.getExpiresAt(), time -> new HashSet<>()).add(friendCode.getId());
+            }
+            if (notify) {
+                views.forEach(view -> view.add(friendCode));
+            }
+        }
+
+        private void remove(Long id, boolean notify) {
+            FriendCodeResponse removed = byId.remove(id);
+            if (removed == null) {
+                return;
+            }
+            if (removed.getExpiresAt() != null) {
+                Set<Long> ids = expirations.get(removed.getExpiresAt());
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    expirations.remove(removed.getExpiresAt());
+                }
+            }
+            if (notify) {
+                views.forEach(view -> view.remove(removed));
+            }
+        }
+    }
+
+    /**
+     * Registers a view; it is reset right away if the snapshot is already loaded.
+     *
+     * @param view The view to keep up to date
+     */
+    public void register(View view) {
+        snapshot.register(view);
+    }
+
+    /**
+     * Tells whether the snapshot was loaded; views are empty until then.
+     *
+     * @return true once the first load completed
+     */
+    public boolean isLoaded() {
+        return snapshot.isLoaded();
+    }
+
+    /**
+     * Drops friend codes whose expiration has passed, so views reading counts are exact.
+     *
+     * @param now Current time
+     */
+    public void removeExpired(LocalDateTime now) {
+        snapshot.removeExpired(now);
+    }
+
+    /**
+     * Returns when the next active friend code expires, after dropping those that already have.
+     *
+     * @param now Current time
+     * @return The earliest expiration, or empty if no active friend code expires
+     */
+    public Optional<LocalDateTime> nextExpiration(LocalDateTime now) {
+        return Optional.ofNullable(snapshot.nextExpiration(now));
+    }
+
+    /**
+     * Returns the number of active friend codes in the snapshot.
+     *
+     * @return Number of active friend codes
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Reloads the active friend codes from the database and resets every view.
+     * Skipped when another reload is already running.
+     */
+    @Scheduled(fixedRateString = "${app.feed.active-codes-rebuild-minutes:10}",
+               initialDelayString = "${app.feed.active-codes-rebuild-minutes:10}", timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        if (!rebuilding.tryLock()) {
+            log.debug("Active friend codes are already being reloaded");
+            return;
+        }
+        try {
+            snapshot.beginRebuild();
+            List<FriendCodeResponse> active;
+            try {
+                active = friendCodeRepository.findResponseSlice(
+                        FriendCodeSpecifications.isActive(LocalDateTime.now()), Pageable.unpaged()).getContent();
+            } catch (RuntimeException e) {
+                snapshot.abortRebuild();
+                throw e;
+            }
+            snapshot.replace(active.stream().filter(ActiveFriendCodes::isTrackable).toList());
+            log.debug("Reloaded {} active friend codes", active.size());
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /**
+     * Loads the active friend codes once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Compares the active ids with the database, reloading when they differ.
+     * Catches codes created or deactivated on other instances, and any event that was missed.
+     */
+    @Scheduled(fixedRateString = "${app.feed.active-codes-check-seconds:60}",
+               initialDelayString = "${app.feed.active-codes-check-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void checkConsistency() {
+        if (!snapshot.isLoaded()) {
+            rebuild();
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        snapshot.removeExpired(now);
+        Set<Long> tracked = snapshot.ids();
+        Set<Long> active = new HashSet<>(friendCodeRepository.findActiveFriendCodeIds(now));
+        if (!tracked.equals(active)) {
+            log.info("Active friend codes differ from the database ({} in memory, {} active), reloading",
+                    tracked.size(), active.size());
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds created friend codes once their transaction commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        event.friendCodes().forEach(this::track);
+    }
+
+    /**
+     * Updates or removes changed friend codes once their transaction commits.
+     *
+     * @param event The changed friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesChanged(FriendCodesChangedEvent event) {
+        event.friendCodes().forEach(this::track);
+    }
+
+    /**
+     * Drops purged friend codes.
+     *
+     * @param event The purge details
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesPurged(FriendCodesPurgedEvent event) {
+        snapshot.removeCreatedBefore(event.createdBefore());
+    }
+
+    private void track(FriendCode friendCode) {
+        if (friendCode.getId() == null) {
+            return;
+        }
+        FriendCodeResponse response = FriendCodeResponse.fromEntity(friendCode);
+        snapshot.update(friendCode.getId(),
+                friendCode.isCurrentlyActive() && isTrackable(response) ? response : null);
+    }
+
+    private static boolean isTrackable(FriendCodeResponse response) {
+        return response.getId() != null && response.getCreatedAt() != null;
+    }
+}
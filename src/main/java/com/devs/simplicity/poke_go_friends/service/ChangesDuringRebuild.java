@@ -0,0 +1,52 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Changes made to an in-memory structure while its replacement is read from the database.
+ *
+ * A rebuild reads a snapshot without holding the structure's lock, so changes applied meanwhile may be
+ * missing from the snapshot. They are recorded here between {@link #begin()} and the replacement, then
+ * replayed onto the replacement in order. Not thread-safe; callers use it under their own lock.
+ *
+ * @param <T> Type of the recorded changes
+ */
+final class ChangesDuringRebuild<T> {
+
+    private List<T> changes;
+
+    /**
+     * Starts recording, discarding changes recorded for an earlier rebuild that never finished.
+     */
+    void begin() {
+        changes = new ArrayList<>();
+    }
+
+    /**
+     * Records a change if a rebuild is in progress.
+     */
+    void record(T change) {
+        if (changes != null) {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Applies the recorded changes in order and stops recording.
+     */
+    void replay(Consumer<T> apply) {
+        if (changes != null) {
+            changes.forEach(apply);
+            changes = null;
+        }
+    }
+
+    /**
+     * Stops recording after a failed rebuild.
+     */
+    void abort() {
+        changes = null;
+    }
+}
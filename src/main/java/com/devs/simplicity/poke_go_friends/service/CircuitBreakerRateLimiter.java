@@ -86,6 +86,117 @@ public class CircuitBreakerRateLimiter implements RateLimiter {
         }
     }
     
+    /**
+     * Checks if a request counting as several units is allowed using circuit breaker protection.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param permits Number of units the request counts as
+     * @return true if all units fit in the remaining quota, false if rate limit would be exceeded
+     */
+    @Override
+    public boolean isAllowed(String key, int permits) {
+        try {
+            // Execute Redis rate limiting with circuit breaker protection
+            Supplier<Boolean> rateLimitSupplier = () -> redisRateLimiter.isAllowed(key, permits);
+            return circuitBreaker.executeSupplier(rateLimitSupplier);
+            
+        } catch (CallNotPermittedException e) {
+            // Circuit breaker is open - fall back to in-memory rate limiting
+            log.warn("Circuit breaker is open, falling back to in-memory rate limiting for key: {}", key);
+            return fallbackRateLimiter.isAllowed(key, permits);
+            
+        } catch (Exception e) {
+            // Unexpected error - fall back to in-memory rate limiting
+            log.error("Unexpected error in rate limiting, falling back to in-memory for key '{}': {}", 
+                     key, e.getMessage(), e);
+            return fallbackRateLimiter.isAllowed(key, permits);
+        }
+    }
+    
+    /**
+     * Checks if a request counting as several units is allowed with custom limit and window size.
+     * 
+     * When circuit breaker is open, it falls back to the in-memory limiter's limits for the key.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param limit The maximum number of units allowed in the window
+     * @param windowSizeMs The sliding window size in milliseconds
+     * @param permits Number of units the request counts as
+     * @return true if all units fit in the remaining quota, false if rate limit would be exceeded
+     */
+    public boolean isAllowed(String key, int limit, long windowSizeMs, int permits) {
+        try {
+            // Execute Redis rate limiting with circuit breaker protection
+            Supplier<Boolean> rateLimitSupplier = () -> redisRateLimiter.isAllowed(key, limit, windowSizeMs, permits);
+            return circuitBreaker.executeSupplier(rateLimitSupplier);
+            
+        } catch (CallNotPermittedException e) {
+            // Circuit breaker is open - fall back to in-memory rate limiting
+            log.warn("Circuit breaker is open, falling back to in-memory rate limiting for key: {}", key);
+            return fallbackRateLimiter.isAllowed(key, permits);
+            
+        } catch (Exception e) {
+            // Unexpected error - fall back to in-memory rate limiting
+            log.error("Unexpected error in rate limiting, falling back to in-memory for key '{}': {}", 
+                     key, e.getMessage(), e);
+            return fallbackRateLimiter.isAllowed(key, permits);
+        }
+    }
+    
+    /**
+     * Checks whether a request would currently be allowed, without consuming quota.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    @Override
+    public boolean wouldAllow(String key) {
+        try {
+            // Execute Redis peek with circuit breaker protection
+            Supplier<Boolean> peekSupplier = () -> redisRateLimiter.wouldAllow(key);
+            return circuitBreaker.executeSupplier(peekSupplier);
+            
+        } catch (CallNotPermittedException e) {
+            // Circuit breaker is open - peek at in-memory data
+            log.debug("Circuit breaker is open, peeking at in-memory rate limit for key: {}", key);
+            return fallbackRateLimiter.wouldAllow(key);
+            
+        } catch (Exception e) {
+            // Unexpected error - peek at in-memory data
+            log.error("Error peeking rate limit, falling back to in-memory for key '{}': {}", 
+                     key, e.getMessage(), e);
+            return fallbackRateLimiter.wouldAllow(key);
+        }
+    }
+    
+    /**
+     * Checks whether a request would currently be allowed with custom limit and window size,
+     * without consuming quota.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param limit The maximum number of requests allowed in the window
+     * @param windowSizeMs The sliding window size in milliseconds
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    public boolean wouldAllow(String key, int limit, long windowSizeMs) {
+        try {
+            // Execute Redis peek with circuit breaker protection
+            Supplier<Boolean> peekSupplier = () -> redisRateLimiter.wouldAllow(key, limit, windowSizeMs);
+            return circuitBreaker.executeSupplier(peekSupplier);
+            
+        } catch (CallNotPermittedException e) {
+            // Circuit breaker is open - peek at in-memory data
+            log.debug("Circuit breaker is open, peeking at in-memory rate limit for key: {}", key);
+            return fallbackRateLimiter.wouldAllow(key);
+            
+        } catch (Exception e) {
+            // Unexpected error - peek at in-memory data
+            log.error("Error peeking rate limit, falling back to in-memory for key '{}': {}", 
+                     key, e.getMessage(), e);
+            return fallbackRateLimiter.wouldAllow(key);
+        }
+    }
+    
     /**
      * Gets the current usage count for a given key.
      * 
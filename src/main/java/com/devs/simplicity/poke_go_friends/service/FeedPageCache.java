@@ -0,0 +1,231 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiPredicate;
+
+/**
+ * Key generation and invalidation for the in-process feed page cache.
+ *
+ * Feed pages are cached by {@link FriendCodeService} under {@link #CACHE_NAME}, keyed by the
+ * normalized search criteria plus page, size and sort. TTL, size bound and hit/miss statistics
+ * come from the cache manager configuration. When friend codes are created, changed or purged,
+ * only the cached pages those codes can appear on or shift are evicted.
+ */
+@Service(FeedPageCache.KEY_GENERATOR)
+@Slf4j
+@RequiredArgsConstructor
+public class FeedPageCache implements KeyGenerator {
+
+    public static final String CACHE_NAME = "feedPages";
+    public static final String KEY_GENERATOR = "feedPageCache";
+
+    private final CacheManager cacheManager;
+    private final FeedConfig feedConfig;
+
+    /**
+     * Cache key of a feed page.
+     *
+     * @param criteria Normalized search criteria (no filters for the unfiltered feed)
+     * @param page     Page number
+     * @param size     Page size
+     * @param sort     Sort order, feed order when the request was unsorted
+     */
+    public record Key(FriendCodeSearchCriteria criteria, int page, int size, Sort sort) {
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        FriendCodeSearchCriteria criteria = new FriendCodeSearchCriteria();
+        Pageable pageable = null;
+        for (Object param : params) {
+            if (param instanceof FriendCodeSearchCriteria searchCriteria) {
+                criteria = normalize(searchCriteria);
+            } else if (param instanceof Pageable pageParam) {
+                pageable = pageParam;
+            }
+        }
+        if (pageable == null || pageable.isUnpaged()) {
+            throw new IllegalArgumentException("Feed page cache requires a paged request: " + method.getName());
+        }
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : FeedCursor.FEED_SORT;
+        return new Key(criteria, pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Evicts the cached pages new friend codes appear on once their transaction commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        evictAffectedBy(event.friendCodes());
+    }
+
+    /**
+     * Evicts the cached pages deactivated or re-expired friend codes appeared on or shifted.
+     *
+     * @param event The changed friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesChanged(FriendCodesChangedEvent event) {
+        evictAffectedBy(event.friendCodes());
+    }
+
+    /**
+     * Evicts the cached pages that held friend codes created before the purge cutoff,
+     * and relevance-ranked pages, which any purged code may have ranked ahead of.
+     *
+     * @param event The purge details
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesPurged(FriendCodesPurgedEvent event) {
+        boolean fullTextSearch = feedConfig.isFullTextSearchEnabled();
+        evict((key, value) -> !isFeedOrder(key) || ranksByRelevance(key, fullTextSearch)
+                || !(value instanceof Slice<?> slice)
+                || !slice.hasNext() || slice.getContent().stream().anyMatch(item ->
+                        !(item instanceof FriendCodeResponse response)
+                                || response.getCreatedAt() == null
+                                || response.getCreatedAt().isBefore(event.createdBefore())));
+    }
+
+    private void evictAffectedBy(List<FriendCode> friendCodes) {
+        if (friendCodes.isEmpty()) {
+            return;
+        }
+        boolean fullTextSearch = feedConfig.isFullTextSearchEnabled();
+        evict((key, value) -> friendCodes.stream().anyMatch(code -> isAffected(key, value, code, fullTextSearch)));
+    }
+
+    private void evict(BiPredicate<Key, Object> affected) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            int before = nativeCache.asMap().size();
+            nativeCache.asMap().entrySet().removeIf(entry ->
+                    !(entry.getKey() instanceof Key key) || affected.test(key, entry.getValue()));
+            log.debug("Evicted {} of {} cached feed pages", before - nativeCache.asMap().size(), before);
+        } else {
+            // Cannot inspect entries of other cache implementations; drop everything
+            cache.clear();
+        }
+    }
+
+    /**
+     * Checks whether a friend code can appear on, or shift the contents of, a cached page.
+     * In feed order a code sorting after the last row of a page that has a next page
+     * only affects later pages. Relevance-ranked pages are cached under the feed order too,
+     * but their rows are not in creation order, so any text search page is affected.
+     */
+    private static boolean isAffected(Key key, Object value, FriendCode code, boolean fullTextSearch) {
+        if (!matches(key.criteria(), code, fullTextSearch)) {
+            return false;
+        }
+        if (!isFeedOrder(key) || ranksByRelevance(key, fullTextSearch) || !(value instanceof Slice<?> slice) || !slice.hasNext() || !slice.hasContent()) {
+            return true;
+        }
+        Object last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return !(last instanceof FriendCodeResponse response) || !sortsAfter(code, response);
+    }
+
+    private static boolean sortsAfter(FriendCode code, FriendCodeResponse last) {
+        if (code.getCreatedAt() == null || code.getId() == null
+                || last.getCreatedAt() == null || last.getId() == null) {
+            return false;
+        }
+        int comparison = code.getCreatedAt().compareTo(last.getCreatedAt());
+        return comparison < 0 || (comparison == 0 && code.getId() < last.getId());
+    }
+
+    /**
+     * In-memory equivalent of {@code FriendCodeSpecifications.withCriteria}, ignoring active state
+     * so deactivated codes still match the pages they were on. Full-text matches (stemming, ranking)
+     * cannot be reproduced in memory, so with full-text search any code matches the search text.
+     */
+    private static boolean matches(FriendCodeSearchCriteria criteria, FriendCode code, boolean fullTextSearch) {
+        if (criteria.getLocation() != null && !containsIgnoreCase(code.getLocation(), criteria.getLocation())) {
+            return false;
+        }
+        if (criteria.getTeam() != null && criteria.getTeam() != code.getTeam()) {
+            return false;
+        }
+        Integer level = code.getPlayerLevel();
+        if (level != null && criteria.getMinLevel() != null && level < criteria.getMinLevel()) {
+            return false;
+        }
+        if (level != null && criteria.getMaxLevel() != null && level > criteria.getMaxLevel()) {
+            return false;
+        }
+        if (criteria.getSearchText() != null && !fullTextSearch
+                && !containsIgnoreCase(code.getTrainerName(), criteria.getSearchText())
+                && !containsIgnoreCase(code.getDescription(), criteria.getSearchText())) {
+            return false;
+        }
+        if (criteria.getGoals() != null
+                && (GoalSetConverter.toMask(code.getGoals()) & GoalSetConverter.toFilterMask(criteria.getGoals())) == 0) {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String value, String lowerCaseNeedle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+
+    private static boolean isFeedOrder(Key key) {
+        return key.sort().equals(FeedCursor.FEED_SORT);
+    }
+
+    /**
+     * Mirrors {@link FriendCodeService#ranksByRelevance}: unsorted requests are keyed under the feed order,
+     * so every feed-order page with search text was ranked by relevance when full-text search is enabled.
+     */
+    private static boolean ranksByRelevance(Key key, boolean fullTextSearch) {
+        return fullTextSearch && key.criteria().getSearchText() != null && isFeedOrder(key);
+    }
+
+    /**
+     * Normalizes criteria so requests the database treats alike share a cache entry:
+     * text filters are lowercased (matching is case-insensitive) and blank or empty filters are dropped.
+     */
+    private static FriendCodeSearchCriteria normalize(FriendCodeSearchCriteria criteria) {
+        return FriendCodeSearchCriteria.builder()
+                .location(StringUtils.hasText(criteria.getLocation())
+                        ? criteria.getLocation().toLowerCase(Locale.ROOT) : null)
+                .team(criteria.getTeam())
+                .minLevel(criteria.getMinLevel())
+                .maxLevel(criteria.getMaxLevel())
+                .searchText(StringUtils.hasText(criteria.getSearchText())
+                        ? criteria.getSearchText().toLowerCase(Locale.ROOT) : null)
+                .goals(criteria.getGoals() != null && !criteria.getGoals().isEmpty()
+                        ? EnumSet.copyOf(criteria.getGoals()) : null)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global version of the friend code feed, shared by all instances through Redis.
+ *
+ * The version is bumped after every commit that creates, changes or purges friend codes,
+ * so feed ETags derived from it change whenever any feed page may have changed.
+ * The version is initialized from the clock so it never repeats after Redis loses the key.
+ * Reads are cached in process for a short time; when Redis is unavailable no version is
+ * returned and callers skip conditional request handling.
+ *
+ * Some feed pages also change without any write, when a friend code expires or a window relative
+ * to the current time moves on; {@link #timeBoundary} covers those.
+ */
+@Service
+@Slf4j
+public class FeedVersionService {
+
+    private final StringRedisTemplate redisTemplate;
+    private final FeedConfig feedConfig;
+    private final CircuitBreaker circuitBreaker;
+    private final ActiveFriendCodes activeFriendCodes;
+
+    private volatile CachedVersion cachedVersion;
+
+    public FeedVersionService(StringRedisTemplate redisTemplate,
+                              FeedConfig feedConfig,
+                              @Qualifier("hotFeedCircuitBreaker") CircuitBreaker circuitBreaker,
+                              ActiveFriendCodes activeFriendCodes) {
+        this.redisTemplate = redisTemplate;
+        this.feedConfig = feedConfig;
+        this.circuitBreaker = circuitBreaker;
+        this.activeFriendCodes = activeFriendCodes;
+    }
+
+    private record CachedVersion(long version, long expiresAtNanos) {
+    }
+
+    /**
+     * Gets the current feed version.
+     *
+     * @return The version, or empty if it cannot be read
+     */
+    public Optional<Long> currentVersion() {
+        CachedVersion cached = cachedVersion;
+        if (cached != null && System.nanoTime() - cached.expiresAtNanos() < 0) {
+            return Optional.of(cached.version());
+        }
+
+        try {
+            long version = circuitBreaker.executeSupplier(this::readVersion);
+            cache(version);
+            return Optional.of(version);
+
+        } catch (CallNotPermittedException e) {
+            log.debug("Feed version circuit breaker is open, skipping conditional requests");
+            return Optional.empty();
+
+        } catch (Exception e) {
+            log.warn("Error reading feed version: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets a token that changes whenever the feed changes with time alone, to be combined with the version.
+     * It changes when the next active friend code expires and, for responses over a window relative to
+     * the current time or while the active friend codes are not loaded yet, every ETag window.
+     *
+     * @param slidingWindow Whether the response covers a window relative to the current time
+     * @return The token
+     */
+    public String timeBoundary(boolean slidingWindow) {
+        StringBuilder token = new StringBuilder();
+        if (activeFriendCodes.isLoaded()) {
+            token.append('x').append(activeFriendCodes.nextExpiration(LocalDateTime.now())
+                    .map(LocalDateTime::toString)
+                    .orElse("-"));
+        }
+        if (slidingWindow || !activeFriendCodes.isLoaded()) {
+            long windowMillis = TimeUnit.SECONDS.toMillis(feedConfig.getEtagWindowSeconds());
+            token.append('w').append(System.currentTimeMillis() / windowMillis);
+        }
+        return token.toString();
+    }
+
+    /**
+     * Bumps the feed version.
+     */
+    public void bump() {
+        try {
+            long version = circuitBreaker.executeSupplier(() -> {
+                initializeIfAbsent();
+                Long incremented = redisTemplate.opsForValue().increment(feedConfig.getVersionKey());
+                if (incremented == null) {
+                    throw new IllegalStateException("INCR returned no value");
+                }
+                return incremented;
+            });
+            cache(version);
+            log.debug("Bumped feed version to {}", version);
+
+        } catch (Exception e) {
+            // Stale versions would let clients keep stale pages, so stop answering from the cache
+            cachedVersion = null;
+            log.warn("Error bumping feed version: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Bumps the version once the transaction that created friend codes commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        bump();
+    }
+
+    /**
+     * Bumps the version once the transaction that changed friend codes commits.
+     *
+     * @param event The changed friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesChanged(FriendCodesChangedEvent event) {
+        bump();
+    }
+
+    /**
+     * Bumps the version once the transaction that purged friend codes commits.
+     *
+     * @param event The purge details
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesPurged(FriendCodesPurgedEvent event) {
+        bump();
+    }
+
+    private long readVersion() {
+        String value = redisTemplate.opsForValue().get(feedConfig.getVersionKey());
+        if (value == null) {
+            initializeIfAbsent();
+            value = redisTemplate.opsForValue().get(feedConfig.getVersionKey());
+        }
+        if (value == null) {
+            throw new IllegalStateException("Feed version missing after initialization");
+        }
+        return Long.parseLong(value);
+    }
+
+    private void initializeIfAbsent() {
+        redisTemplate.opsForValue().setIfAbsent(feedConfig.getVersionKey(), String.valueOf(System.currentTimeMillis()));
+    }
+
+    private void cache(long version) {
+        cachedVersion = new CachedVersion(version,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(feedConfig.getVersionCacheMillis()));
+    }
+}
@@ -1,8 +1,11 @@
 package com.devs.simplicity.poke_go_friends.service;
 
+import com.devs.simplicity.poke_go_friends.config.CleanupConfig;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
 import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,7 +15,9 @@ import java.time.temporal.ChronoUnit;
 
 /**
  * Service responsible for automatically cleaning up old friend codes.
- * Runs a scheduled job to delete friend codes older than 24 hours.
+ * Runs a scheduled job to delete friend codes older than the retention period (24 hours by default).
+ * When friend_codes is partitioned by created_at, the job also creates upcoming hourly partitions
+ * and removes old codes by dropping whole partitions instead of deleting rows.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,23 +25,35 @@ import java.time.temporal.ChronoUnit;
 public class FriendCodeCleanupService {
 
     private final FriendCodeRepository friendCodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CleanupConfig cleanupConfig;
 
     /**
      * Scheduled method that runs every hour to clean up old friend codes.
-     * Deletes all friend codes that were created more than 24 hours ago.
+     * Deletes all friend codes that were created more than the retention period ago.
      */
     @Scheduled(cron = "0 0 * * * *") // Runs at the start of every hour
     @Transactional
     public void cleanupOldFriendCodes() {
         try {
-            LocalDateTime twentyFourHoursAgo = LocalDateTime.now().minus(24, ChronoUnit.HOURS);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minus(cleanupConfig.getRetentionHours(), ChronoUnit.HOURS);
             
-            log.debug("Starting cleanup of friend codes older than: {}", twentyFourHoursAgo);
+            log.debug("Starting cleanup of friend codes older than: {}", cutoff);
             
-            int deletedCount = friendCodeRepository.deleteByCreatedAtBefore(twentyFourHoursAgo);
+            int deletedCount;
+            if (cleanupConfig.isPartitioned()) {
+                int createdPartitions = friendCodeRepository.createPartitions(
+                        now, now.plus(cleanupConfig.getPartitionsAheadHours(), ChronoUnit.HOURS));
+                log.debug("Created {} friend code partitions", createdPartitions);
+                deletedCount = friendCodeRepository.dropPartitionsBefore(cutoff);
+            } else {
+                deletedCount = friendCodeRepository.deleteByCreatedAtBefore(cutoff);
+            }
             
             if (deletedCount > 0) {
                 log.info("Successfully deleted {} old friend codes", deletedCount);
+                eventPublisher.publishEvent(new FriendCodesPurgedEvent(cutoff, deletedCount));
             } else {
                 log.debug("No old friend codes found to delete");
             }
@@ -0,0 +1,157 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Provides approximate totals for feed responses.
+ *
+ * Feed pages are fetched as slices without a COUNT query. When a client asks for totals,
+ * the count for the same filters is computed at most once per TTL and reused, so the
+ * hot feed endpoints no longer pay for a full count on every request.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FriendCodeCountEstimator {
+
+    private static final String ACTIVE_KEY = "active";
+
+    private final FriendCodeRepository friendCodeRepository;
+    private final FeedConfig feedConfig;
+    private final Map<Object, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Cached count together with the time it stops being valid.
+     */
+    private record CachedCount(long value, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Estimates the number of active friend codes.
+     *
+     * @return Approximate number of active friend codes
+     */
+    public long estimateActiveCount() {
+        return estimate(ACTIVE_KEY, () -> friendCodeRepository.countActiveFriendCodes(LocalDateTime.now()));
+    }
+
+    /**
+     * Estimates the number of active friend codes matching the search criteria.
+     *
+     * @param criteria Search criteria
+     * @return Approximate number of matching friend codes
+     */
+    public long estimateMatchingCount(FriendCodeSearchCriteria criteria) {
+        if (!criteria.hasFilters()) {
+            return estimateActiveCount();
+        }
+        return estimate(criteria, () -> friendCodeRepository.count(
+                FriendCodeSpecifications.withCriteria(criteria, LocalDateTime.now(), feedConfig.isFullTextSearchEnabled())));
+    }
+
+    /**
+     * Estimates the number of active friend codes whose trainer name contains the given text.
+     *
+     * @param trainerName Trainer name to search for
+     * @return Approximate number of matching friend codes
+     */
+    public long estimateTrainerNameCount(String trainerName) {
+        return estimateActive("trainerName:" + trainerName, FriendCodeSpecifications.hasTrainerName(trainerName));
+    }
+
+    /**
+     * Estimates the number of active friend codes whose description contains the given text.
+     *
+     * @param description Description text to search for
+     * @return Approximate number of matching friend codes
+     */
+    public long estimateDescriptionCount(String description) {
+        return estimateActive("description:" + description, FriendCodeSpecifications.hasDescription(description));
+    }
+
+    /**
+     * Estimates the number of active friend codes whose location contains the given text.
+     *
+     * @param location Location to search for
+     * @return Approximate number of matching friend codes
+     */
+    public long estimateLocationCount(String location) {
+        return estimateActive("location:" + location, FriendCodeSpecifications.hasLocation(location));
+    }
+
+    /**
+     * Estimates the number of active friend codes with a player level in a range.
+     *
+     * @param minLevel Minimum player level (inclusive, may be null)
+     * @param maxLevel Maximum player level (inclusive, may be null)
+     * @return Approximate number of matching friend codes
+     */
+    public long estimateLevelRangeCount(Integer minLevel, Integer maxLevel) {
+        return estimateActive("level:" + minLevel + "-" + maxLevel,
+                FriendCodeSpecifications.hasLevelBetween(minLevel, maxLevel));
+    }
+
+    /**
+     * Estimates the number of friend codes submitted in the last given hours.
+     *
+     * @param hours Number of hours to look back
+     * @return Approximate number of recent friend codes
+     */
+    public long estimateRecentCount(int hours) {
+        return estimate("recent:" + hours, () -> friendCodeRepository.count(
+                FriendCodeSpecifications.createdSince(LocalDateTime.now().minus(hours, ChronoUnit.HOURS))));
+    }
+
+    /**
+     * Drops all cached counts so the next request recomputes them.
+     */
+    public void invalidate() {
+        counts.clear();
+    }
+
+    private long estimateActive(String key, Specification<FriendCode> filter) {
+        return estimate(key, () -> friendCodeRepository.count(
+                FriendCodeSpecifications.isActive(LocalDateTime.now()).and(filter)));
+    }
+
+    private long estimate(Object key, Supplier<Long> counter) {
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached.value();
+        }
+
+        Long counted = counter.get();
+        long value = counted != null ? counted : 0L;
+
+        if (counts.size() >= feedConfig.getCountCacheMaxEntries()) {
+            // Filter combinations are unbounded; start over rather than grow without limit
+            log.debug("Count cache reached {} entries, clearing", counts.size());
+            counts.clear();
+        }
+        long ttlNanos = TimeUnit.SECONDS.toNanos(feedConfig.getCountCacheTtlSeconds());
+        counts.put(key, new CachedCount(value, now + ttlNanos));
+        return value;
+    }
+}
@@ -0,0 +1,191 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeFacetsResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts active friend codes per team, goal and level range for the filter facets.
+ *
+ * The counts are adjusted as codes are added and removed, so reading the facets never queries the
+ * database. They are reconciled periodically with a GROUP BY over the active friend codes, which
+ * reads one row per combination of team, goals and level instead of every code. Until the counts are
+ * first loaded, facets are read with that same query.
+ */
+@Service
+@Slf4j
+public class FriendCodeFacetCounter {
+
+    private final ActiveFriendCodes activeFriendCodes;
+    private final FriendCodeRepository friendCodeRepository;
+
+    private final Counts counts = new Counts();
+
+    public FriendCodeFacetCounter(ActiveFriendCodes activeFriendCodes, FriendCodeRepository friendCodeRepository) {
+        this.activeFriendCodes = activeFriendCodes;
+        this.friendCodeRepository = friendCodeRepository;
+        activeFriendCodes.register(counts);
+    }
+
+    /**
+     * Player level ranges counted for the level facet.
+     */
+    enum LevelBucket {
+        LEVEL_1_19("1-19", 1, 19),
+        LEVEL_20_29("20-29", 20, 29),
+        LEVEL_30_39("30-39", 30, 39),
+        LEVEL_40_PLUS("40+", 40, 50);
+
+        private final String label;
+        private final int min;
+        private final int max;
+
+        LevelBucket(String label, int min, int max) {
+            this.label = label;
+            this.min = min;
+            this.max = max;
+        }
+
+        static LevelBucket of(Integer level) {
+            if (level == null) {
+                return null;
+            }
+            for (LevelBucket bucket : values()) {
+                if (level >= bucket.min && level <= bucket.max) {
+                    return bucket;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Facet counts, adjusted by the contribution of each added or removed friend code.
+     */
+    static final class Counts implements ActiveFriendCodes.View {
+
+        private int total;
+        private int[] teams = new int[Team.values().length];
+        private int[] goals = new int[Goal.values().length];
+        private int[] levels = new int[LevelBucket.values().length];
+
+        @Override
+        public synchronized void reset(Collection<FriendCodeResponse> active) {
+            clear();
+            for (FriendCodeResponse friendCode : active) {
+                count(friendCode.getTeam(), GoalSetConverter.toMask(friendCode.getGoals()),
+                        friendCode.getPlayerLevel(), 1);
+            }
+        }
+
+        @Override
+        public synchronized void add(FriendCodeResponse friendCode) {
+            count(friendCode.getTeam(), GoalSetConverter.toMask(friendCode.getGoals()), friendCode.getPlayerLevel(), 1);
+        }
+
+        @Override
+        public synchronized void remove(FriendCodeResponse friendCode) {
+            count(friendCode.getTeam(), GoalSetConverter.toMask(friendCode.getGoals()), friendCode.getPlayerLevel(), -1);
+        }
+
+        /**
+         * Replaces the counts with rows of {@link FriendCodeRepository#countActiveFriendCodesByFacet}.
+         */
+        synchronized void resetFromGroups(List<Object[]> groups) {
+            clear();
+            for (Object[] group : groups) {
+                Number goalsMask = (Number) group[1];
+                count((Team) group[0], goalsMask != null ? goalsMask.intValue() : 0, (Integer) group[2],
+                        ((Number) group[3]).intValue());
+            }
+        }
+
+        synchronized FriendCodeFacetsResponse snapshot() {
+            Map<String, Integer> teamCounts = new LinkedHashMap<>();
+            for (Team team : Team.values()) {
+                teamCounts.put(team.getValue(), teams[team.ordinal()]);
+            }
+            Map<String, Integer> goalCounts = new LinkedHashMap<>();
+            for (Goal goal : Goal.values()) {
+                goalCounts.put(goal.toString(), goals[goal.ordinal()]);
+            }
+            Map<String, Integer> levelCounts = new LinkedHashMap<>();
+            for (LevelBucket bucket : LevelBucket.values()) {
+                levelCounts.put(bucket.label, levels[bucket.ordinal()]);
+            }
+            return new FriendCodeFacetsResponse(total, teamCounts, goalCounts, levelCounts);
+        }
+
+        private void clear() {
+            total = 0;
+            teams = new int[Team.values().length];
+            goals = new int[Goal.values().length];
+            levels = new int[LevelBucket.values().length];
+        }
+
+        private void count(Team team, int goalsMask, Integer playerLevel, int delta) {
+            total += delta;
+            if (team != null) {
+                teams[team.ordinal()] += delta;
+            }
+            for (Goal goal : Goal.values()) {
+                // Same matching as the goal filter, so a facet count is what selecting that goal returns
+                if ((goalsMask & GoalSetConverter.toFilterMask(Set.of(goal))) != 0) {
+                    goals[goal.ordinal()] += delta;
+                }
+            }
+            LevelBucket level = LevelBucket.of(playerLevel);
+            if (level != null) {
+                levels[level.ordinal()] += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns the current facet counts of the active friend codes.
+     *
+     * @return Counts per team, goal and level range
+     */
+    public FriendCodeFacetsResponse getFacets() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!activeFriendCodes.isLoaded()) {
+            Counts fromDatabase = new Counts();
+            fromDatabase.resetFromGroups(friendCodeRepository.countActiveFriendCodesByFacet(now));
+            return fromDatabase.snapshot();
+        }
+        activeFriendCodes.removeExpired(now);
+        return counts.snapshot();
+    }
+
+    /**
+     * Replaces the counts with grouped counts from the database, correcting any drift from missed events
+     * or other instances. Later changes keep adjusting the reconciled counts.
+     */
+    @Scheduled(fixedRateString = "${app.feed.facets-reconcile-minutes:5}",
+               initialDelayString = "${app.feed.facets-reconcile-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        if (!activeFriendCodes.isLoaded()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Codes that expired by now are excluded by the query too, so they must not be subtracted again later
+        activeFriendCodes.removeExpired(now);
+        List<Object[]> groups = friendCodeRepository.countActiveFriendCodesByFacet(now);
+        counts.resetFromGroups(groups);
+        log.debug("Reconciled friend code facet counts from {} groups", groups.size());
+    }
+}
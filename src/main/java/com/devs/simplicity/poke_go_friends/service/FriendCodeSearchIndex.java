@@ -0,0 +1,339 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of the active friend codes, answering criteria searches without a query.
+ *
+ * Active friend codes are short-lived (see {@link FriendCodeCleanupService}), so all of them fit in
+ * memory. Every suffix of every location word is mapped to the ids using it, so the words containing
+ * a location filter's longest word are one contiguous range of keys; a location search narrows
+ * candidates through that range and then checks each candidate against the same filters
+ * {@link FriendCodeSpecifications#withCriteria} applies, so results match the database search with
+ * substring matching. Other searches walk the codes in feed order and stop once the page is full.
+ *
+ * Search text is matched by substring only while full-text search is disabled. With full-text search
+ * the database owns text search: stemming and ranking are not reproduced here, so those searches are
+ * never answered from the index.
+ *
+ * Until the index is first loaded, callers fall back to the database.
+ */
+@Service
+public class FriendCodeSearchIndex {
+
+    private static final Comparator<FeedCursor> FEED_ORDER =
+            Comparator.comparing(FeedCursor::getCreatedAt).thenComparing(FeedCursor::getId).reversed();
+
+    private final FeedConfig feedConfig;
+
+    private final Index index = new Index();
+
+    public FriendCodeSearchIndex(ActiveFriendCodes activeFriendCodes, FeedConfig feedConfig) {
+        this.feedConfig = feedConfig;
+        activeFriendCodes.register(index);
+    }
+
+    /**
+     * Active friend codes in feed order plus the location word postings pointing at them.
+     * Searches share a read lock; updates take the write lock.
+     */
+    static final class Index implements ActiveFriendCodes.View {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private NavigableMap<FeedCursor, FriendCodeResponse> byFeedOrder = new TreeMap<>(FEED_ORDER);
+        private Map<Long, FriendCodeResponse> byId = new HashMap<>();
+        private NavigableMap<String, Set<Long>> locationPostings = new TreeMap<>();
+        private boolean loaded;
+
+        boolean isLoaded() {
+            lock.readLock().lock();
+            try {
+                return loaded;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return byId.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void reset(Collection<FriendCodeResponse> active) {
+            lock.writeLock().lock();
+            try {
+                byFeedOrder = new TreeMap<>(FEED_ORDER);
+                byId = new HashMap<>(active.size() * 2);
+                locationPostings = new TreeMap<>();
+                active.forEach(this::doPut);
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void add(FriendCodeResponse friendCode) {
+            lock.writeLock().lock();
+            try {
+                doPut(friendCode);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(FriendCodeResponse friendCode) {
+            lock.writeLock().lock();
+            try {
+                doRemove(friendCode.getId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Finds matching friend codes in feed order.
+         *
+         * @param criteria Search criteria
+         * @param after    Only friend codes after this cursor (may be null)
+         * @param skip     Number of matches to skip
+         * @param limit    Maximum number of matches to return
+         * @param now      Current time, for expiration
+         */
+        List<FriendCodeResponse> find(FriendCodeSearchCriteria criteria, FeedCursor after, long skip, int limit,
+                                      LocalDateTime now) {
+            lock.readLock().lock();
+            try {
+                Collection<FriendCodeResponse> candidates = candidates(criteria, after);
+                List<FriendCodeResponse> found = new ArrayList<>(Math.min(limit, 64));
+                long skipped = 0;
+                for (FriendCodeResponse response : candidates) {
+                    if (!matches(response, criteria, now)) {
+                        continue;
+                    }
+                    if (skipped < skip) {
+                        skipped++;
+                        continue;
+                    }
+                    found.add(response);
+                    if (found.size() >= limit) {
+                        break;
+                    }
+                }
+                return found;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Narrows the friend codes to check through the location postings, in feed order.
+         */
+        private Collection<FriendCodeResponse> candidates(FriendCodeSearchCriteria criteria, FeedCursor after) {
+            Set<Long> ids = StringUtils.hasText(criteria.getLocation())
+                    ? postingsMatching(locationPostings, criteria.getLocation())
+                    : null;
+
+            NavigableMap<FeedCursor, FriendCodeResponse> ordered =
+                    after != null ? byFeedOrder.tailMap(after, false) : byFeedOrder;
+            if (ids == null) {
+                return ordered.values();
+            }
+            return ids.stream()
+                    .map(byId::get)
+                    .map(response -> Map.entry(FeedCursor.of(response), response))
+                    .filter(entry -> after == null || FEED_ORDER.compare(entry.getKey(), after) > 0)
+                    .sorted(Map.Entry.comparingByKey(FEED_ORDER))
+                    .map(Map.Entry::getValue)
+                    .toList();
+        }
+
+        private void doPut(FriendCodeResponse response) {
+            byId.put(response.getId(), response);
+            byFeedOrder.put(FeedCursor.of(response), response);
+            for (String suffix : suffixes(response.getLocation())) {
+                locationPostings.computeIfAbsent(suffix, key -> new HashSet<>()).add(response.getId());
+            }
+        }
+
+        private void doRemove(Long id) {
+            FriendCodeResponse removed = byId.remove(id);
+            if (removed == null) {
+                return;
+            }
+            byFeedOrder.remove(FeedCursor.of(removed));
+            for (String suffix : suffixes(removed.getLocation())) {
+                removePosting(locationPostings, suffix, id);
+            }
+        }
+
+        private static void removePosting(Map<String, Set<Long>> postings, String word, Long id) {
+            Set<Long> ids = postings.get(word);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Searches active friend codes in feed order, as
+     * {@link FriendCodeService#searchWithCriteria(FriendCodeSearchCriteria, Pageable)} does.
+     *
+     * @param criteria Search criteria
+     * @param pageable Pagination information (unsorted or in feed order)
+     * @return The page, or empty if it must be read from the database
+     */
+    public Optional<Slice<FriendCodeResponse>> search(FriendCodeSearchCriteria criteria, Pageable pageable) {
+        if (pageable.isUnpaged() || !isFeedOrder(pageable) || !canAnswer(criteria)) {
+            return Optional.empty();
+        }
+        return Optional.of(toSlice(index.find(criteria, null, pageable.getOffset(), pageable.getPageSize() + 1,
+                LocalDateTime.now()), pageable));
+    }
+
+    /**
+     * Searches active friend codes after a keyset cursor, as
+     * {@link FriendCodeService#searchWithCriteriaAfter(FriendCodeSearchCriteria, FeedCursor, int)} does.
+     *
+     * @param criteria Search criteria
+     * @param after    Cursor of the last friend code already returned (null for the first slice)
+     * @param size     Maximum number of friend codes to return
+     * @return The slice, or empty if it must be read from the database
+     */
+    public Optional<Slice<FriendCodeResponse>> searchAfter(FriendCodeSearchCriteria criteria, FeedCursor after,
+                                                           int size) {
+        if (!canAnswer(criteria)) {
+            return Optional.empty();
+        }
+        return Optional.of(toSlice(index.find(criteria, after, 0, size + 1, LocalDateTime.now()),
+                Pageable.ofSize(size)));
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    private boolean canAnswer(FriendCodeSearchCriteria criteria) {
+        // Full-text matching stems words, which substring checks cannot reproduce
+        return feedConfig.isSearchIndexEnabled() && index.isLoaded()
+                && !(feedConfig.isFullTextSearchEnabled() && StringUtils.hasText(criteria.getSearchText()));
+    }
+
+    private static boolean isFeedOrder(Pageable pageable) {
+        return pageable.getSort().isUnsorted() || pageable.getSort().equals(FeedCursor.FEED_SORT);
+    }
+
+    private static Slice<FriendCodeResponse> toSlice(List<FriendCodeResponse> found, Pageable pageable) {
+        // One extra match was requested to tell whether a next page exists
+        boolean hasNext = found.size() > pageable.getPageSize();
+        List<FriendCodeResponse> content = hasNext ? found.subList(0, pageable.getPageSize()) : found;
+        return new SliceImpl<>(new ArrayList<>(content), pageable, hasNext);
+    }
+
+    /**
+     * Checks a friend code against the criteria the same way {@link FriendCodeSpecifications#withCriteria} does.
+     */
+    static boolean matches(FriendCodeResponse response, FriendCodeSearchCriteria criteria, LocalDateTime now) {
+        if (response.getExpiresAt() != null && !response.getExpiresAt().isAfter(now)) {
+            return false;
+        }
+        if (criteria.getTeam() != null && criteria.getTeam() != response.getTeam()) {
+            return false;
+        }
+        Integer level = response.getPlayerLevel();
+        if (level != null && criteria.getMinLevel() != null && level < criteria.getMinLevel()) {
+            return false;
+        }
+        if (level != null && criteria.getMaxLevel() != null && level > criteria.getMaxLevel()) {
+            return false;
+        }
+        if (criteria.getGoals() != null && !criteria.getGoals().isEmpty()
+                && (GoalSetConverter.toMask(response.getGoals()) & GoalSetConverter.toFilterMask(criteria.getGoals())) == 0) {
+            return false;
+        }
+        if (StringUtils.hasText(criteria.getLocation()) && !containsIgnoringCase(response.getLocation(), criteria.getLocation())) {
+            return false;
+        }
+        return !StringUtils.hasText(criteria.getSearchText())
+                || containsIgnoringCase(response.getTrainerName(), criteria.getSearchText())
+                || containsIgnoringCase(response.getDescription(), criteria.getSearchText());
+    }
+
+    /**
+     * Collects the ids of all words containing the longest word of the text.
+     * Every value containing the text contains that word inside one of its own words, so the result is
+     * a superset of the matches; {@link #matches} then checks the whole text. A word contains the longest
+     * word when one of its suffixes starts with it, and those suffixes sort between the longest word and
+     * the longest word followed by the highest char.
+     *
+     * @return Candidate ids, or null if the text has no words to narrow by
+     */
+    private static Set<Long> postingsMatching(NavigableMap<String, Set<Long>> postings, String text) {
+        String longest = words(text).stream().max(Comparator.comparingInt(String::length)).orElse(null);
+        if (longest == null) {
+            return null;
+        }
+        Set<Long> ids = new HashSet<>();
+        postings.subMap(longest, true, longest + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private static boolean containsIgnoringCase(String value, String text) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT));
+    }
+
+    private static Set<String> suffixes(String value) {
+        Set<String> suffixes = new HashSet<>();
+        for (String word : words(value)) {
+            for (int start = 0; start < word.length(); start++) {
+                suffixes.add(word.substring(start));
+            }
+        }
+        return suffixes;
+    }
+
+    private static Set<String> words(String value) {
+        Set<String> words = new HashSet<>();
+        if (value == null) {
+            return words;
+        }
+        for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -1,32 +1,59 @@
 package com.devs.simplicity.poke_go_friends.service;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
-
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.config.SubmissionConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeBatchSubmissionRequest;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeBatchSubmissionResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeLookupRequest;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
 import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSubmissionRequest;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
 import com.devs.simplicity.poke_go_friends.entity.Goal;
 import com.devs.simplicity.poke_go_friends.entity.Team;
 import com.devs.simplicity.poke_go_friends.entity.User;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
 import com.devs.simplicity.poke_go_friends.exception.DuplicateFriendCodeException;
 import com.devs.simplicity.poke_go_friends.exception.FriendCodeNotFoundException;
+import com.devs.simplicity.poke_go_friends.exception.RateLimitExceededException;
+import com.devs.simplicity.poke_go_friends.exception.ValidationException;
 import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
 import com.devs.simplicity.poke_go_friends.repository.UserRepository;
 import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing Pokemon Go friend codes.
@@ -41,7 +68,14 @@ public class FriendCodeService {
     private final FriendCodeRepository friendCodeRepository;
     private final UserRepository userRepository;
     private final ValidationService validationService;
-    private final RateLimiterRegistry rateLimiterRegistry;
+    private final SubmissionRateLimitStatusService submissionRateLimitStatusService;
+    private final HotFeedCache hotFeedCache;
+    private final FriendCodeSearchIndex searchIndex;
+    private final KnownFriendCodeFilter knownFriendCodes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FeedConfig feedConfig;
+    private final SubmissionConfig submissionConfig;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Checks if the current user/IP is rate limited for friend code submissions.
@@ -52,11 +86,8 @@ public class FriendCodeService {
      */
     @Transactional(readOnly = true)
     public boolean isSubmissionRateLimited(String ipAddress, Long userId) {
-        // For simplicity, use a single global rate limiter (Resilience4j does not support per-IP/user out of the box)
-        // If you want per-IP/user, you need to create a RateLimiter per key (not recommended for high cardinality)
-        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("friendCodeSubmissionLimiter");
-        // Try to acquire a permit without consuming it (peek at the state)
-        return !rateLimiter.acquirePermission();
+        // Peeks at the per-IP/per-user submission limits without consuming quota
+        return submissionRateLimitStatusService.isRateLimited(ipAddress, userId);
     }
 
     /**
@@ -83,8 +114,11 @@ public class FriendCodeService {
         validationService.validateFriendCodeSubmission(friendCode, trainerName, playerLevel, 
                                                        location, description, ipAddress, userId);
 
-        // Check for duplicates
-        checkForDuplicateFriendCode(friendCode);
+        boolean upsert = submissionConfig.isUpsertEnabled();
+        if (!upsert) {
+            // Check for duplicates
+            checkForDuplicateFriendCode(friendCode);
+        }
 
         // Get user if provided
         User user = null;
@@ -97,7 +131,11 @@ public class FriendCodeService {
         FriendCode newFriendCode = new FriendCode(friendCode, trainerName, playerLevel, location, description, team, goals);
         newFriendCode.setUser(user);
 
-        FriendCode savedFriendCode = friendCodeRepository.save(newFriendCode);
+        FriendCode savedFriendCode = upsert
+                ? insertNewFriendCode(newFriendCode)
+                : saveNewFriendCode(newFriendCode);
+        submissionRateLimitStatusService.invalidate(ipAddress, userId);
+        eventPublisher.publishEvent(new FriendCodesCreatedEvent(List.of(savedFriendCode)));
         
         log.info("Successfully created friend code with ID: {} for trainer: {}", 
                 savedFriendCode.getId(), trainerName);
@@ -128,6 +166,115 @@ public class FriendCodeService {
         return friendCodeRepository.save(newFriendCode);
     }
 
+    /**
+     * Creates many friend codes at once, reporting the outcome of each entry.
+     *
+     * The rate limits are charged once for the whole batch, each entry counting as one submission.
+     * Invalid entries and codes that already exist (in the database or earlier in the batch) are
+     * rejected individually. With upserts enabled the rest are inserted in one statement that skips
+     * codes created in the meantime; otherwise existing codes are looked up with one query and the
+     * rest are saved together so Hibernate sends them as JDBC batches.
+     *
+     * @param submissions The friend code submissions
+     * @param ipAddress   The submitter's IP address for rate limiting
+     * @param userId      The submitter's user ID (optional for anonymous submissions)
+     * @return One result per submission, in order
+     * @throws ValidationException if the batch is empty or too large
+     * @throws RateLimitExceededException if the batch would exceed the rate limits
+     */
+    public FriendCodeBatchSubmissionResponse createFriendCodes(List<FriendCodeSubmissionRequest> submissions,
+                                                               String ipAddress, Long userId) {
+        log.info("Creating {} friend codes in a batch", submissions.size());
+
+        if (submissions.isEmpty()) {
+            throw new ValidationException("At least one friend code is required");
+        }
+        if (submissions.size() > FriendCodeBatchSubmissionRequest.MAX_ENTRIES) {
+            throw new ValidationException("Cannot submit more than " + FriendCodeBatchSubmissionRequest.MAX_ENTRIES
+                    + " friend codes at once");
+        }
+
+        validationService.checkSubmissionRateLimit(ipAddress, userId, submissions.size());
+
+        User user = null;
+        if (userId != null) {
+            user = userRepository.findById(userId)
+                    .orElseThrow(() -> new FriendCodeNotFoundException("User not found with ID: " + userId));
+        }
+
+        FriendCodeBatchSubmissionResponse.Result[] results =
+                new FriendCodeBatchSubmissionResponse.Result[submissions.size()];
+        Map<String, Integer> validIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < submissions.size(); i++) {
+            FriendCodeSubmissionRequest submission = submissions.get(i);
+            try {
+                validationService.validateFriendCodeContent(submission.getFriendCode(), submission.getTrainerName(),
+                        submission.getPlayerLevel(), submission.getLocation(), submission.getDescription());
+            } catch (ValidationException e) {
+                results[i] = FriendCodeBatchSubmissionResponse.Result.rejected(i, submission.getFriendCode(),
+                        FriendCodeBatchSubmissionResponse.Status.INVALID, e.getMessage());
+                continue;
+            }
+            if (validIndexes.putIfAbsent(submission.getFriendCode(), i) != null) {
+                results[i] = FriendCodeBatchSubmissionResponse.Result.rejected(i, submission.getFriendCode(),
+                        FriendCodeBatchSubmissionResponse.Status.DUPLICATE, "Friend code appears earlier in the batch");
+            }
+        }
+
+        boolean upsert = submissionConfig.isUpsertEnabled();
+        if (!upsert) {
+            // One query finds every code of the batch that already exists, skipped for codes never seen
+            List<String> possiblyExisting = validIndexes.keySet().stream().filter(knownFriendCodes::mightExist).toList();
+            if (!possiblyExisting.isEmpty()) {
+                for (FriendCode existing : friendCodeRepository.findAll(
+                        FriendCodeSpecifications.hasFriendCodeIn(possiblyExisting))) {
+                    Integer index = validIndexes.remove(existing.getFriendCode());
+                    if (index != null) {
+                        results[index] = duplicateResult(index, existing.getFriendCode());
+                    }
+                }
+            }
+        }
+
+        List<FriendCode> newFriendCodes = new ArrayList<>(validIndexes.size());
+        for (int index : validIndexes.values()) {
+            FriendCodeSubmissionRequest submission = submissions.get(index);
+            FriendCode newFriendCode = new FriendCode(submission.getFriendCode(), submission.getTrainerName(),
+                    submission.getPlayerLevel(), submission.getLocation(), submission.getDescription(),
+                    submission.getTeam(), submission.getGoals());
+            newFriendCode.setUser(user);
+            newFriendCodes.add(newFriendCode);
+        }
+
+        if (!newFriendCodes.isEmpty()) {
+            List<FriendCode> savedCodes = upsert
+                    ? friendCodeRepository.insertIfAbsent(newFriendCodes)
+                    : saveNewFriendCodes(newFriendCodes);
+            for (FriendCode savedCode : savedCodes) {
+                int index = validIndexes.remove(savedCode.getFriendCode());
+                results[index] = FriendCodeBatchSubmissionResponse.Result.created(index,
+                        FriendCodeResponse.fromEntity(savedCode));
+            }
+            // Whatever was not inserted already existed
+            validIndexes.forEach((friendCode, index) -> results[index] = duplicateResult(index, friendCode));
+            if (!savedCodes.isEmpty()) {
+                eventPublisher.publishEvent(new FriendCodesCreatedEvent(savedCodes));
+            }
+        }
+        submissionRateLimitStatusService.invalidate(ipAddress, userId);
+
+        FriendCodeBatchSubmissionResponse response = FriendCodeBatchSubmissionResponse.of(List.of(results));
+        log.info("Batch submission created {} and rejected {} friend codes",
+                response.getCreatedCount(), response.getRejectedCount());
+        return response;
+    }
+
+    private static FriendCodeBatchSubmissionResponse.Result duplicateResult(int index, String friendCode) {
+        return FriendCodeBatchSubmissionResponse.Result.rejected(index, friendCode,
+                FriendCodeBatchSubmissionResponse.Status.DUPLICATE,
+                new DuplicateFriendCodeException(friendCode).getMessage());
+    }
+
     /**
      * Retrieves a friend code by ID.
      *
@@ -161,46 +308,103 @@ public class FriendCodeService {
     }
 
     /**
-     * Gets a paginated list of all active friend codes.
+     * Looks up many friend codes by id and/or by code with a single query.
+     * Inactive and expired friend codes are included; callers check {@link FriendCode#isCurrentlyActive()}.
+     *
+     * @param ids         Friend code ids to look up
+     * @param friendCodes 12-digit friend codes to look up
+     * @return Friend codes matching any of the ids or codes
+     * @throws ValidationException if nothing or too much is requested
+     */
+    @Transactional(readOnly = true)
+    public List<FriendCode> lookupFriendCodes(Collection<Long> ids, Collection<String> friendCodes) {
+        log.debug("Looking up {} ids and {} friend codes", ids.size(), friendCodes.size());
+
+        if (ids.isEmpty() && friendCodes.isEmpty()) {
+            throw new ValidationException("At least one id or friend code is required");
+        }
+        if (ids.size() + friendCodes.size() > FriendCodeLookupRequest.MAX_ENTRIES) {
+            throw new ValidationException("Cannot look up more than " + FriendCodeLookupRequest.MAX_ENTRIES
+                    + " ids and friend codes at once");
+        }
+        friendCodes.forEach(validationService::validateFriendCodeFormat);
+
+        Specification<FriendCode> specification;
+        if (ids.isEmpty()) {
+            specification = FriendCodeSpecifications.hasFriendCodeIn(friendCodes);
+        } else if (friendCodes.isEmpty()) {
+            specification = FriendCodeSpecifications.hasIdIn(ids);
+        } else {
+            specification = FriendCodeSpecifications.hasIdIn(ids)
+                    .or(FriendCodeSpecifications.hasFriendCodeIn(friendCodes));
+        }
+
+        // Goals live in a bitmask column, so the entities are complete without further queries
+        return friendCodeRepository.findAll(specification);
+    }
+
+    /**
+     * Gets a slice of all active friend codes, projected into responses.
+     * Fetched without a COUNT query; use {@link FriendCodeCountEstimator} when totals are needed.
+     * The first pages in feed order are served from the {@link HotFeedCache} when it is available.
+     * Results are cached in process briefly; see {@link FeedPageCache}.
      *
      * @param pageable Pagination information
-     * @return Page of active friend codes
+     * @return Slice of active friend codes
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> getActiveFriendCodes(Pageable pageable) {
+    @Cacheable(cacheNames = FeedPageCache.CACHE_NAME, keyGenerator = FeedPageCache.KEY_GENERATOR)
+    public Slice<FriendCodeResponse> getActiveFriendCodes(Pageable pageable) {
         log.debug("Retrieving active friend codes with pagination: {}", pageable);
         
-        return friendCodeRepository.findActiveFriendCodes(LocalDateTime.now(), pageable);
+        return hotFeedCache.findPage(pageable).orElseGet(() -> friendCodeRepository.findResponseSlice(
+                FriendCodeSpecifications.isActive(LocalDateTime.now()), withFeedSortIfUnsorted(pageable)));
+    }
+
+    /**
+     * Gets the next slice of active friend codes after a keyset cursor.
+     * Seeks on (createdAt, id) instead of using OFFSET, so latency does not grow with depth.
+     *
+     * @param after Cursor of the last friend code already returned (null for the first slice)
+     * @param size  Maximum number of friend codes to return
+     * @return Slice of active friend codes in feed order
+     */
+    @Transactional(readOnly = true)
+    public Slice<FriendCodeResponse> getActiveFriendCodesAfter(FeedCursor after, int size) {
+        log.debug("Retrieving active friend codes after cursor: {}, size: {}", after, size);
+
+        Specification<FriendCode> specification = FriendCodeSpecifications.isActive(LocalDateTime.now())
+                .and(FriendCodeSpecifications.createdBefore(after));
+
+        return friendCodeRepository.findResponseSlice(specification, PageRequest.of(0, size, FeedCursor.FEED_SORT));
     }
 
     /**
-     * Filters friend codes by location.
+     * Filters friend codes by location, projected into responses.
+     * Fetched without a COUNT query; use {@link FriendCodeCountEstimator} when totals are needed.
      *
      * @param location The location to filter by
      * @param pageable Pagination information
-     * @return Page of friend codes matching the location
+     * @return Slice of friend codes matching the location
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> getFriendCodesByLocation(String location, Pageable pageable) {
+    public Slice<FriendCodeResponse> getFriendCodesByLocation(String location, Pageable pageable) {
         log.debug("Filtering friend codes by location: {}", location);
-        
-        if (!StringUtils.hasText(location)) {
-            return getActiveFriendCodes(pageable);
-        }
-        
-        return friendCodeRepository.findActiveFriendCodesByLocation(location, LocalDateTime.now(), pageable);
+
+        return findActiveResponseSlice(FriendCodeSpecifications.hasLocation(location), pageable);
     }
 
     /**
-     * Filters friend codes by player level range.
+     * Filters friend codes by player level range, projected into responses.
+     * Friend codes without a level are left out. Fetched without a COUNT query.
      *
      * @param minLevel Minimum player level (inclusive)
      * @param maxLevel Maximum player level (inclusive)
      * @param pageable Pagination information
-     * @return Page of friend codes within the level range
+     * @return Slice of friend codes within the level range
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> getFriendCodesByLevelRange(Integer minLevel, Integer maxLevel, Pageable pageable) {
+    public Slice<FriendCodeResponse> getFriendCodesByLevelRange(Integer minLevel, Integer maxLevel, Pageable pageable) {
         log.debug("Filtering friend codes by level range: {} - {}", minLevel, maxLevel);
         
         if (minLevel != null) {
@@ -209,52 +413,43 @@ public class FriendCodeService {
         if (maxLevel != null) {
             validationService.validatePlayerLevel(maxLevel);
         }
-        
-        if (minLevel == null && maxLevel == null) {
-            return getActiveFriendCodes(pageable);
-        }
-        
-        // Set default values if one is missing
-        int min = minLevel != null ? minLevel : 1;
-        int max = maxLevel != null ? maxLevel : 50;
-        
-        return friendCodeRepository.findActiveFriendCodesByLevelRange(min, max, LocalDateTime.now(), pageable);
+
+        return findActiveResponseSlice(FriendCodeSpecifications.hasLevelBetween(minLevel, maxLevel), pageable);
     }
 
     /**
-     * Searches friend codes by trainer name.
+     * Searches friend codes by trainer name, projected into responses.
+     * Fetched without a COUNT query; use {@link FriendCodeCountEstimator} when totals are needed.
      *
      * @param trainerName The trainer name to search for
      * @param pageable    Pagination information
-     * @return Page of friend codes matching the trainer name
+     * @return Slice of friend codes matching the trainer name
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> searchByTrainerName(String trainerName, Pageable pageable) {
+    public Slice<FriendCodeResponse> searchByTrainerName(String trainerName, Pageable pageable) {
         log.debug("Searching friend codes by trainer name: {}", trainerName);
-        
-        if (!StringUtils.hasText(trainerName)) {
-            return getActiveFriendCodes(pageable);
-        }
-        
-        return friendCodeRepository.findActiveFriendCodesByTrainerName(trainerName, LocalDateTime.now(), pageable);
+
+        return findActiveResponseSlice(FriendCodeSpecifications.hasTrainerName(trainerName), pageable);
     }
 
     /**
-     * Searches friend codes by description content.
+     * Searches friend codes by description content, projected into responses.
+     * Fetched without a COUNT query; use {@link FriendCodeCountEstimator} when totals are needed.
      *
      * @param description The description text to search for
      * @param pageable    Pagination information
-     * @return Page of friend codes matching the description
+     * @return Slice of friend codes matching the description
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> searchByDescription(String description, Pageable pageable) {
+    public Slice<FriendCodeResponse> searchByDescription(String description, Pageable pageable) {
         log.debug("Searching friend codes by description: {}", description);
-        
-        if (!StringUtils.hasText(description)) {
-            return getActiveFriendCodes(pageable);
-        }
-        
-        return friendCodeRepository.findActiveFriendCodesByDescription(description, LocalDateTime.now(), pageable);
+
+        return findActiveResponseSlice(FriendCodeSpecifications.hasDescription(description), pageable);
+    }
+
+    private Slice<FriendCodeResponse> findActiveResponseSlice(Specification<FriendCode> filter, Pageable pageable) {
+        return friendCodeRepository.findResponseSlice(
+                FriendCodeSpecifications.isActive(LocalDateTime.now()).and(filter), withFeedSortIfUnsorted(pageable));
     }
 
     /**
@@ -288,28 +483,113 @@ public class FriendCodeService {
     /**
      * Advanced search with multiple filters using JPA Specifications.
      * This method supports all filter types including team filtering.
+     * Search text in feed order is ranked by relevance when full-text search is enabled;
+     * see {@link #ranksByRelevance(FriendCodeSearchCriteria, Pageable)}.
+     * Other searches in feed order are answered from the {@link FriendCodeSearchIndex} once it is built.
+     * Results are cached in process briefly; see {@link FeedPageCache}.
      *
      * @param criteria Search criteria containing all filter parameters
      * @param pageable Pagination information
-     * @return Page of friend codes matching the criteria
+     * @return Slice of friend codes matching the criteria
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> searchWithCriteria(FriendCodeSearchCriteria criteria, Pageable pageable) {
+    @Cacheable(cacheNames = FeedPageCache.CACHE_NAME, keyGenerator = FeedPageCache.KEY_GENERATOR)
+    public Slice<FriendCodeResponse> searchWithCriteria(FriendCodeSearchCriteria criteria, Pageable pageable) {
         log.debug("Searching friend codes with criteria - Location: {}, Team: {}, Level: {}-{}, Text: {}",
                  criteria.getLocation(), criteria.getTeam(), criteria.getMinLevel(), criteria.getMaxLevel(), criteria.getSearchText());
 
-        // Validate level inputs if provided
-        if (criteria.getMinLevel() != null) {
-            validationService.validatePlayerLevel(criteria.getMinLevel());
+        validateCriteriaLevels(criteria);
+
+        // Use JPA Specifications for dynamic query building
+        Specification<FriendCode> specification = criteriaSpecification(criteria);
+
+        if (ranksByRelevance(criteria, pageable)) {
+            // The relevance order comes from the specification; an explicit sort would replace it
+            return friendCodeRepository.findResponseSlice(
+                    specification.and(FriendCodeSpecifications.orderByRelevance(criteria.getSearchText())),
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         }
-        if (criteria.getMaxLevel() != null) {
-            validationService.validatePlayerLevel(criteria.getMaxLevel());
+        return searchIndex.search(criteria, pageable).orElseGet(() ->
+                friendCodeRepository.findResponseSlice(specification, withFeedSortIfUnsorted(pageable)));
+    }
+
+    /**
+     * Checks whether {@link #searchWithCriteria(FriendCodeSearchCriteria, Pageable)} orders results by
+     * full-text relevance (newest first among ties) rather than by the requested sort.
+     * This is the case for search text in feed order, or unsorted, when full-text search is enabled.
+     *
+     * @param criteria Search criteria
+     * @param pageable Requested page and sort
+     * @return true if results are ranked by relevance
+     */
+    public boolean ranksByRelevance(FriendCodeSearchCriteria criteria, Pageable pageable) {
+        return feedConfig.isFullTextSearchEnabled()
+                && StringUtils.hasText(criteria.getSearchText())
+                && (pageable.getSort().isUnsorted() || pageable.getSort().equals(FeedCursor.FEED_SORT));
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #searchWithCriteria(FriendCodeSearchCriteria, Pageable)}.
+     * Answered from the {@link FriendCodeSearchIndex} once it is built, unless the search uses full-text matching.
+     *
+     * @param criteria Search criteria containing all filter parameters
+     * @param after    Cursor of the last friend code already returned (null for the first slice)
+     * @param size     Maximum number of friend codes to return
+     * @return Slice of matching friend codes in feed order
+     */
+    @Transactional(readOnly = true)
+    public Slice<FriendCodeResponse> searchWithCriteriaAfter(FriendCodeSearchCriteria criteria, FeedCursor after, int size) {
+        log.debug("Searching friend codes with criteria after cursor: {}, size: {}", after, size);
+
+        validateCriteriaLevels(criteria);
+
+        Optional<Slice<FriendCodeResponse>> indexed = searchIndex.searchAfter(criteria, after, size);
+        if (indexed.isPresent()) {
+            return indexed.get();
         }
 
-        // Use JPA Specifications for dynamic query building
-        Specification<FriendCode> specification = FriendCodeSpecifications.withCriteria(criteria, LocalDateTime.now());
+        Specification<FriendCode> specification = criteriaSpecification(criteria)
+                .and(FriendCodeSpecifications.createdBefore(after));
 
-        return friendCodeRepository.findAll(specification, pageable);
+        return friendCodeRepository.findResponseSlice(specification, PageRequest.of(0, size, FeedCursor.FEED_SORT));
+    }
+
+    /**
+     * Validates search criteria up front, for callers that run the search later.
+     *
+     * @param criteria Search criteria to validate
+     */
+    public void validateSearchCriteria(FriendCodeSearchCriteria criteria) {
+        validateCriteriaLevels(criteria);
+    }
+
+    /**
+     * Streams all active friend codes matching the criteria to the consumer, oldest first.
+     * Rows are read forward-only and handed over one at a time without being kept,
+     * so memory use stays flat regardless of the number of matches.
+     *
+     * @param criteria Search criteria containing all filter parameters
+     * @param consumer Receives each matching friend code
+     * @return Number of friend codes exported
+     */
+    @Transactional(readOnly = true)
+    public long exportFriendCodes(FriendCodeSearchCriteria criteria, Consumer<FriendCodeResponse> consumer) {
+        validateCriteriaLevels(criteria);
+
+        Specification<FriendCode> specification = criteriaSpecification(criteria);
+
+        long exported = 0;
+        try (Stream<FriendCodeResponse> responses = friendCodeRepository.streamResponses(
+                specification, Sort.by("id"), feedConfig.getExportFetchSize())) {
+            Iterator<FriendCodeResponse> iterator = responses.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                exported++;
+            }
+        }
+
+        log.info("Exported {} friend codes", exported);
+        return exported;
     }
 
     /**
@@ -351,14 +631,33 @@ public class FriendCodeService {
      *
      * @param hours    Number of hours to look back
      * @param pageable Pagination information
-     * @return Page of recent friend codes
+     * @return Slice of recent friend codes
      */
     @Transactional(readOnly = true)
-    public Page<FriendCode> getRecentSubmissions(int hours, Pageable pageable) {
+    public Slice<FriendCodeResponse> getRecentSubmissions(int hours, Pageable pageable) {
         log.debug("Retrieving friend codes from last {} hours", hours);
         
         LocalDateTime since = LocalDateTime.now().minus(hours, ChronoUnit.HOURS);
-        return friendCodeRepository.findRecentSubmissions(since, pageable);
+        return friendCodeRepository.findResponseSlice(
+                FriendCodeSpecifications.createdSince(since), withFeedSortIfUnsorted(pageable));
+    }
+
+    /**
+     * Specification of the active friend codes matching search criteria, using full-text search when enabled.
+     */
+    private Specification<FriendCode> criteriaSpecification(FriendCodeSearchCriteria criteria) {
+        return FriendCodeSpecifications.withCriteria(criteria, LocalDateTime.now(), feedConfig.isFullTextSearchEnabled());
+    }
+
+    /**
+     * Applies the feed order when the caller did not request a sort,
+     * matching the ORDER BY the feed queries used before they were fetched as slices.
+     */
+    private Pageable withFeedSortIfUnsorted(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), FeedCursor.FEED_SORT);
     }
 
 
@@ -383,11 +682,26 @@ public class FriendCodeService {
         
         friendCode.setExpiration(expiresAt);
         FriendCode updatedFriendCode = friendCodeRepository.save(friendCode);
+        eventPublisher.publishEvent(new FriendCodesChangedEvent(List.of(updatedFriendCode)));
         
         log.info("Successfully set expiration for friend code: {}", id);
         return updatedFriendCode;
     }
 
+    /**
+     * Validates the level bounds of search criteria if provided.
+     *
+     * @param criteria Search criteria to validate
+     */
+    private void validateCriteriaLevels(FriendCodeSearchCriteria criteria) {
+        if (criteria.getMinLevel() != null) {
+            validationService.validatePlayerLevel(criteria.getMinLevel());
+        }
+        if (criteria.getMaxLevel() != null) {
+            validationService.validatePlayerLevel(criteria.getMaxLevel());
+        }
+    }
+
     /**
      * Checks for duplicate friend codes.
      *
@@ -395,6 +709,11 @@ public class FriendCodeService {
      * @throws DuplicateFriendCodeException if a duplicate is found
      */
     private void checkForDuplicateFriendCode(String friendCode) {
+        if (!knownFriendCodes.mightExist(friendCode)) {
+            // Never seen; the unique key still rejects a code created elsewhere since the filter loaded
+            return;
+        }
+
         Optional<FriendCode> existing = friendCodeRepository.findByFriendCode(friendCode);
         
         if (existing.isPresent()) {
@@ -424,11 +743,15 @@ public class FriendCodeService {
         List<FriendCode> expiredCodes = friendCodeRepository.findExpiredActiveFriendCodes(LocalDateTime.now());
         
         int count = 0;
+        List<FriendCode> deactivatedCodes = new ArrayList<>();
         for (FriendCode friendCode : expiredCodes) {
             friendCode.deactivate();
-            friendCodeRepository.save(friendCode);
+            deactivatedCodes.add(friendCodeRepository.save(friendCode));
             count++;
         }
+        if (count > 0) {
+            eventPublisher.publishEvent(new FriendCodesChangedEvent(deactivatedCodes));
+        }
         
         log.info("Cleanup completed. Deactivated {} expired friend codes", count);
         return count;
@@ -437,12 +760,17 @@ public class FriendCodeService {
     /**
      * Adds friend codes from the Reddit scraper to the database.
      * This method handles batch insertion of friend codes extracted from Reddit posts.
-     * It gracefully handles duplicates by checking for existing codes before saving.
+     * It gracefully handles duplicates by skipping existing codes: with upserts enabled the whole batch
+     * is inserted in one statement, otherwise existing codes are looked up with one query and the new
+     * ones are saved together, so their inserts are sent as JDBC batches when flushed.
+     * Batched inserts only fail at flush, taking the whole batch with them, so a failed batch is saved
+     * again code by code, each in its own transaction, skipping the codes that fail.
      * All scraped codes have trainer_level, team, and goals set to null.
      *
      * @param friendCodes Set of unique 12-digit friend codes from Reddit scraper
      * @return Number of new friend codes successfully added to the database
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int addFriendCodesFromScraper(Set<String> friendCodes) {
         if (friendCodes == null || friendCodes.isEmpty()) {
             log.debug("No friend codes provided for batch insertion");
@@ -451,51 +779,164 @@ public class FriendCodeService {
 
         log.info("Processing {} friend codes from Reddit scraper", friendCodes.size());
         
-        int newCodesCount = 0;
-        int duplicatesCount = 0;
+        List<FriendCode> savedCodes;
+
+        if (submissionConfig.isUpsertEnabled()) {
+            // One statement for the whole batch; existing codes are skipped by the database
+            savedCodes = transactionTemplate.execute(status -> friendCodeRepository.insertIfAbsent(
+                    friendCodes.stream().map(this::scrapedFriendCode).toList()));
+        } else {
+            // One query finds the existing codes; querying per code would flush each pending insert
+            // on its own and defeat JDBC batching. Codes never seen are not looked up at all.
+            List<String> possiblyExisting = friendCodes.stream().filter(knownFriendCodes::mightExist).toList();
+            Set<String> existingCodes = possiblyExisting.isEmpty() ? Set.of()
+                    : friendCodeRepository.findAll(FriendCodeSpecifications.hasFriendCodeIn(possiblyExisting))
+                            .stream()
+                            .map(FriendCode::getFriendCode)
+                            .collect(Collectors.toSet());
+            List<String> newCodes = friendCodes.stream().filter(code -> !existingCodes.contains(code)).toList();
+            log.debug("Skipping {} duplicate friend codes", friendCodes.size() - newCodes.size());
+
+            savedCodes = newCodes.isEmpty() ? List.of() : saveScrapedFriendCodes(newCodes);
+        }
+
+        int newCodesCount = savedCodes.size();
+        log.info("Reddit scraper batch insertion completed: {} new codes added, {} skipped", 
+                newCodesCount, friendCodes.size() - newCodesCount);
         
+        if (!savedCodes.isEmpty()) {
+            eventPublisher.publishEvent(new FriendCodesCreatedEvent(savedCodes));
+        }
+        
+        return newCodesCount;
+    }
+
+    /**
+     * Saves new scraped friend codes in one transaction, falling back to one transaction per code
+     * when the batch fails, for instance because one of the codes was added in the meantime.
+     */
+    private List<FriendCode> saveScrapedFriendCodes(List<String> friendCodes) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<FriendCode> saved = new ArrayList<>(friendCodes.size());
+                for (String friendCode : friendCodes) {
+                    saved.add(friendCodeRepository.save(scrapedFriendCode(friendCode)));
+                }
+                friendCodeRepository.flush();
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Batch of {} scraped friend codes failed, saving them one by one: {}",
+                    friendCodes.size(), e.getMessage());
+        }
+
+        List<FriendCode> saved = new ArrayList<>();
         for (String friendCode : friendCodes) {
             try {
-                // Check if friend code already exists
-                Optional<FriendCode> existingCode = friendCodeRepository.findByFriendCode(friendCode);
-                
-                if (existingCode.isPresent()) {
-                    duplicatesCount++;
+                saved.add(transactionTemplate.execute(status -> {
+                    FriendCode savedCode = friendCodeRepository.save(scrapedFriendCode(friendCode));
+                    friendCodeRepository.flush();
+                    return savedCode;
+                }));
+            } catch (DataIntegrityViolationException e) {
+                if (isFriendCodeKeyViolation(e)) {
                     log.debug("Skipping duplicate friend code: {}", friendCode);
-                    continue;
+                } else {
+                    // Continue processing other codes even if one fails
+                    log.warn("Failed to save friend code {} from Reddit scraper: {}", friendCode, e.getMessage());
                 }
-                
-                // Create new friend code with minimal data
-                // Note: Using a generic trainer name since Reddit doesn't provide consistent trainer names
-                FriendCode newFriendCode = new FriendCode(
-                    friendCode, 
-                    null, // trainerName - set to null as it's not available from Reddit
-                    null, // playerLevel - set to null as specified in requirements
-                    null, // location - set to null as not consistently available
-                    null, // description
-                    null, // team - set to null as specified in requirements
-                    null  // goals - set to null as specified in requirements
-                );
-                
-                // Set user to null for scraped codes (anonymous)
-                newFriendCode.setUser(null);
-                
-                friendCodeRepository.save(newFriendCode);
-                newCodesCount++;
-                
-                log.debug("Successfully added friend code from Reddit: {}", friendCode);
-                
-            } catch (Exception e) {
-                log.warn("Failed to save friend code {} from Reddit scraper: {}", 
-                        friendCode, e.getMessage());
-                // Continue processing other codes even if one fails
             }
         }
-        
-        log.info("Reddit scraper batch insertion completed: {} new codes added, {} duplicates skipped", 
-                newCodesCount, duplicatesCount);
-        
-        return newCodesCount;
+        return saved;
+    }
+
+    /**
+     * Creates a friend code with the minimal data available from Reddit.
+     * Trainer name, level, location, team and goals are not consistently available there, so they stay null,
+     * and scraped codes are anonymous.
+     */
+    private FriendCode scrapedFriendCode(String friendCode) {
+        FriendCode newFriendCode = new FriendCode(friendCode, null, null, null, null, null, null);
+        newFriendCode.setUser(null);
+        return newFriendCode;
+    }
+
+    /**
+     * Saves a new friend code, flushing so a code inserted concurrently since the duplicate check
+     * is rejected here rather than at commit.
+     *
+     * @param friendCode The new friend code
+     * @return The saved friend code
+     * @throws DuplicateFriendCodeException if the friend code already exists
+     */
+    private FriendCode saveNewFriendCode(FriendCode friendCode) {
+        try {
+            FriendCode savedFriendCode = friendCodeRepository.save(friendCode);
+            friendCodeRepository.flush();
+            return savedFriendCode;
+        } catch (DataIntegrityViolationException e) {
+            if (isFriendCodeKeyViolation(e)) {
+                throw new DuplicateFriendCodeException(friendCode.getFriendCode());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Saves new friend codes together, so their inserts are sent as JDBC batches, flushing so a code
+     * inserted concurrently since the duplicate check is rejected here rather than at commit.
+     * The failed batch cannot tell which code collided, so the whole batch is reported.
+     *
+     * @param friendCodes The new friend codes
+     * @return The saved friend codes
+     * @throws DuplicateFriendCodeException if one of the friend codes already exists
+     */
+    private List<FriendCode> saveNewFriendCodes(List<FriendCode> friendCodes) {
+        try {
+            List<FriendCode> savedFriendCodes = friendCodeRepository.saveAll(friendCodes);
+            friendCodeRepository.flush();
+            return savedFriendCodes;
+        } catch (DataIntegrityViolationException e) {
+            if (isFriendCodeKeyViolation(e)) {
+                throw new DuplicateFriendCodeException(
+                        friendCodes.stream().map(FriendCode::getFriendCode).collect(Collectors.joining(", ")),
+                        "one of these codes was added while the batch was saved; retry the batch");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tells whether a failed write was rejected by the unique key on friend codes, as opposed to
+     * another constraint such as a CHECK, NOT NULL or foreign key.
+     */
+    static boolean isFriendCodeKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraintName = violation.getConstraintName();
+                // H2 reports the name of the index backing the constraint, which starts with the constraint name
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(FriendCode.FRIEND_CODE_KEY);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts a new friend code in a single statement, reporting an existing code as a duplicate.
+     *
+     * @param friendCode The new friend code
+     * @return The inserted friend code with its generated id
+     * @throws DuplicateFriendCodeException if the friend code already exists
+     */
+    private FriendCode insertNewFriendCode(FriendCode friendCode) {
+        List<FriendCode> inserted = friendCodeRepository.insertIfAbsent(List.of(friendCode));
+        if (inserted.isEmpty()) {
+            // Only rejected submissions pay for the lookup that picks the duplicate message
+            checkForDuplicateFriendCode(friendCode.getFriendCode());
+            throw new DuplicateFriendCodeException(friendCode.getFriendCode());
+        }
+        return inserted.get(0);
     }
 
     /**
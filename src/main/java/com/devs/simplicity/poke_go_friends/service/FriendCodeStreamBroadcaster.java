@@ -0,0 +1,259 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans newly created friend codes out to Server-Sent Events subscribers.
+ *
+ * Subscribers are async servlet responses, so an open stream holds neither a thread nor a
+ * database connection. Created codes are published to a Redis channel after commit and every
+ * instance, including the publishing one, delivers them to its own subscribers when the message
+ * arrives. Filters are evaluated in memory and each code is serialized once per event.
+ * When Redis is disabled or unavailable, codes are delivered to local subscribers only.
+ *
+ * Events are queued per subscriber and written on the application task executor, so a slow
+ * client never holds up the Redis listener or other subscribers. A subscriber whose bounded
+ * queue is full is too far behind to catch up and is disconnected; it can reconnect and
+ * reload the feed.
+ */
+@Service
+@Slf4j
+public class FriendCodeStreamBroadcaster implements MessageListener {
+
+    public static final String EVENT_NAME = "friend-code";
+
+    private static final TypeReference<List<FriendCodeResponse>> RESPONSE_LIST = new TypeReference<>() {
+    };
+
+    private final StringRedisTemplate redisTemplate;
+    private final FeedConfig feedConfig;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final Executor sendExecutor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    public FriendCodeStreamBroadcaster(StringRedisTemplate redisTemplate,
+                                       FeedConfig feedConfig,
+                                       @Qualifier("hotFeedCircuitBreaker") CircuitBreaker circuitBreaker,
+                                       ObjectMapper objectMapper,
+                                       @Qualifier("applicationTaskExecutor") Executor sendExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.feedConfig = feedConfig;
+        this.circuitBreaker = circuitBreaker;
+        this.objectMapper = objectMapper;
+        this.sendExecutor = sendExecutor;
+    }
+
+    /**
+     * A connected stream client, its filters and the events waiting to be written to it.
+     *
+     * @param emitter  The client's event stream
+     * @param team     Team filter (null for all teams)
+     * @param location Lowercased location substring filter (null for all locations)
+     * @param pending  Events not written yet, bounded so a slow client cannot hold many
+     * @param sending  Whether a task is writing the pending events, so at most one does at a time
+     */
+    private record Subscription(SseEmitter emitter, Team team, String location,
+                                BlockingQueue<SseEmitter.SseEventBuilder> pending, AtomicBoolean sending) {
+
+        boolean matches(FriendCodeResponse friendCode) {
+            if (team != null && team != friendCode.getTeam()) {
+                return false;
+            }
+            return location == null || (friendCode.getLocation() != null
+                    && friendCode.getLocation().toLowerCase(Locale.ROOT).contains(location));
+        }
+    }
+
+    /**
+     * Opens a stream of newly created friend codes.
+     *
+     * @param team     Only stream codes of this team (optional)
+     * @param location Only stream codes whose location contains this text, ignoring case (optional)
+     * @return The event stream
+     */
+    public SseEmitter subscribe(Team team, String location) {
+        SseEmitter emitter = new SseEmitter(feedConfig.getStreamTimeoutMillis());
+        register(emitter, team, location);
+        return emitter;
+    }
+
+    /**
+     * Registers an emitter and removes it again once it completes, times out or fails.
+     */
+    void register(SseEmitter emitter, Team team, String location) {
+        Subscription subscription = new Subscription(emitter, team,
+                StringUtils.hasText(location) ? location.trim().toLowerCase(Locale.ROOT) : null,
+                new ArrayBlockingQueue<>(feedConfig.getStreamQueueCapacity()), new AtomicBoolean(false));
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        log.debug("Stream subscriber added, {} connected", subscriptions.size());
+    }
+
+    /**
+     * Gets the number of connected stream subscribers on this instance.
+     *
+     * @return Number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Relays created friend codes to subscribers once their transaction commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        List<FriendCodeResponse> friendCodes = event.friendCodes().stream()
+                .filter(FriendCode::isCurrentlyActive)
+                .map(FriendCodeResponse::fromEntity)
+                .toList();
+        if (friendCodes.isEmpty()) {
+            return;
+        }
+
+        if (feedConfig.isStreamRedisEnabled()) {
+            try {
+                String payload = objectMapper.writeValueAsString(friendCodes);
+                circuitBreaker.executeRunnable(() ->
+                        redisTemplate.convertAndSend(feedConfig.getStreamChannel(), payload));
+                // Delivered to local subscribers when the message comes back from Redis
+                return;
+            } catch (Exception e) {
+                log.warn("Error publishing new friend codes to Redis, delivering locally only: {}", e.getMessage());
+            }
+        }
+        broadcast(friendCodes);
+    }
+
+    /**
+     * Delivers friend codes published on the Redis channel by any instance.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            broadcast(objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), RESPONSE_LIST));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed stream message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment to every subscriber, dropping clients that have gone away or fallen behind.
+     */
+    @Scheduled(fixedRateString = "${app.feed.stream-heartbeat-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    void broadcast(List<FriendCodeResponse> friendCodes) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        for (FriendCodeResponse friendCode : friendCodes) {
+            String data;
+            try {
+                data = objectMapper.writeValueAsString(friendCode);
+            } catch (JsonProcessingException e) {
+                log.warn("Error serializing friend code {} for stream: {}", friendCode.getId(), e.getMessage());
+                continue;
+            }
+
+            for (Subscription subscription : subscriptions) {
+                if (subscription.matches(friendCode)) {
+                    enqueue(subscription, SseEmitter.event()
+                            .name(EVENT_NAME)
+                            .id(String.valueOf(friendCode.getId()))
+                            .data(data, MediaType.APPLICATION_JSON));
+                }
+            }
+        }
+    }
+
+    private void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscription.pending().offer(event)) {
+            drop(subscription, "too far behind");
+            return;
+        }
+        scheduleSending(subscription);
+    }
+
+    private void scheduleSending(Subscription subscription) {
+        if (!subscription.sending().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> sendPending(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.sending().set(false);
+            drop(subscription, "no thread to write to it");
+        }
+    }
+
+    private void sendPending(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (subscriptions.contains(subscription) && (event = subscription.pending().poll()) != null) {
+                subscription.emitter().send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The container completes the emitter after a failed write; just stop sending to it
+            subscriptions.remove(subscription);
+            log.debug("Dropped stream subscriber: {}", e.getMessage());
+            return;
+        } finally {
+            subscription.sending().set(false);
+        }
+        // Queued after the loop found the queue empty but before the flag was cleared
+        if (!subscription.pending().isEmpty() && subscriptions.contains(subscription)) {
+            scheduleSending(subscription);
+        }
+    }
+
+    private void drop(Subscription subscription, String reason) {
+        if (subscriptions.remove(subscription)) {
+            subscription.pending().clear();
+            subscription.emitter().complete();
+            log.debug("Dropped stream subscriber: {}", reason);
+        }
+    }
+}
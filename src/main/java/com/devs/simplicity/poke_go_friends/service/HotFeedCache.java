@@ -0,0 +1,377 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis-backed list of the newest active friend codes, stored as pre-serialized responses.
+ *
+ * The unfiltered feed is the same for every client, so its first pages are read from this
+ * list with a single LRANGE instead of querying the database. New codes are pushed onto the
+ * head after commit; deactivations, purges and expired entries trigger a rebuild, which runs
+ * on the application task executor so requests fall back to the database instead of waiting.
+ * Every push bumps a version key, and a rebuilt list only replaces the live one if no push
+ * happened since the rebuild read the database; otherwise the rebuild is retried, so codes
+ * pushed meanwhile are never lost with the old list.
+ * All Redis access goes through a circuit breaker; when Redis is unavailable callers fall
+ * back to the database.
+ */
+@Service
+@Slf4j
+public class HotFeedCache {
+
+    /**
+     * Rebuilds that find the feed changed before they can swap their list in; after the last one the
+     * live list is left as it is until the next rebuild.
+     */
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    /**
+     * Prepends entries (oldest first) and trims, unless the feed was never built, bumping the version.
+     * Returns 1 if the entries were pushed.
+     */
+    static final DefaultRedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return 0
+            end
+            redis.call('INCR', KEYS[3])
+            for i = 2, #ARGV do
+                redis.call('LPUSH', KEYS[1], ARGV[i])
+            end
+            redis.call('LTRIM', KEYS[1], 0, tonumber(ARGV[1]))
+            return 1
+            """, Long.class);
+
+    /**
+     * Renames the staging list over the live one if the version is still the one read before the
+     * database query, dropping the staging list otherwise. Returns 1 if the list was swapped in.
+     */
+    static final DefaultRedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>("""
+            local version = redis.call('GET', KEYS[4]) or '0'
+            if version ~= ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return 0
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('RENAME', KEYS[1], KEYS[2])
+            else
+                redis.call('DEL', KEYS[2])
+            end
+            redis.call('SET', KEYS[3], '1')
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FriendCodeRepository friendCodeRepository;
+    private final FeedConfig feedConfig;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final Executor refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicBoolean refreshRequested = new AtomicBoolean(false);
+
+    public HotFeedCache(StringRedisTemplate redisTemplate,
+                        FriendCodeRepository friendCodeRepository,
+                        FeedConfig feedConfig,
+                        @Qualifier("hotFeedCircuitBreaker") CircuitBreaker circuitBreaker,
+                        ObjectMapper objectMapper,
+                        @Qualifier("applicationTaskExecutor") Executor refreshExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.friendCodeRepository = friendCodeRepository;
+        this.feedConfig = feedConfig;
+        this.circuitBreaker = circuitBreaker;
+        this.refreshExecutor = refreshExecutor;
+        // Keep full timestamp precision so cursors built from cached entries stay exact
+        this.objectMapper = objectMapper.copy().addMixIn(FriendCodeResponse.class, HotFeedEntryMixin.class);
+    }
+
+    /**
+     * Overrides the millisecond API format of the response timestamps for cached entries.
+     * Lombok copies the format onto the setters, so they are overridden too.
+     */
+    private abstract static class HotFeedEntryMixin {
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private LocalDateTime createdAt;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private LocalDateTime updatedAt;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private LocalDateTime expiresAt;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        abstract void setCreatedAt(LocalDateTime createdAt);
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        abstract void setUpdatedAt(LocalDateTime updatedAt);
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        abstract void setExpiresAt(LocalDateTime expiresAt);
+    }
+
+    /**
+     * Reads a page of the unfiltered active feed from the hot feed.
+     *
+     * @param pageable Pagination information (unsorted or in feed order)
+     * @return The page, or empty if it must be read from the database
+     */
+    public Optional<Slice<FriendCodeResponse>> findPage(Pageable pageable) {
+        if (!feedConfig.isHotFeedEnabled() || !isFeedOrder(pageable.getSort())) {
+            return Optional.empty();
+        }
+
+        long start = pageable.getOffset();
+        int size = pageable.getPageSize();
+        // One extra entry tells whether a next page exists
+        long end = start + size;
+        if (end >= feedConfig.getHotFeedSize()) {
+            return Optional.empty();
+        }
+
+        try {
+            List<String> entries = circuitBreaker.executeSupplier(() -> readEntries(start, end));
+            if (entries == null) {
+                log.debug("Hot feed not built yet, rebuilding");
+                refresh();
+                return Optional.empty();
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<FriendCodeResponse> content = new ArrayList<>(entries.size());
+            for (String entry : entries) {
+                FriendCodeResponse response = objectMapper.readValue(entry, FriendCodeResponse.class);
+                if (response.getExpiresAt() != null && !response.getExpiresAt().isAfter(now)) {
+                    log.debug("Hot feed contains expired friend code {}, rebuilding", response.getId());
+                    refresh();
+                    return Optional.empty();
+                }
+                content.add(response);
+            }
+
+            boolean hasNext = content.size() > size;
+            if (hasNext) {
+                content = new ArrayList<>(content.subList(0, size));
+            }
+            return Optional.of(new SliceImpl<>(content, pageable, hasNext));
+
+        } catch (CallNotPermittedException e) {
+            log.debug("Hot feed circuit breaker is open, reading feed from the database");
+            return Optional.empty();
+
+        } catch (Exception e) {
+            log.warn("Error reading hot feed, reading feed from the database: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rebuilds the hot feed from the database in the background.
+     * Calls made while a rebuild is running are collapsed into one more rebuild after it.
+     */
+    public void refresh() {
+        if (!feedConfig.isHotFeedEnabled()) {
+            return;
+        }
+        refreshRequested.set(true);
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(this::rebuildWhileRequested);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+            log.warn("Could not schedule hot feed rebuild: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildWhileRequested() {
+        try {
+            while (refreshRequested.getAndSet(false)) {
+                rebuild();
+            }
+        } finally {
+            refreshing.set(false);
+        }
+        // Requested after the loop ended but before the flag was cleared
+        if (refreshRequested.get()) {
+            refresh();
+        }
+    }
+
+    private void rebuild() {
+        try {
+            for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+                // Read before the database, so a code pushed after the query started makes the swap fail
+                String version = circuitBreaker.executeSupplier(this::readVersion);
+
+                Slice<FriendCodeResponse> newest = friendCodeRepository.findResponseSlice(
+                        FriendCodeSpecifications.isActive(LocalDateTime.now()),
+                        PageRequest.of(0, feedConfig.getHotFeedSize(), FeedCursor.FEED_SORT));
+
+                List<String> entries = new ArrayList<>(newest.getNumberOfElements());
+                for (FriendCodeResponse response : newest) {
+                    entries.add(serialize(response));
+                }
+
+                if (circuitBreaker.executeSupplier(() -> replaceEntries(entries, version))) {
+                    log.debug("Rebuilt hot feed with {} entries", entries.size());
+                    return;
+                }
+                log.debug("Hot feed changed during rebuild attempt {}, retrying", attempt);
+            }
+            log.warn("Hot feed kept changing during rebuild, keeping the current list");
+
+        } catch (CallNotPermittedException e) {
+            log.debug("Hot feed circuit breaker is open, skipping rebuild");
+
+        } catch (Exception e) {
+            log.warn("Error rebuilding hot feed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pushes newly created friend codes onto the head of the hot feed once their transaction commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        if (!feedConfig.isHotFeedEnabled()) {
+            return;
+        }
+
+        try {
+            // LPUSH prepends one by one, so push oldest first to end up newest first
+            List<String> entries = new ArrayList<>();
+            for (FriendCode friendCode : event.friendCodes().stream()
+                    .filter(code -> code.getCreatedAt() != null && code.isCurrentlyActive())
+                    .sorted(Comparator.comparing(FriendCode::getCreatedAt).thenComparing(FriendCode::getId))
+                    .toList()) {
+                entries.add(serialize(FriendCodeResponse.fromEntity(friendCode)));
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            circuitBreaker.executeRunnable(() -> pushEntries(entries));
+
+        } catch (CallNotPermittedException e) {
+            log.debug("Hot feed circuit breaker is open, skipping push of {} new codes", event.friendCodes().size());
+
+        } catch (Exception e) {
+            log.warn("Error pushing new friend codes to hot feed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the hot feed after friend codes were deactivated or their expiration changed.
+     *
+     * @param event The changed friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesChanged(FriendCodesChangedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the hot feed after old friend codes were deleted.
+     *
+     * @param event The purge details
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesPurged(FriendCodesPurgedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Reads a range of entries, distinguishing an empty feed from one that was never built.
+     *
+     * @return The entries, or null if the hot feed has not been built
+     */
+    private List<String> readEntries(long start, long end) {
+        List<String> entries = redisTemplate.opsForList().range(feedConfig.getHotFeedKey(), start, end);
+        if (entries == null || entries.isEmpty()) {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(readyKey())) ? List.of() : null;
+        }
+        return entries;
+    }
+
+    private String readVersion() {
+        String version = redisTemplate.opsForValue().get(versionKey());
+        return version != null ? version : "0";
+    }
+
+    /**
+     * Builds the entries under a private key and swaps it in, so readers never see a partial list.
+     *
+     * @return false if codes were pushed since the version was read, leaving the live list untouched
+     */
+    private boolean replaceEntries(List<String> entries, String version) {
+        String key = feedConfig.getHotFeedKey();
+        String stagingKey = key + ":staging:" + UUID.randomUUID();
+        if (!entries.isEmpty()) {
+            redisTemplate.opsForList().rightPushAll(stagingKey, entries);
+        }
+        Long swapped = redisTemplate.execute(SWAP_SCRIPT, List.of(stagingKey, key, readyKey(), versionKey()), version);
+        return swapped != null && swapped == 1L;
+    }
+
+    private void pushEntries(List<String> entries) {
+        // A partial list would be mistaken for the whole feed, so nothing is pushed before the first build
+        List<String> args = new ArrayList<>(entries.size() + 1);
+        args.add(String.valueOf(feedConfig.getHotFeedSize() - 1L));
+        args.addAll(entries);
+        redisTemplate.execute(PUSH_SCRIPT, List.of(feedConfig.getHotFeedKey(), readyKey(), versionKey()), args.toArray());
+    }
+
+    private String serialize(FriendCodeResponse response) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    private String readyKey() {
+        return feedConfig.getHotFeedKey() + ":ready";
+    }
+
+    private String versionKey() {
+        return feedConfig.getHotFeedKey() + ":version";
+    }
+
+    private static boolean isFeedOrder(Sort sort) {
+        return sort.isUnsorted() || sort.equals(FeedCursor.FEED_SORT);
+    }
+}
@@ -31,9 +31,9 @@ public class InMemoryRateLimiter implements RateLimiter {
         private final LocalDateTime firstRequest;
         private int requestCount;
         
-        public RateLimitData() {
+        public RateLimitData(int permits) {
             this.firstRequest = LocalDateTime.now();
-            this.requestCount = 1;
+            this.requestCount = permits;
         }
         
         public LocalDateTime getFirstRequest() {
@@ -44,8 +44,8 @@ public class InMemoryRateLimiter implements RateLimiter {
             return requestCount;
         }
         
-        public void incrementCount() {
-            this.requestCount++;
+        public void incrementCount(int permits) {
+            this.requestCount += permits;
         }
     }
     
@@ -61,25 +61,30 @@ public class InMemoryRateLimiter implements RateLimiter {
      */
     @Override
     public boolean isAllowed(String key) {
+        return isAllowed(key, 1);
+    }
+    
+    /**
+     * Checks if a request counting as several units is allowed, consuming all of them at once.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param permits Number of units the request counts as
+     * @return true if all units fit in the remaining quota, false if rate limit would be exceeded
+     */
+    @Override
+    public boolean isAllowed(String key, int permits) {
         if (!rateLimitConfig.isEnabled()) {
             return true;
         }
         
         try {
             // Determine limit and window based on key pattern
-            int limit;
-            ChronoUnit timeUnit;
+            int limit = limitFor(key);
+            ChronoUnit timeUnit = windowFor(key);
             
-            if (key.startsWith("ip:") && key.endsWith(":submission")) {
-                limit = rateLimitConfig.getSubmissionsPerHourPerIp();
-                timeUnit = ChronoUnit.HOURS;
-            } else if (key.startsWith("user:") && key.endsWith(":submission")) {
-                limit = rateLimitConfig.getSubmissionsPerDayPerUser();
-                timeUnit = ChronoUnit.DAYS;
-            } else {
-                // Default to IP limits for unknown patterns
-                limit = rateLimitConfig.getSubmissionsPerHourPerIp();
-                timeUnit = ChronoUnit.HOURS;
+            if (permits > limit) {
+                log.debug("Rate limit exceeded for key: {} ({} units over limit {})", key, permits, limit);
+                return false;
             }
             
             LocalDateTime now = LocalDateTime.now();
@@ -91,7 +96,7 @@ public class InMemoryRateLimiter implements RateLimiter {
             
             if (data == null) {
                 // First request for this key
-                rateLimitMap.put(key, new RateLimitData());
+                rateLimitMap.put(key, new RateLimitData(permits));
                 log.debug("First request allowed for key: {}", key);
                 return true;
             }
@@ -100,14 +105,14 @@ public class InMemoryRateLimiter implements RateLimiter {
             LocalDateTime windowStart = now.minus(1, timeUnit);
             if (data.getFirstRequest().isBefore(windowStart)) {
                 // Window expired, reset
-                rateLimitMap.put(key, new RateLimitData());
+                rateLimitMap.put(key, new RateLimitData(permits));
                 log.debug("Window expired, request allowed for key: {}", key);
                 return true;
             }
             
             // Check if under limit
-            if (data.getRequestCount() < limit) {
-                data.incrementCount();
+            if (data.getRequestCount() + permits <= limit) {
+                data.incrementCount(permits);
                 log.debug("Request allowed for key: {} ({}/{})", key, data.getRequestCount(), limit);
                 return true;
             }
@@ -122,6 +127,52 @@ public class InMemoryRateLimiter implements RateLimiter {
         }
     }
     
+    /**
+     * Checks whether a request for the given key would currently be allowed, without counting it.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    @Override
+    public boolean wouldAllow(String key) {
+        if (!rateLimitConfig.isEnabled()) {
+            return true;
+        }
+        
+        RateLimitData data = rateLimitMap.get(key);
+        if (data == null) {
+            return true;
+        }
+        
+        LocalDateTime windowStart = LocalDateTime.now().minus(1, windowFor(key));
+        if (data.getFirstRequest().isBefore(windowStart)) {
+            return true;
+        }
+        
+        return data.getRequestCount() < limitFor(key);
+    }
+    
+    /**
+     * Determines the request limit for a key based on its pattern.
+     * IP keys use hourly limits, user keys use daily limits, unknown patterns default to IP limits.
+     */
+    private int limitFor(String key) {
+        if (key.startsWith("user:") && key.endsWith(":submission")) {
+            return rateLimitConfig.getSubmissionsPerDayPerUser();
+        }
+        return rateLimitConfig.getSubmissionsPerHourPerIp();
+    }
+    
+    /**
+     * Determines the window length for a key based on its pattern.
+     */
+    private ChronoUnit windowFor(String key) {
+        if (key.startsWith("user:") && key.endsWith(":submission")) {
+            return ChronoUnit.DAYS;
+        }
+        return ChronoUnit.HOURS;
+    }
+    
     /**
      * Gets the current usage count for a given key.
      * 
@@ -0,0 +1,248 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.SubmissionConfig;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.FriendCodeNumberConverter;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Remembers every known friend code so duplicate checks can skip the database for codes that are new.
+ *
+ * Friend codes are 12 digits, so each is kept as a primitive long in an open-addressing hash set
+ * (16 bytes per code at the maximum load factor). The set is loaded by streaming the BIGINT friend_code
+ * column on startup, extended as friend codes are created, and reloaded after old codes are deleted and
+ * periodically. A code that is not in the set was not known when it was last loaded; codes created on
+ * other instances since then are caught by the unique constraint on insert, which stays the final arbiter.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class KnownFriendCodeFilter {
+
+    private final FriendCodeRepository friendCodeRepository;
+    private final SubmissionConfig submissionConfig;
+
+    private final KnownCodes knownCodes = new KnownCodes();
+    private final ReentrantLock loading = new ReentrantLock();
+
+    /**
+     * Open-addressing hash set of friend codes as longs, with linear probing.
+     */
+    static final class KnownCodes {
+
+        private static final int MIN_CAPACITY = 1024;
+
+        private long[] table = new long[MIN_CAPACITY];
+        // 0 marks an empty slot, so the code 000000000000 is tracked on its own
+        private boolean containsZero;
+        private int size;
+        private boolean loaded;
+        private final ChangesDuringRebuild<Long> addedDuringRebuild = new ChangesDuringRebuild<>();
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized int size() {
+            return size + (containsZero ? 1 : 0);
+        }
+
+        synchronized boolean contains(long code) {
+            if (code == 0) {
+                return containsZero;
+            }
+            int mask = table.length - 1;
+            for (int slot = slot(code, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+                if (table[slot] == code) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(long code) {
+            addedDuringRebuild.record(code);
+            doAdd(code);
+        }
+
+        /**
+         * Starts tracking codes added while the set is reloaded from the database.
+         */
+        synchronized void beginRebuild() {
+            addedDuringRebuild.begin();
+        }
+
+        /**
+         * Replaces the set with a reloaded one, keeping codes added since the reload was started.
+         */
+        synchronized void replace(KnownCodes reloaded) {
+            table = reloaded.table;
+            containsZero = reloaded.containsZero;
+            size = reloaded.size;
+            addedDuringRebuild.replay(this::doAdd);
+            loaded = true;
+        }
+
+        synchronized void abortRebuild() {
+            addedDuringRebuild.abort();
+        }
+
+        void doAdd(long code) {
+            if (code == 0) {
+                containsZero = true;
+                return;
+            }
+            // Keep the load factor at or below one half so probe sequences stay short
+            if ((size + 1) * 2 > table.length) {
+                resize(table.length * 2);
+            }
+            int mask = table.length - 1;
+            int slot = slot(code, mask);
+            while (table[slot] != 0) {
+                if (table[slot] == code) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = code;
+            size++;
+        }
+
+        private void resize(int capacity) {
+            long[] old = table;
+            table = new long[capacity];
+            int mask = capacity - 1;
+            for (long code : old) {
+                if (code != 0) {
+                    int slot = slot(code, mask);
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = code;
+                }
+            }
+        }
+
+        private static int slot(long code, int mask) {
+            // Mix the bits so codes sharing their low digits still spread over the table
+            long hash = code * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * Tells whether a friend code may already exist, so a database lookup is needed to know for sure.
+     * Returns true whenever the filter cannot answer: disabled, not loaded yet, or a malformed code.
+     *
+     * @param friendCode The friend code
+     * @return false only if the code was unknown when the filter was last loaded and not created since
+     */
+    public boolean mightExist(String friendCode) {
+        if (!submissionConfig.isKnownCodesFilterEnabled() || !knownCodes.isLoaded()) {
+            return true;
+        }
+        Long code = FriendCodeNumberConverter.toNumber(friendCode);
+        return code == null || knownCodes.contains(code);
+    }
+
+    /**
+     * Loads the known friend codes once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        if (submissionConfig.isKnownCodesFilterEnabled()) {
+            load();
+        }
+    }
+
+    /**
+     * Reloads the known friend codes, dropping deleted codes and picking up codes created on other instances.
+     */
+    @Scheduled(fixedRateString = "${app.submission.known-codes-rebuild-minutes:60}",
+               initialDelayString = "${app.submission.known-codes-rebuild-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (submissionConfig.isKnownCodesFilterEnabled()) {
+            load();
+        }
+    }
+
+    /**
+     * Adds created friend codes once their transaction commits.
+     *
+     * @param event The created friend codes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendCodesCreated(FriendCodesCreatedEvent event) {
+        for (FriendCode friendCode : event.friendCodes()) {
+            Long code = FriendCodeNumberConverter.toNumber(friendCode.getFriendCode());
+            if (code != null) {
+                knownCodes.add(code);
+            }
+        }
+    }
+
+    /**
+     * Reloads the known friend codes after old ones were deleted, so deleted codes stop costing lookups.
+     *
+     * @param event The purge details
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onFriendCodesPurged(FriendCodesPurgedEvent event) {
+        if (submissionConfig.isKnownCodesFilterEnabled()) {
+            load();
+        }
+    }
+
+    /**
+     * Returns the number of known friend codes.
+     *
+     * @return Number of codes in the filter
+     */
+    public int size() {
+        return knownCodes.size();
+    }
+
+    private void load() {
+        // Codes added meanwhile are recorded for one reload at a time
+        if (!loading.tryLock()) {
+            log.debug("Known friend codes are already being reloaded");
+            return;
+        }
+        try {
+            knownCodes.beginRebuild();
+            KnownCodes reloaded = new KnownCodes();
+            try (Stream<Long> friendCodes = friendCodeRepository.streamAllFriendCodeNumbers()) {
+                Iterator<Long> iterator = friendCodes.iterator();
+                while (iterator.hasNext()) {
+                    reloaded.doAdd(iterator.next());
+                }
+            } catch (RuntimeException e) {
+                knownCodes.abortRebuild();
+                throw e;
+            }
+            knownCodes.replace(reloaded);
+            log.debug("Loaded {} known friend codes", reloaded.size());
+        } finally {
+            loading.unlock();
+        }
+    }
+}
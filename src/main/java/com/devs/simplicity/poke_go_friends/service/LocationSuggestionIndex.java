@@ -0,0 +1,146 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.LocationSuggestion;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Suggests location filter values from the distinct locations of active friend codes.
+ *
+ * Locations are normalized (trimmed, whitespace collapsed, lower-cased) and kept in a sorted map with
+ * the number of active friend codes using each, so all locations starting with a prefix form one
+ * contiguous range. Suggestions never query the database, so none are made until the counts are
+ * first loaded.
+ */
+@Service
+public class LocationSuggestionIndex {
+
+    /**
+     * Orders suggestions most used first, then alphabetically.
+     */
+    private static final Comparator<Location> MOST_USED_FIRST =
+            Comparator.comparingInt((Location location) -> location.count).reversed()
+                    .thenComparing(location -> location.display);
+
+    private final ActiveFriendCodes activeFriendCodes;
+
+    private final Locations locations = new Locations();
+
+    public LocationSuggestionIndex(ActiveFriendCodes activeFriendCodes) {
+        this.activeFriendCodes = activeFriendCodes;
+        activeFriendCodes.register(locations);
+    }
+
+    /**
+     * A distinct location with its display form and number of active friend codes.
+     */
+    static final class Location {
+
+        private final String display;
+        private int count;
+
+        Location(String display) {
+            this.display = display;
+        }
+    }
+
+    /**
+     * Distinct locations sorted by normalized form.
+     */
+    static final class Locations implements ActiveFriendCodes.View {
+
+        private NavigableMap<String, Location> byKey = new TreeMap<>();
+
+        @Override
+        public synchronized void reset(Collection<FriendCodeResponse> active) {
+            byKey = new TreeMap<>();
+            active.forEach(this::doAdd);
+        }
+
+        @Override
+        public synchronized void add(FriendCodeResponse friendCode) {
+            doAdd(friendCode);
+        }
+
+        @Override
+        public synchronized void remove(FriendCodeResponse friendCode) {
+            String key = normalize(friendCode.getLocation());
+            Location location = byKey.get(key);
+            if (location != null && --location.count <= 0) {
+                byKey.remove(key);
+            }
+        }
+
+        /**
+         * Returns the most used locations starting with the normalized prefix.
+         * Only the best matches are kept while the range is walked, so short prefixes matching many
+         * locations do not sort all of them.
+         */
+        synchronized List<LocationSuggestion> suggest(String prefix, int limit) {
+            if (limit <= 0) {
+                return List.of();
+            }
+            // Worst kept suggestion at the head, replaced when a better one comes along
+            PriorityQueue<Location> best = new PriorityQueue<>(limit + 1, MOST_USED_FIRST.reversed());
+            // Every key starting with the prefix sorts between the prefix and the prefix followed by the highest char
+            for (Location location : byKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                best.add(location);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            return best.stream()
+                    .sorted(MOST_USED_FIRST)
+                    .map(location -> new LocationSuggestion(location.display, location.count))
+                    .toList();
+        }
+
+        private void doAdd(FriendCodeResponse friendCode) {
+            String key = normalize(friendCode.getLocation());
+            if (key.isEmpty()) {
+                return;
+            }
+            String display = friendCode.getLocation().trim().replaceAll("\\s+", " ");
+            byKey.computeIfAbsent(key, k -> new Location(display)).count++;
+        }
+    }
+
+    /**
+     * Suggests locations of active friend codes starting with the given text, most used first.
+     *
+     * @param prefix Start of the location, matched ignoring case and surrounding whitespace
+     * @param limit  Maximum number of suggestions
+     * @return Matching locations with their number of active friend codes
+     */
+    public List<LocationSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        activeFriendCodes.removeExpired(LocalDateTime.now());
+        return locations.suggest(key, limit);
+    }
+
+    /**
+     * Normalizes a location for matching: trimmed, inner whitespace collapsed and lower-cased.
+     *
+     * @param location The location (may be null)
+     * @return The normalized location, empty if there is none
+     */
+    static String normalize(String location) {
+        if (!StringUtils.hasText(location)) {
+            return "";
+        }
+        return location.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,169 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Picks random active friend codes without sorting the table randomly.
+ *
+ * Keeps the ids of active friend codes in memory in an array with an index map, so an id can be
+ * added, removed or drawn in constant time. Sampled ids are loaded by primary key and
+ * re-checked against {@link FriendCodeSpecifications#isActive}; ids that turned out inactive or
+ * expired are dropped from the pool and replacements are drawn.
+ */
+@Service
+public class RandomFriendCodeSampler {
+
+    /**
+     * Maximum number of draws per request; later draws only replace stale ids.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ActiveFriendCodes activeFriendCodes;
+    private final FriendCodeRepository friendCodeRepository;
+
+    private final IdPool pool = new IdPool();
+
+    public RandomFriendCodeSampler(ActiveFriendCodes activeFriendCodes, FriendCodeRepository friendCodeRepository) {
+        this.activeFriendCodes = activeFriendCodes;
+        this.friendCodeRepository = friendCodeRepository;
+        activeFriendCodes.register(pool);
+    }
+
+    /**
+     * Ids that support constant-time insertion, removal and random draws.
+     */
+    static final class IdPool implements ActiveFriendCodes.View {
+
+        private List<Long> ids = new ArrayList<>();
+        private Map<Long, Integer> positions = new HashMap<>();
+
+        @Override
+        public synchronized void reset(Collection<FriendCodeResponse> active) {
+            ids = new ArrayList<>(active.size());
+            positions = new HashMap<>(active.size() * 2);
+            active.forEach(this::add);
+        }
+
+        @Override
+        public synchronized void add(FriendCodeResponse friendCode) {
+            Long id = friendCode.getId();
+            if (!positions.containsKey(id)) {
+                positions.put(id, ids.size());
+                ids.add(id);
+            }
+        }
+
+        @Override
+        public synchronized void remove(FriendCodeResponse friendCode) {
+            remove(friendCode.getId());
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        synchronized void remove(Long id) {
+            Integer position = positions.remove(id);
+            if (position == null) {
+                return;
+            }
+            // Move the last id into the gap so removal stays constant time
+            Long last = ids.remove(ids.size() - 1);
+            if (position < ids.size()) {
+                ids.set(position, last);
+                positions.put(last, position);
+            }
+        }
+
+        /**
+         * Draws up to count distinct ids not in the excluded set.
+         */
+        synchronized List<Long> draw(int count, Set<Long> excluded) {
+            int available = ids.size() - excluded.size();
+            if (available <= 0) {
+                return List.of();
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Set<Long> drawn = new LinkedHashSet<>();
+            if (count * 2 >= available) {
+                // Asking for most of the pool: shuffle a copy rather than retry collisions
+                List<Long> candidates = new ArrayList<>(ids);
+                candidates.removeAll(excluded);
+                Collections.shuffle(candidates, random);
+                return candidates.subList(0, Math.min(count, candidates.size()));
+            }
+            while (drawn.size() < count) {
+                Long id = ids.get(random.nextInt(ids.size()));
+                if (!excluded.contains(id)) {
+                    drawn.add(id);
+                }
+            }
+            return new ArrayList<>(drawn);
+        }
+    }
+
+    /**
+     * Returns up to count distinct random active friend codes.
+     * Fewer are returned when fewer active friend codes exist, or when most drawn ids turned out stale;
+     * none are returned until the active friend codes have been loaded.
+     *
+     * @param count Number of friend codes to return
+     * @return Random active friend codes
+     */
+    @Transactional(readOnly = true)
+    public List<FriendCodeResponse> sample(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        activeFriendCodes.removeExpired(now);
+        List<FriendCodeResponse> sampled = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && sampled.size() < count; attempt++) {
+            List<Long> ids = pool.draw(count - sampled.size(), seen);
+            if (ids.isEmpty()) {
+                break;
+            }
+            seen.addAll(ids);
+
+            Map<Long, FriendCodeResponse> active = friendCodeRepository.findResponseSlice(
+                            FriendCodeSpecifications.isActive(now).and(FriendCodeSpecifications.hasIdIn(ids)),
+                            Pageable.unpaged())
+                    .getContent().stream()
+                    .collect(Collectors.toMap(FriendCodeResponse::getId, Function.identity()));
+
+            for (Long id : ids) {
+                FriendCodeResponse response = active.get(id);
+                if (response != null) {
+                    sampled.add(response);
+                } else {
+                    // Deactivated, expired or deleted since it entered the pool
+                    pool.remove(id);
+                }
+            }
+        }
+
+        return sampled;
+    }
+
+    int poolSize() {
+        return pool.size();
+    }
+}
@@ -16,4 +16,25 @@ public interface RateLimiter {
      * @return true if the request is allowed, false if rate limit is exceeded
      */
     boolean isAllowed(String key);
+
+    /**
+     * Checks if a request counting as several units is allowed, consuming all of them at once.
+     * Either every unit fits in the remaining quota and all are consumed, or none are.
+     *
+     * @param key     The unique identifier for the rate limit bucket
+     * @param permits Number of units the request counts as
+     * @return true if the request is allowed, false if it would exceed the rate limit
+     */
+    boolean isAllowed(String key, int permits);
+
+    /**
+     * Checks whether a request for the given key would currently be allowed, without consuming quota.
+     * Implementations that cannot peek report the request as allowed.
+     *
+     * @param key The unique identifier for the rate limit bucket
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    default boolean wouldAllow(String key) {
+        return true;
+    }
 }
@@ -31,7 +31,7 @@ public class RedisRateLimiter implements RateLimiter {
      * This script:
      * 1. Removes expired entries from the sorted set
      * 2. Checks the current count
-     * 3. If under limit, adds the current timestamp
+     * 3. If all requested units fit under the limit, adds one entry per unit at the current timestamp
      * 4. Sets expiration on the key
      * 5. Returns 1 if allowed, 0 if denied
      */
@@ -42,6 +42,7 @@ public class RedisRateLimiter implements RateLimiter {
             local limit = tonumber(ARGV[2])
             local current = tonumber(ARGV[3])
             local ttl = tonumber(ARGV[4])
+            local permits = tonumber(ARGV[5])
             
             -- Remove expired entries
             redis.call('ZREMRANGEBYSCORE', key, 0, current - window)
@@ -49,9 +50,12 @@ public class RedisRateLimiter implements RateLimiter {
             -- Get current count
             local count = redis.call('ZCARD', key)
             
-            if count < limit then
-                -- Add current timestamp
-                redis.call('ZADD', key, current, current)
+            if count + permits <= limit then
+                -- Add current timestamp, once per unit so each unit counts separately
+                redis.call('ZADD', key, current, ARGV[3])
+                for i = 2, permits do
+                    redis.call('ZADD', key, current, ARGV[3] .. ':' .. i)
+                end
                 redis.call('EXPIRE', key, ttl)
                 return 1
             else
@@ -81,21 +85,48 @@ public class RedisRateLimiter implements RateLimiter {
      * @return true if the request is allowed, false if rate limit is exceeded
      */
     public boolean isAllowed(String key, int limit, long windowSizeMs) {
+        return isAllowed(key, limit, windowSizeMs, 1);
+    }
+    
+    /**
+     * Checks if a request counting as several units is allowed using the default configuration,
+     * consuming all of them at once.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param permits Number of units the request counts as
+     * @return true if all units fit in the remaining quota, false if rate limit would be exceeded
+     */
+    @Override
+    public boolean isAllowed(String key, int permits) {
+        return isAllowed(key, config.getDefaultLimit(), config.getDefaultWindowSizeMs(), permits);
+    }
+    
+    /**
+     * Checks if a request counting as several units is allowed with custom limit and window size.
+     * The check and the recording of all units happen in one atomic script call.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param limit The maximum number of units allowed in the window
+     * @param windowSizeMs The sliding window size in milliseconds
+     * @param permits Number of units the request counts as
+     * @return true if all units fit in the remaining quota, false if rate limit would be exceeded
+     */
+    public boolean isAllowed(String key, int limit, long windowSizeMs, int permits) {
         try {
             String redisKey = buildRedisKey(key);
             long currentTimeMs = System.currentTimeMillis();
             long ttlSeconds = Math.max(config.getKeyTtlSeconds(), windowSizeMs / 1000 + 60);
             
             List<String> keys = Collections.singletonList(redisKey);
-            Object[] args = {windowSizeMs, limit, currentTimeMs, ttlSeconds};
+            Object[] args = {windowSizeMs, limit, currentTimeMs, ttlSeconds, permits};
             
             Long result = redisTemplate.execute(rateLimitScript, keys, args);
             
             boolean allowed = result != null && result == 1L;
             
             if (log.isDebugEnabled()) {
-                log.debug("Rate limit check for key '{}': limit={}, window={}ms, allowed={}", 
-                         key, limit, windowSizeMs, allowed);
+                log.debug("Rate limit check for key '{}': limit={}, window={}ms, permits={}, allowed={}", 
+                         key, limit, windowSizeMs, permits, allowed);
             }
             
             return allowed;
@@ -107,6 +138,47 @@ public class RedisRateLimiter implements RateLimiter {
         }
     }
     
+    /**
+     * Checks whether a request would currently be allowed using the default configuration,
+     * without recording it.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    @Override
+    public boolean wouldAllow(String key) {
+        return wouldAllow(key, config.getDefaultLimit(), config.getDefaultWindowSizeMs());
+    }
+    
+    /**
+     * Checks whether a request would currently be allowed with custom limit and window size,
+     * without recording it.
+     * 
+     * Only counts the entries inside the window (ZCOUNT) and never trims the set,
+     * so the check is a single read-only round trip.
+     * 
+     * @param key The unique identifier for the rate limit bucket
+     * @param limit The maximum number of requests allowed in the window
+     * @param windowSizeMs The sliding window size in milliseconds
+     * @return true if a request would be allowed, false if the limit is already reached
+     */
+    public boolean wouldAllow(String key, int limit, long windowSizeMs) {
+        try {
+            String redisKey = buildRedisKey(key);
+            long windowStart = System.currentTimeMillis() - windowSizeMs;
+            
+            // The Lua script drops scores <= windowStart, so count only newer entries
+            Long count = redisTemplate.opsForZSet().count(redisKey, windowStart + 1, Double.POSITIVE_INFINITY);
+            
+            return count == null || count < limit;
+            
+        } catch (Exception e) {
+            log.error("Error peeking rate limit for key '{}': {}", key, e.getMessage(), e);
+            // Mirror isAllowed and fail open
+            return true;
+        }
+    }
+    
     /**
      * Gets the current usage count for a given key within the window.
      * 
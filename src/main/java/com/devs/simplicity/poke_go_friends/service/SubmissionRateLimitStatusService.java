@@ -0,0 +1,85 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.RateLimitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports whether a client is currently rate limited for friend code submissions.
+ *
+ * Feed responses carry this flag on every request, so the check peeks at the real
+ * per-IP/per-user submission buckets without consuming quota and caches the answer
+ * per client for a few seconds.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SubmissionRateLimitStatusService {
+
+    private final ValidationService validationService;
+    private final RateLimitConfig rateLimitConfig;
+    private final Map<String, CachedStatus> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Cached status together with the time it stops being valid.
+     */
+    private record CachedStatus(boolean rateLimited, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Checks if the given IP/user would currently be rejected when submitting a friend code.
+     *
+     * @param ipAddress The client's IP address
+     * @param userId    The client's user ID (optional)
+     * @return true if rate limited, false otherwise
+     */
+    public boolean isRateLimited(String ipAddress, Long userId) {
+        if (!rateLimitConfig.isEnabled()) {
+            return false;
+        }
+
+        String key = clientKey(ipAddress, userId);
+        long now = System.nanoTime();
+        CachedStatus cached = statuses.get(key);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached.rateLimited();
+        }
+
+        boolean rateLimited = !validationService.wouldAllowSubmission(ipAddress, userId);
+
+        if (statuses.size() >= rateLimitConfig.getStatusCacheMaxEntries()) {
+            statuses.values().removeIf(status -> status.isExpired(now));
+            if (statuses.size() >= rateLimitConfig.getStatusCacheMaxEntries()) {
+                // Client keys are unbounded; start over rather than grow without limit
+                log.debug("Rate limit status cache reached {} entries, clearing", statuses.size());
+                statuses.clear();
+            }
+        }
+        long ttlNanos = TimeUnit.SECONDS.toNanos(rateLimitConfig.getStatusCacheSeconds());
+        statuses.put(key, new CachedStatus(rateLimited, now + ttlNanos));
+        return rateLimited;
+    }
+
+    /**
+     * Drops the cached status for a client, e.g. after it consumed quota by submitting.
+     *
+     * @param ipAddress The client's IP address
+     * @param userId    The client's user ID (optional)
+     */
+    public void invalidate(String ipAddress, Long userId) {
+        statuses.remove(clientKey(ipAddress, userId));
+    }
+
+    private String clientKey(String ipAddress, Long userId) {
+        return ipAddress + "|" + (userId != null ? userId : "");
+    }
+}
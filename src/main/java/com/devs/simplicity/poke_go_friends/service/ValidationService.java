@@ -259,6 +259,39 @@ public class ValidationService {
         log.debug("Rate limit check passed for user: {}", userId);
     }
 
+    /**
+     * Checks whether a submission from the given IP/user would pass the rate limits,
+     * peeking at the same buckets as {@link #checkRateLimitByIp} and {@link #checkRateLimitByUser}
+     * without consuming quota.
+     *
+     * @param ipAddress The submitter's IP address
+     * @param userId    The submitter's user ID (optional for anonymous)
+     * @return true if a submission would currently be allowed
+     */
+    public boolean wouldAllowSubmission(String ipAddress, Long userId) {
+        if (!rateLimitConfig.isEnabled()) {
+            return true;
+        }
+
+        if (!rateLimiter.wouldAllow("ip:" + ipAddress + ":submission")) {
+            return false;
+        }
+
+        if (userId == null) {
+            return true; // Anonymous submissions only limited by IP
+        }
+
+        String key = "user:" + userId + ":submission";
+        long dayInMs = 24 * 60 * 60 * 1000L; // 24 hours in milliseconds
+
+        if (rateLimiter instanceof CircuitBreakerRateLimiter circuitBreakerRateLimiter) {
+            return circuitBreakerRateLimiter.wouldAllow(key, rateLimitConfig.getSubmissionsPerDayPerUser(), dayInMs);
+        } else if (rateLimiter instanceof RedisRateLimiter redisRateLimiter) {
+            return redisRateLimiter.wouldAllow(key, rateLimitConfig.getSubmissionsPerDayPerUser(), dayInMs);
+        }
+        return rateLimiter.wouldAllow(key);
+    }
+
     /**
      * Validates all friend code submission data.
      *
@@ -281,14 +314,71 @@ public class ValidationService {
         checkRateLimitByIp(ipAddress);
         checkRateLimitByUser(userId);
         
-        // Content validation
+        validateFriendCodeContent(friendCode, trainerName, playerLevel, location, description);
+        
+        log.info("Friend code submission validation completed successfully");
+    }
+
+    /**
+     * Validates the content of one friend code submission, without checking rate limits.
+     *
+     * @param friendCode   The friend code
+     * @param trainerName  The trainer name
+     * @param playerLevel  The player level (optional)
+     * @param location     The location (optional)
+     * @param description  The description (optional)
+     * @throws ValidationException if any validation fails
+     */
+    public void validateFriendCodeContent(String friendCode, String trainerName, Integer playerLevel,
+                                          String location, String description) {
         validateFriendCodeFormat(friendCode);
         validateTrainerName(trainerName);
         validatePlayerLevel(playerLevel);
         validateLocation(location);
         validateDescription(description);
-        
-        log.info("Friend code submission validation completed successfully");
+    }
+
+    /**
+     * Charges the user and IP rate limits once for a batch of submissions, counting each
+     * submission as one unit. The whole batch is rejected if it does not fit in the remaining quota.
+     * The user limit is charged first: a batch it rejects never reaches the IP limit, which is
+     * shared by everyone submitting from the same address.
+     *
+     * @param ipAddress The submitter's IP address
+     * @param userId    The submitter's user ID (optional for anonymous)
+     * @param units     Number of submissions in the batch
+     * @throws RateLimitExceededException if the batch would exceed the rate limits
+     */
+    public void checkSubmissionRateLimit(String ipAddress, Long userId, int units) {
+        if (!rateLimitConfig.isEnabled()) {
+            return;
+        }
+
+        log.debug("Checking rate limit for {} submissions from IP: {}, User: {}", units, ipAddress, userId);
+
+        if (userId != null) { // Anonymous submissions only limited by IP
+            String key = "user:" + userId + ":submission";
+            long dayInMs = 24 * 60 * 60 * 1000L; // 24 hours in milliseconds
+
+            boolean allowed;
+            if (rateLimiter instanceof CircuitBreakerRateLimiter circuitBreakerRateLimiter) {
+                allowed = circuitBreakerRateLimiter.isAllowed(key, rateLimitConfig.getSubmissionsPerDayPerUser(), dayInMs, units);
+            } else if (rateLimiter instanceof RedisRateLimiter redisRateLimiter) {
+                allowed = redisRateLimiter.isAllowed(key, rateLimitConfig.getSubmissionsPerDayPerUser(), dayInMs, units);
+            } else {
+                allowed = rateLimiter.isAllowed(key, units);
+            }
+
+            if (!allowed) {
+                log.warn("Rate limit exceeded for user: {} ({} submissions)", userId, units);
+                throw new RateLimitExceededException("user:" + userId, "User daily limit");
+            }
+        }
+
+        if (!rateLimiter.isAllowed("ip:" + ipAddress + ":submission", units)) {
+            log.warn("Rate limit exceeded for IP: {} ({} submissions)", ipAddress, units);
+            throw new RateLimitExceededException(ipAddress, "IP hourly limit");
+        }
     }
 
     /**
@@ -0,0 +1,18 @@
+-- Full-text search over trainer name, location and description
+-- Searches use "document @@ plainto_tsquery('english', text)" and rank with ts_rank,
+-- so "raids daily gifts" matches descriptions mentioning a raid, daily and gifts in any order
+
+-- The searchable document; trainer names weigh most, then location, then description
+-- IMMUTABLE so it can be indexed; queries call the same function so the planner matches the index
+CREATE OR REPLACE FUNCTION friend_code_search_document(trainer_name TEXT, location TEXT, description TEXT)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('english'::regconfig, COALESCE(trainer_name, '')), 'A')
+        || setweight(to_tsvector('english'::regconfig, COALESCE(location, '')), 'B')
+        || setweight(to_tsvector('english'::regconfig, COALESCE(description, '')), 'C')
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+COMMENT ON FUNCTION friend_code_search_document(TEXT, TEXT, TEXT) IS 'Weighted full-text search document of a friend code';
+
+-- Created on the partitioned parent, so every existing and future partition gets it
+CREATE INDEX idx_friend_codes_search_document ON friend_codes
+    USING GIN (friend_code_search_document(trainer_name, location, description));
@@ -0,0 +1,32 @@
+-- Let inserts claim a friend code in friend_code_keys with INSERT ... ON CONFLICT DO NOTHING before
+-- inserting the friend_codes row, so duplicates are skipped in the same statement instead of failing it
+-- The trigger now accepts a key already claimed for the same id, and still rejects one held by another id
+
+CREATE OR REPLACE FUNCTION maintain_friend_code_keys()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO friend_code_keys (friend_code, friend_code_id, created_at)
+        VALUES (NEW.friend_code, NEW.id, NEW.created_at)
+        ON CONFLICT (friend_code) DO NOTHING;
+
+        IF NOT FOUND AND NOT EXISTS (SELECT 1 FROM friend_code_keys
+                                     WHERE friend_code = NEW.friend_code AND friend_code_id = NEW.id) THEN
+            -- Same message as a real key violation, so clients extracting the constraint name find it
+            RAISE EXCEPTION 'duplicate key value violates unique constraint "friend_code_keys_pkey"'
+                USING ERRCODE = 'unique_violation', CONSTRAINT = 'friend_code_keys_pkey',
+                      DETAIL = format('Key (friend_code)=(%s) already exists.', NEW.friend_code);
+        END IF;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE friend_code_keys
+        SET friend_code = NEW.friend_code, created_at = NEW.created_at
+        WHERE friend_code = OLD.friend_code AND friend_code_id = OLD.id;
+    ELSE
+        DELETE FROM friend_code_keys
+        WHERE friend_code = OLD.friend_code AND friend_code_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+COMMENT ON FUNCTION maintain_friend_code_keys() IS 'Mirrors friend codes into friend_code_keys so duplicates fail across partitions; keys may be claimed before the insert';
@@ -0,0 +1,7 @@
+-- Hand out friend code ids in blocks of 50 so Hibernate's pooled optimizer can assign ids
+-- without a sequence call per row, which lets inserts be sent as JDBC batches
+-- Each nextval reserves the 50 ids ending at the returned value; rows inserted with the
+-- column default or nextval in SQL take that value and leave gaps, which is harmless
+-- The increment must match FriendCode.ID_ALLOCATION_SIZE
+
+ALTER SEQUENCE friend_codes_id_seq INCREMENT BY 50;
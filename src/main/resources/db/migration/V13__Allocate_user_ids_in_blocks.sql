@@ -0,0 +1,7 @@
+-- Hand out user ids in blocks of 50, like friend code ids (V12), so Hibernate's pooled optimizer
+-- assigns ids without a sequence call per row and user inserts can be batched
+-- Existing ids are kept: the next nextval continues after the current value and reserves the
+-- 50 ids ending at the returned value
+-- The increment must match User.ID_ALLOCATION_SIZE
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
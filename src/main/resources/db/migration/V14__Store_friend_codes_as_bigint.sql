@@ -0,0 +1,227 @@
+-- Store friend codes as BIGINT instead of VARCHAR(12)
+-- A bigint takes 8 bytes instead of 13 and compares as one integer instead of a collated string,
+-- so equality lookups get cheaper and the friend_code_keys primary key shrinks by about half
+-- The application still sees 12-digit strings; FriendCodeNumberConverter zero-pads them when read
+--
+-- Changing the column type in place would rewrite every partition and friend_code_keys under an
+-- ACCESS EXCLUSIVE lock, so this runs outside a transaction (see the .conf file) in short steps:
+-- shadow columns are added and kept in step by trigger, filled in committed batches, indexed
+-- and checked one partition at a time without blocking writes, and finally swapped in with
+-- catalog-only changes
+-- Steps 1 to 3 can be re-run if the migration is interrupted before the swap
+
+-- ==============================================================================
+-- STEP 1: SHADOW COLUMNS, KEPT IN STEP WITH WRITES
+-- ==============================================================================
+
+ALTER TABLE friend_codes ADD COLUMN IF NOT EXISTS friend_code_number BIGINT;
+ALTER TABLE friend_code_keys ADD COLUMN IF NOT EXISTS friend_code_number BIGINT;
+
+CREATE OR REPLACE FUNCTION sync_friend_code_number()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.friend_code_number = NEW.friend_code::BIGINT;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS trigger_friend_codes_number ON friend_codes;
+CREATE TRIGGER trigger_friend_codes_number
+    BEFORE INSERT OR UPDATE OF friend_code ON friend_codes
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_friend_code_number();
+
+DROP TRIGGER IF EXISTS trigger_friend_code_keys_number ON friend_code_keys;
+CREATE TRIGGER trigger_friend_code_keys_number
+    BEFORE INSERT OR UPDATE OF friend_code ON friend_code_keys
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_friend_code_number();
+
+-- Filling the shadow column must not look like an edit, so updated_at is left alone for rows
+-- whose friend_code_number goes from NULL to a value; restored to a plain BEFORE UPDATE in step 4
+DO $$
+BEGIN
+    DROP TRIGGER trigger_friend_codes_updated_at ON friend_codes;
+    CREATE TRIGGER trigger_friend_codes_updated_at
+        BEFORE UPDATE ON friend_codes
+        FOR EACH ROW
+        WHEN (OLD.friend_code_number IS NOT NULL OR NEW.friend_code_number IS NULL)
+        EXECUTE FUNCTION update_updated_at_column();
+END $$;
+
+-- ==============================================================================
+-- STEP 2: BACKFILL IN COMMITTED BATCHES
+-- ==============================================================================
+
+-- Walks friend_codes by id through the primary key, filling both tables 10,000 codes at a time;
+-- each batch commits, so row locks are held only briefly and no long transaction blocks vacuum
+DO $$
+DECLARE
+    batch_start BIGINT;
+    last_id BIGINT;
+BEGIN
+    SELECT MIN(id), MAX(id) INTO batch_start, last_id FROM friend_codes WHERE friend_code_number IS NULL;
+
+    WHILE batch_start <= last_id LOOP
+        UPDATE friend_codes
+        SET friend_code_number = friend_code::BIGINT
+        WHERE id >= batch_start AND id < batch_start + 10000
+          AND friend_code_number IS NULL;
+
+        UPDATE friend_code_keys k
+        SET friend_code_number = k.friend_code::BIGINT
+        WHERE k.friend_code IN (SELECT friend_code FROM friend_codes
+                                WHERE id >= batch_start AND id < batch_start + 10000)
+          AND k.friend_code_number IS NULL;
+
+        COMMIT;
+        batch_start := batch_start + 10000;
+    END LOOP;
+END $$;
+
+-- Keys whose friend_codes row was not visited, if any
+UPDATE friend_code_keys
+SET friend_code_number = friend_code::BIGINT
+WHERE friend_code_number IS NULL;
+
+-- ==============================================================================
+-- STEP 3: CONSTRAINTS AND INDEX ON THE SHADOW COLUMNS, WITHOUT BLOCKING WRITES
+-- ==============================================================================
+
+-- The new primary key index is built while inserts continue
+DROP INDEX CONCURRENTLY IF EXISTS friend_code_keys_number_key;
+CREATE UNIQUE INDEX CONCURRENTLY friend_code_keys_number_key ON friend_code_keys(friend_code_number);
+
+-- Lookups by code read friend_codes through idx_friend_codes_friend_code, which goes with the old
+-- column; its replacement is built before the swap. CONCURRENTLY is not available on a partitioned
+-- table, so the parent index is created empty with ON ONLY, and each partition's index is built and
+-- attached in its own transaction, blocking writes to one hourly partition at a time
+-- Partitions created meanwhile get the index from the parent
+CREATE INDEX IF NOT EXISTS idx_friend_codes_friend_code_number ON ONLY friend_codes(friend_code_number);
+
+DO $$
+DECLARE
+    part RECORD;
+    index_name TEXT;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'friend_codes'::regclass
+    LOOP
+        index_name := part.relname || '_friend_code_number_idx';
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I(friend_code_number)', index_name, part.relname);
+        IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                       WHERE inhrelid = index_name::regclass
+                         AND inhparent = 'idx_friend_codes_friend_code_number'::regclass) THEN
+            EXECUTE format('ALTER INDEX idx_friend_codes_friend_code_number ATTACH PARTITION %I', index_name);
+        END IF;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- A validated IS NOT NULL check lets SET NOT NULL in step 4 skip its table scan; validating only
+-- takes a SHARE UPDATE EXCLUSIVE lock, so reads and writes continue
+ALTER TABLE friend_code_keys DROP CONSTRAINT IF EXISTS chk_friend_code_keys_number_not_null;
+ALTER TABLE friend_code_keys ADD CONSTRAINT chk_friend_code_keys_number_not_null
+    CHECK (friend_code_number IS NOT NULL) NOT VALID;
+ALTER TABLE friend_code_keys VALIDATE CONSTRAINT chk_friend_code_keys_number_not_null;
+
+-- friend_codes is partitioned, where NOT VALID checks cannot be added to the parent, and a check
+-- added there would scan every partition under an ACCESS EXCLUSIVE lock. Each partition gets the
+-- check NOT VALID and validates it in its own transaction, again holding only SHARE UPDATE EXCLUSIVE
+ALTER TABLE friend_codes DROP CONSTRAINT IF EXISTS chk_friend_code_number_range;
+
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'friend_codes'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS chk_friend_code_number_range', part.relname);
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT chk_friend_code_number_range '
+                       'CHECK (friend_code_number IS NOT NULL AND friend_code_number BETWEEN 0 AND 999999999999) '
+                       'NOT VALID', part.relname);
+        COMMIT;
+        EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT chk_friend_code_number_range', part.relname);
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- The same check on the parent merges with the validated partition checks instead of scanning them,
+-- and SET NOT NULL finds the column proven not null by them; both are catalog changes, though they
+-- briefly lock every partition. Only a partition created since the loop above is scanned
+ALTER TABLE friend_codes
+    ADD CONSTRAINT chk_friend_code_number_range
+        CHECK (friend_code_number IS NOT NULL AND friend_code_number BETWEEN 0 AND 999999999999),
+    ALTER COLUMN friend_code_number SET NOT NULL;
+
+-- ==============================================================================
+-- STEP 4: SWAP THE COLUMNS
+-- ==============================================================================
+
+-- One transaction of catalog changes; gives up instead of queueing writers behind a long query
+DO $$
+DECLARE
+    part_index RECORD;
+BEGIN
+    PERFORM set_config('lock_timeout', '10s', true);
+    LOCK TABLE friend_codes, friend_code_keys IN ACCESS EXCLUSIVE MODE;
+
+    -- The parent index is only valid once every partition's index is attached
+    IF NOT (SELECT indisvalid FROM pg_index
+            WHERE indexrelid = 'idx_friend_codes_friend_code_number'::regclass) THEN
+        RAISE EXCEPTION 'idx_friend_codes_friend_code_number is missing on some partitions';
+    END IF;
+
+    DROP TRIGGER trigger_friend_codes_number ON friend_codes;
+    DROP TRIGGER trigger_friend_code_keys_number ON friend_code_keys;
+    -- Listed friend_code in UPDATE OF, so it depends on the old column
+    DROP TRIGGER trigger_friend_codes_keys ON friend_codes;
+
+    -- friend_code_keys: the new unique index becomes the primary key
+    ALTER TABLE friend_code_keys DROP CONSTRAINT friend_code_keys_pkey;
+    ALTER TABLE friend_code_keys DROP COLUMN friend_code;
+    ALTER TABLE friend_code_keys RENAME COLUMN friend_code_number TO friend_code;
+    ALTER TABLE friend_code_keys ALTER COLUMN friend_code SET NOT NULL;
+    ALTER TABLE friend_code_keys DROP CONSTRAINT chk_friend_code_keys_number_not_null;
+    ALTER TABLE friend_code_keys ADD CONSTRAINT friend_code_keys_pkey
+        PRIMARY KEY USING INDEX friend_code_keys_number_key;
+
+    -- friend_codes: dropping the old column also drops the regex check and the old index,
+    -- whose name goes to the new one along with its partition indexes
+    ALTER TABLE friend_codes DROP COLUMN friend_code;
+    ALTER TABLE friend_codes RENAME COLUMN friend_code_number TO friend_code;
+    ALTER TABLE friend_codes RENAME CONSTRAINT chk_friend_code_number_range TO chk_friend_code_format;
+    ALTER INDEX idx_friend_codes_friend_code_number RENAME TO idx_friend_codes_friend_code;
+    FOR part_index IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'idx_friend_codes_friend_code'::regclass
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', part_index.relname,
+                       replace(part_index.relname, '_friend_code_number_idx', '_friend_code_idx'));
+    END LOOP;
+
+    CREATE TRIGGER trigger_friend_codes_keys
+        AFTER INSERT OR UPDATE OF friend_code, created_at OR DELETE ON friend_codes
+        FOR EACH ROW
+        EXECUTE FUNCTION maintain_friend_code_keys();
+
+    DROP TRIGGER trigger_friend_codes_updated_at ON friend_codes;
+    CREATE TRIGGER trigger_friend_codes_updated_at
+        BEFORE UPDATE ON friend_codes
+        FOR EACH ROW
+        EXECUTE FUNCTION update_updated_at_column();
+END $$;
+
+DROP FUNCTION sync_friend_code_number();
+
+COMMENT ON COLUMN friend_codes.friend_code IS 'Pokemon Go friend code as a number; shown zero-padded to 12 digits';
+COMMENT ON COLUMN friend_code_keys.friend_code IS 'Pokemon Go friend code as a number; unique across partitions';
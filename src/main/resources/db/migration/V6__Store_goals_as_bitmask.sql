@@ -0,0 +1,33 @@
+-- Store friend code goals as a bitmask on friend_codes instead of a separate table
+-- Bits: GIFTS = 1, EXP = 2, RAIDS = 4, ALL = 8 (see Goal#getBit)
+-- Reading goals no longer needs a join or a second select per friend code
+
+-- Add goals_mask column; codes without goals keep the default of 0
+ALTER TABLE friend_codes
+ADD COLUMN goals_mask SMALLINT NOT NULL DEFAULT 0;
+
+-- Backfill from the friend_code_goals join table
+UPDATE friend_codes fc
+SET goals_mask = g.mask
+FROM (
+    SELECT friend_code_id,
+           BIT_OR(CASE goal
+                      WHEN 'GIFTS' THEN 1
+                      WHEN 'EXP' THEN 2
+                      WHEN 'RAIDS' THEN 4
+                      WHEN 'ALL' THEN 8
+                      ELSE 0
+                  END)::SMALLINT AS mask
+    FROM friend_code_goals
+    GROUP BY friend_code_id
+) g
+WHERE fc.id = g.friend_code_id;
+
+-- Only the four known goal bits may be set
+ALTER TABLE friend_codes ADD CONSTRAINT chk_goals_mask
+    CHECK (goals_mask BETWEEN 0 AND 15);
+
+COMMENT ON COLUMN friend_codes.goals_mask IS 'Friendship goals bitmask: GIFTS=1, EXP=2, RAIDS=4, ALL=8';
+
+-- The join table is fully replaced by goals_mask
+DROP TABLE friend_code_goals;
@@ -0,0 +1,50 @@
+-- Collapse "is_active AND (expires_at IS NULL OR expires_at > now)" into one range predicate
+-- visible_until is the moment a friend code stops being visible:
+--   active without expiry -> 9999-12-31 23:59:59 (never)
+--   active with expiry    -> expires_at
+--   deactivated           -> 1970-01-01 00:00:00 (already hidden)
+-- Active-code queries become "visible_until > now", one predicate instead of three
+
+ALTER TABLE friend_codes
+ADD COLUMN visible_until TIMESTAMP;
+
+UPDATE friend_codes
+SET visible_until = CASE
+                        WHEN NOT is_active THEN TIMESTAMP '1970-01-01 00:00:00'
+                        ELSE COALESCE(expires_at, TIMESTAMP '9999-12-31 23:59:59')
+                    END;
+
+ALTER TABLE friend_codes ALTER COLUMN visible_until SET NOT NULL;
+ALTER TABLE friend_codes ALTER COLUMN visible_until SET DEFAULT TIMESTAMP '9999-12-31 23:59:59';
+
+COMMENT ON COLUMN friend_codes.visible_until IS 'When the friend code stops being visible; derived from is_active and expires_at';
+
+-- Keep visible_until in step with is_active/expires_at for writes that bypass the application
+CREATE OR REPLACE FUNCTION update_visible_until_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.visible_until = CASE
+                            WHEN NOT NEW.is_active THEN TIMESTAMP '1970-01-01 00:00:00'
+                            ELSE COALESCE(NEW.expires_at, TIMESTAMP '9999-12-31 23:59:59')
+                        END;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER trigger_friend_codes_visible_until
+    BEFORE INSERT OR UPDATE OF is_active, expires_at ON friend_codes
+    FOR EACH ROW
+    EXECUTE FUNCTION update_visible_until_column();
+
+COMMENT ON FUNCTION update_visible_until_column() IS 'Derives visible_until from is_active and expires_at';
+
+-- The feed, newest first: visible codes in (created_at DESC, id DESC) order, read straight off the
+-- index and stopped at the page size. "visible_until > now" cannot lead the index, as a range on the
+-- leading column loses the created_at order, so it is checked on the rows read; the constant bound
+-- makes the index partial, leaving out deactivated codes. Active-code queries repeat that bound so the
+-- planner can prove the index covers them
+CREATE INDEX idx_friend_codes_visible_created ON friend_codes(created_at DESC, id DESC)
+    WHERE visible_until > TIMESTAMP '1970-01-01 00:00:00';
+
+-- Superseded by idx_friend_codes_visible_created
+DROP INDEX IF EXISTS idx_friend_codes_active_created;
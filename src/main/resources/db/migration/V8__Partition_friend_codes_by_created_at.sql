@@ -0,0 +1,187 @@
+-- Partition friend_codes by created_at so retention drops whole partitions instead of deleting rows
+-- Partitions cover one hour each and are named friend_codes_pYYYYMMDDHH24; a default partition
+-- catches rows outside the pre-created range so inserts never fail
+-- Unique friend codes across partitions are enforced by the friend_code_keys table, kept in sync by trigger
+
+-- ==============================================================================
+-- STEP 1: RECREATE friend_codes AS A PARTITIONED TABLE
+-- ==============================================================================
+
+ALTER TABLE friend_codes RENAME TO friend_codes_unpartitioned;
+
+-- Keep the id sequence when the old table is dropped
+ALTER SEQUENCE friend_codes_id_seq OWNED BY NONE;
+
+-- Columns, defaults, NOT NULL and CHECK constraints, and column comments carry over
+CREATE TABLE friend_codes (
+    LIKE friend_codes_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE friend_codes_default PARTITION OF friend_codes DEFAULT;
+
+COMMENT ON TABLE friend_codes IS 'Stores Pokemon Go friend codes shared by users, partitioned hourly by created_at';
+
+-- ==============================================================================
+-- STEP 2: PARTITION MAINTENANCE FUNCTIONS
+-- ==============================================================================
+
+-- Creates the missing hourly partitions covering [from_time, until_time)
+-- Hours that already have rows in the default partition are skipped; those rows are purged by row
+CREATE OR REPLACE FUNCTION create_friend_code_partitions(from_time TIMESTAMP, until_time TIMESTAMP)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_start TIMESTAMP := date_trunc('hour', from_time);
+    partition_name TEXT;
+    created_count INTEGER := 0;
+BEGIN
+    WHILE partition_start < until_time LOOP
+        partition_name := 'friend_codes_p' || to_char(partition_start, 'YYYYMMDDHH24');
+
+        IF to_regclass(partition_name) IS NULL
+           AND NOT EXISTS (SELECT 1 FROM friend_codes_default
+                           WHERE created_at >= partition_start
+                             AND created_at < partition_start + INTERVAL '1 hour') THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF friend_codes FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, partition_start, partition_start + INTERVAL '1 hour');
+            created_count := created_count + 1;
+        END IF;
+
+        partition_start := partition_start + INTERVAL '1 hour';
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ language 'plpgsql';
+
+COMMENT ON FUNCTION create_friend_code_partitions(TIMESTAMP, TIMESTAMP) IS 'Creates missing hourly friend_codes partitions for a time range';
+
+-- Removes friend codes created before the cutoff and returns how many were removed
+-- Partitions entirely before the cutoff are dropped; the few remaining rows are deleted
+CREATE OR REPLACE FUNCTION drop_friend_code_partitions(cutoff TIMESTAMP)
+RETURNS INTEGER AS $$
+DECLARE
+    -- A partition is expired when its hour ends at or before the cutoff
+    last_expired_hour TEXT := to_char(cutoff - INTERVAL '1 hour', 'YYYYMMDDHH24');
+    expired RECORD;
+    partition_rows INTEGER;
+    removed_count INTEGER := 0;
+BEGIN
+    FOR expired IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'friend_codes'::regclass
+          AND c.relname ~ '^friend_codes_p[0-9]{10}$'
+          AND substring(c.relname FROM 15) <= last_expired_hour
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('SELECT COUNT(*) FROM %I', expired.relname) INTO partition_rows;
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        removed_count := removed_count + partition_rows;
+    END LOOP;
+
+    -- Rows from the partition straddling the cutoff and from the default partition
+    DELETE FROM friend_codes WHERE created_at < cutoff;
+    GET DIAGNOSTICS partition_rows = ROW_COUNT;
+    removed_count := removed_count + partition_rows;
+
+    -- Dropped partitions fire no triggers, so release their friend codes here
+    DELETE FROM friend_code_keys WHERE created_at < cutoff;
+
+    RETURN removed_count;
+END;
+$$ language 'plpgsql';
+
+COMMENT ON FUNCTION drop_friend_code_partitions(TIMESTAMP) IS 'Drops expired friend_codes partitions and deletes remaining rows before the cutoff';
+
+-- Partitions for existing rows plus the next two days; the cleanup job keeps extending the range
+SELECT create_friend_code_partitions(
+    COALESCE((SELECT MIN(created_at) FROM friend_codes_unpartitioned), LOCALTIMESTAMP),
+    LOCALTIMESTAMP + INTERVAL '48 hours');
+
+-- ==============================================================================
+-- STEP 3: GLOBAL FRIEND CODE UNIQUENESS
+-- ==============================================================================
+
+-- A unique index on a partitioned table must include created_at, which would allow the
+-- same friend code in different hours, so uniqueness lives in this unpartitioned table
+CREATE TABLE friend_code_keys (
+    friend_code VARCHAR(12) PRIMARY KEY,
+    friend_code_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_friend_code_keys_created ON friend_code_keys(created_at);
+
+COMMENT ON TABLE friend_code_keys IS 'One row per friend code in friend_codes; enforces uniqueness across partitions';
+
+CREATE OR REPLACE FUNCTION maintain_friend_code_keys()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO friend_code_keys (friend_code, friend_code_id, created_at)
+        VALUES (NEW.friend_code, NEW.id, NEW.created_at);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE friend_code_keys
+        SET friend_code = NEW.friend_code, created_at = NEW.created_at
+        WHERE friend_code = OLD.friend_code AND friend_code_id = OLD.id;
+    ELSE
+        DELETE FROM friend_code_keys
+        WHERE friend_code = OLD.friend_code AND friend_code_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+COMMENT ON FUNCTION maintain_friend_code_keys() IS 'Mirrors friend codes into friend_code_keys so duplicates fail across partitions';
+
+-- ==============================================================================
+-- STEP 4: MOVE THE DATA AND DROP THE OLD TABLE
+-- ==============================================================================
+
+INSERT INTO friend_codes SELECT * FROM friend_codes_unpartitioned;
+
+INSERT INTO friend_code_keys (friend_code, friend_code_id, created_at)
+SELECT friend_code, id, created_at FROM friend_codes;
+
+DROP TABLE friend_codes_unpartitioned;
+
+ALTER SEQUENCE friend_codes_id_seq OWNED BY friend_codes.id;
+
+-- ==============================================================================
+-- STEP 5: KEYS, INDEXES AND TRIGGERS ON THE PARTITIONED TABLE
+-- ==============================================================================
+
+-- The partition key must be part of the primary key; ids stay unique through the sequence
+ALTER TABLE friend_codes ADD CONSTRAINT friend_codes_pkey PRIMARY KEY (id, created_at);
+
+ALTER TABLE friend_codes ADD CONSTRAINT fk_friend_codes_user_id
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL;
+
+-- The unique index on friend_code stayed with the old table; uniqueness now lives in friend_code_keys,
+-- but lookups by code (GET /code/{code}, duplicate checks, batch lookups) read friend_codes
+CREATE INDEX idx_friend_codes_friend_code ON friend_codes(friend_code);
+CREATE INDEX idx_friend_codes_active ON friend_codes(is_active) WHERE is_active = true;
+CREATE INDEX idx_friend_codes_created ON friend_codes(created_at DESC);
+CREATE INDEX idx_friend_codes_location ON friend_codes(location) WHERE location IS NOT NULL;
+CREATE INDEX idx_friend_codes_player_level ON friend_codes(player_level) WHERE player_level IS NOT NULL;
+CREATE INDEX idx_friend_codes_expires_at ON friend_codes(expires_at) WHERE expires_at IS NOT NULL;
+CREATE INDEX idx_friend_codes_user_id ON friend_codes(user_id) WHERE user_id IS NOT NULL;
+CREATE INDEX idx_friend_codes_location_lower ON friend_codes(LOWER(location)) WHERE location IS NOT NULL;
+CREATE INDEX idx_friend_codes_visible_created ON friend_codes(created_at DESC, id DESC)
+    WHERE visible_until > TIMESTAMP '1970-01-01 00:00:00';
+
+CREATE TRIGGER trigger_friend_codes_updated_at
+    BEFORE UPDATE ON friend_codes
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER trigger_friend_codes_visible_until
+    BEFORE INSERT OR UPDATE OF is_active, expires_at ON friend_codes
+    FOR EACH ROW
+    EXECUTE FUNCTION update_visible_until_column();
+
+CREATE TRIGGER trigger_friend_codes_keys
+    AFTER INSERT OR UPDATE OF friend_code, created_at OR DELETE ON friend_codes
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_friend_code_keys();
@@ -0,0 +1,16 @@
+-- Trigram indexes for case-insensitive substring search ("col ILIKE '%term%'")
+-- B-tree indexes cannot serve a leading wildcard; gin_trgm_ops indexes can, for terms of 3+ characters
+-- Queries match the bare column with ILIKE, so the indexes are on the columns, not on LOWER(column)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Created on the partitioned parent, so every existing and future partition gets them
+CREATE INDEX idx_friend_codes_location_trgm ON friend_codes USING GIN (location gin_trgm_ops);
+CREATE INDEX idx_friend_codes_trainer_name_trgm ON friend_codes USING GIN (trainer_name gin_trgm_ops);
+CREATE INDEX idx_friend_codes_description_trgm ON friend_codes USING GIN (description gin_trgm_ops);
+
+CREATE INDEX idx_users_location_trgm ON users USING GIN (location gin_trgm_ops);
+CREATE INDEX idx_users_trainer_name_trgm ON users USING GIN (trainer_name gin_trgm_ops);
+
+-- Superseded by idx_friend_codes_location_trgm; no query compares LOWER(location) anymore
+DROP INDEX IF EXISTS idx_friend_codes_location_lower;
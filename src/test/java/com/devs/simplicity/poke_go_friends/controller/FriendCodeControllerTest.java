@@ -2,8 +2,15 @@ package com.devs.simplicity.poke_go_friends.controller;
 
 import com.devs.simplicity.poke_go_friends.dto.*;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.Team;
 import com.devs.simplicity.poke_go_friends.exception.*;
+import com.devs.simplicity.poke_go_friends.service.FeedVersionService;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeCountEstimator;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeFacetCounter;
 import com.devs.simplicity.poke_go_friends.service.FriendCodeService;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeStreamBroadcaster;
+import com.devs.simplicity.poke_go_friends.service.RandomFriendCodeSampler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,13 +24,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,6 +65,21 @@ class FriendCodeControllerTest {
     @MockitoBean
     private FriendCodeService friendCodeService;
 
+    @MockitoBean
+    private FriendCodeCountEstimator friendCodeCountEstimator;
+
+    @MockitoBean
+    private FeedVersionService feedVersionService;
+
+    @MockitoBean
+    private FriendCodeStreamBroadcaster friendCodeStreamBroadcaster;
+
+    @MockitoBean
+    private RandomFriendCodeSampler randomFriendCodeSampler;
+
+    @MockitoBean
+    private FriendCodeFacetCounter friendCodeFacetCounter;
+
     private FriendCode testFriendCode;
     private FriendCodeSubmissionRequest validSubmissionRequest;
 
@@ -292,9 +325,11 @@ class FriendCodeControllerTest {
         void shouldReturnPaginatedFriendCodes() throws Exception {
             // Given
             List<FriendCode> friendCodes = Arrays.asList(testFriendCode);
-            Page<FriendCode> page = new PageImpl<>(friendCodes, PageRequest.of(0, 20), 1);
+            Page<FriendCodeResponse> page = new PageImpl<>(
+                    friendCodes.stream().map(FriendCodeResponse::fromEntity).toList(), PageRequest.of(0, 20), 1);
             
             when(friendCodeService.getActiveFriendCodes(any(Pageable.class))).thenReturn(page);
+            when(friendCodeCountEstimator.estimateMatchingCount(any(FriendCodeSearchCriteria.class))).thenReturn(1L);
 
             // When & Then
             mockMvc.perform(get("/api/friend-codes"))
@@ -308,6 +343,414 @@ class FriendCodeControllerTest {
 
             verify(friendCodeService).getActiveFriendCodes(any(Pageable.class));
         }
+
+        @Test
+        @DisplayName("Should pass goals filter to criteria search")
+        void shouldPassGoalsFilterToCriteriaSearch() throws Exception {
+            // Given
+            when(friendCodeService.searchWithCriteria(any(FriendCodeSearchCriteria.class), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes").param("goals", "gifts,RAIDS"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(1));
+
+            verify(friendCodeService).searchWithCriteria(
+                    argThat(criteria -> Set.of(Goal.GIFTS, Goal.RAIDS).equals(criteria.getGoals())),
+                    any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for invalid goal")
+        void shouldReturn400ForInvalidGoal() throws Exception {
+            mockMvc.perform(get("/api/friend-codes").param("goals", "trading"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should skip totals when not requested")
+        void shouldSkipTotalsWhenNotRequested() throws Exception {
+            // Given
+            when(friendCodeService.getActiveFriendCodes(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes").param("includeTotals", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(1))
+                    .andExpect(jsonPath("$.last").value(true))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+            verifyNoInteractions(friendCodeCountEstimator);
+        }
+
+        @Test
+        @DisplayName("Should search by a single filter with an estimated total instead of a count")
+        void shouldSearchBySingleFilterWithEstimatedTotal() throws Exception {
+            // Given
+            when(friendCodeService.searchByTrainerName(eq("Test"), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+            when(friendCodeCountEstimator.estimateTrainerNameCount("Test")).thenReturn(30L);
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/search").param("trainerName", "Test"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(1))
+                    .andExpect(jsonPath("$.totalElements").value(30))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+            // When & Then - without totals
+            mockMvc.perform(get("/api/friend-codes/search").param("trainerName", "Test").param("includeTotals", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+            verify(friendCodeCountEstimator, times(1)).estimateTrainerNameCount("Test");
+        }
+
+        @Test
+        @DisplayName("Should seek past cursor and return next cursor")
+        void shouldSeekPastCursorAndReturnNextCursor() throws Exception {
+            // Given
+            FeedCursor cursor = new FeedCursor(LocalDateTime.now(), 5L);
+            when(friendCodeService.getActiveFriendCodesAfter(eq(cursor), eq(1)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 1), true));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes")
+                    .param("after", cursor.encode())
+                    .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(1))
+                    .andExpect(jsonPath("$.nextCursor").value(FeedCursor.of(testFriendCode).encode()))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+            verify(friendCodeService, never()).getActiveFriendCodes(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for malformed cursor")
+        void shouldReturn400ForMalformedCursor() throws Exception {
+            mockMvc.perform(get("/api/friend-codes").param("after", "%%%"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 304 without querying when the feed is unchanged")
+        void shouldReturn304WhenFeedUnchanged() throws Exception {
+            // Given
+            when(feedVersionService.currentVersion()).thenReturn(Optional.of(42L));
+            when(friendCodeService.getActiveFriendCodes(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            String eTag = mockMvc.perform(get("/api/friend-codes").param("size", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes").param("size", "10").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andExpect(content().string(""));
+
+            verify(friendCodeService, times(1)).getActiveFriendCodes(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return the feed when the version or query changed")
+        void shouldReturnFeedWhenVersionOrQueryChanged() throws Exception {
+            // Given
+            when(feedVersionService.currentVersion()).thenReturn(Optional.of(42L), Optional.of(43L), Optional.of(43L));
+            when(friendCodeService.getActiveFriendCodes(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            String eTag = mockMvc.perform(get("/api/friend-codes"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            String bumpedETag = mockMvc.perform(get("/api/friend-codes").header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+            mockMvc.perform(get("/api/friend-codes").param("page", "1").header("If-None-Match", bumpedETag))
+                    .andExpect(status().isOk());
+
+            verify(friendCodeService, times(3)).getActiveFriendCodes(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return the feed again once it changed with time alone")
+        void shouldReturnFeedWhenTimeBoundaryPassed() throws Exception {
+            // Given - the next expiration passed between the two requests
+            when(feedVersionService.currentVersion()).thenReturn(Optional.of(42L));
+            when(feedVersionService.timeBoundary(false)).thenReturn("x2025-07-03T04:16:18", "x2025-07-04T04:16:18");
+            when(friendCodeService.getActiveFriendCodes(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            String eTag = mockMvc.perform(get("/api/friend-codes"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes").header("If-None-Match", eTag))
+                    .andExpect(status().isOk());
+
+            verify(friendCodeService, times(2)).getActiveFriendCodes(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should let ETags of the recent feed expire with its sliding window")
+        void shouldUseSlidingTimeBoundaryForRecentFeed() throws Exception {
+            // Given
+            when(feedVersionService.currentVersion()).thenReturn(Optional.of(42L));
+            when(friendCodeService.getRecentSubmissions(eq(24), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/recent"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"));
+
+            verify(feedVersionService).timeBoundary(true);
+        }
+
+        @Test
+        @DisplayName("Should not send an ETag when the feed version is unavailable")
+        void shouldNotSendETagWhenVersionUnavailable() throws Exception {
+            // Given
+            when(feedVersionService.currentVersion()).thenReturn(Optional.empty());
+            when(friendCodeService.getActiveFriendCodes(any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(FriendCodeResponse.fromEntity(testFriendCode)), PageRequest.of(0, 20), false));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes").header("If-None-Match", "*"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/friend-codes/export - Export Friend Codes")
+    class ExportFriendCodesTests {
+
+        @Test
+        @DisplayName("Should stream matching friend codes as NDJSON")
+        void shouldStreamFriendCodesAsNdjson() throws Exception {
+            // Given
+            FriendCode second = new FriendCode("210987654321", "SecondTrainer", 30, "Paris", null);
+            second.setId(2L);
+            when(friendCodeService.exportFriendCodes(any(FriendCodeSearchCriteria.class), any()))
+                    .thenAnswer(invocation -> {
+                        Consumer<FriendCodeResponse> consumer = invocation.getArgument(1);
+                        consumer.accept(FriendCodeResponse.fromEntity(testFriendCode));
+                        consumer.accept(FriendCodeResponse.fromEntity(second));
+                        return 2L;
+                    });
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/friend-codes/export").param("team", "MYSTIC"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readValue(lines[0], FriendCodeResponse.class).getId())
+                    .isEqualTo(1L);
+            assertThat(objectMapper.readValue(lines[1], FriendCodeResponse.class).getFriendCode())
+                    .isEqualTo("210987654321");
+
+            verify(friendCodeService).exportFriendCodes(
+                    argThat(criteria -> criteria.getTeam() == Team.MYSTIC), any());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid filters before streaming")
+        void shouldRejectInvalidFiltersBeforeStreaming() throws Exception {
+            // Given
+            doThrow(new ValidationException("Player level must be between 1 and 50"))
+                    .when(friendCodeService).validateSearchCriteria(any(FriendCodeSearchCriteria.class));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/export").param("minLevel", "99"))
+                    .andExpect(status().isBadRequest());
+
+            verify(friendCodeService, never()).exportFriendCodes(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/friend-codes/batch - Batch Submission")
+    class SubmitFriendCodesBatchTests {
+
+        @Test
+        @DisplayName("Should return per-entry results")
+        void shouldReturnPerEntryResults() throws Exception {
+            // Given
+            FriendCodeBatchSubmissionResponse response = FriendCodeBatchSubmissionResponse.of(List.of(
+                    FriendCodeBatchSubmissionResponse.Result.created(0, FriendCodeResponse.fromEntity(testFriendCode)),
+                    FriendCodeBatchSubmissionResponse.Result.rejected(1, "210987654321",
+                            FriendCodeBatchSubmissionResponse.Status.DUPLICATE, "Friend code already exists: 210987654321")));
+            when(friendCodeService.createFriendCodes(anyList(), anyString(), isNull())).thenReturn(response);
+            FriendCodeBatchSubmissionRequest request = new FriendCodeBatchSubmissionRequest(List.of(
+                    new FriendCodeSubmissionRequest("123456789012", "TestTrainer"),
+                    new FriendCodeSubmissionRequest("210987654321", "OtherTrainer")));
+
+            // When & Then
+            mockMvc.perform(post("/api/friend-codes/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.createdCount").value(1))
+                    .andExpect(jsonPath("$.rejectedCount").value(1))
+                    .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$.results[0].created.id").value(1))
+                    .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+                    .andExpect(jsonPath("$.results[1].friendCode").value("210987654321"))
+                    .andExpect(jsonPath("$.results[1].created").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an empty batch")
+        void shouldReturn400ForEmptyBatch() throws Exception {
+            // Given
+            FriendCodeBatchSubmissionRequest request = new FriendCodeBatchSubmissionRequest(List.of());
+
+            // When & Then
+            mockMvc.perform(post("/api/friend-codes/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(friendCodeService);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/friend-codes/lookup - Batch Lookup")
+    class LookupFriendCodesTests {
+
+        @Test
+        @DisplayName("Should return found and missing entries")
+        void shouldReturnFoundAndMissingEntries() throws Exception {
+            // Given
+            FriendCode expired = new FriendCode("210987654321", "ExpiredTrainer");
+            expired.setId(2L);
+            expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+            when(friendCodeService.lookupFriendCodes(List.of(1L, 3L), List.of("210987654321", "999999999999")))
+                    .thenReturn(List.of(expired, testFriendCode));
+            FriendCodeLookupRequest request = new FriendCodeLookupRequest(
+                    List.of(1L, 3L), List.of("210987654321", "999999999999"));
+
+            // When & Then
+            mockMvc.perform(post("/api/friend-codes/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.found.length()").value(2))
+                    .andExpect(jsonPath("$.found[0].id").value(1))
+                    .andExpect(jsonPath("$.found[0].friendCode").value("123456789012"))
+                    .andExpect(jsonPath("$.found[0].currentlyActive").value(true))
+                    .andExpect(jsonPath("$.found[1].id").value(2))
+                    .andExpect(jsonPath("$.found[1].currentlyActive").value(false))
+                    .andExpect(jsonPath("$.missingIds[0]").value(3))
+                    .andExpect(jsonPath("$.missingFriendCodes[0]").value("999999999999"));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for malformed friend codes")
+        void shouldReturn400ForMalformedFriendCodes() throws Exception {
+            // Given
+            FriendCodeLookupRequest request = new FriendCodeLookupRequest(List.of(), List.of("12345"));
+
+            // When & Then
+            mockMvc.perform(post("/api/friend-codes/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(friendCodeService);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/friend-codes/random - Random Friend Codes")
+    class RandomFriendCodesTests {
+
+        @Test
+        @DisplayName("Should return sampled friend codes")
+        void shouldReturnSampledFriendCodes() throws Exception {
+            // Given
+            when(randomFriendCodeSampler.sample(3)).thenReturn(List.of(FriendCodeResponse.fromEntity(testFriendCode)));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/random").param("count", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(jsonPath("$[0].id").value(1));
+        }
+
+        @Test
+        @DisplayName("Should cap the requested count")
+        void shouldCapRequestedCount() throws Exception {
+            // When
+            mockMvc.perform(get("/api/friend-codes/random").param("count", "1000"))
+                    .andExpect(status().isOk());
+
+            // Then
+            verify(randomFriendCodeSampler).sample(100);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/friend-codes/facets - Filter Facets")
+    class FacetsTests {
+
+        @Test
+        @DisplayName("Should return the facet counts")
+        void shouldReturnFacetCounts() throws Exception {
+            // Given
+            when(friendCodeFacetCounter.getFacets()).thenReturn(new FriendCodeFacetsResponse(3,
+                    Map.of("mystic", 2, "valor", 1, "instinct", 0),
+                    Map.of("raids", 1),
+                    Map.of("40+", 1)));
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/facets"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(3))
+                    .andExpect(jsonPath("$.teams.mystic").value(2))
+                    .andExpect(jsonPath("$.goals.raids").value(1))
+                    .andExpect(jsonPath("$.levels['40+']").value(1));
+
+            verifyNoInteractions(friendCodeService);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/friend-codes/stream - Stream New Friend Codes")
+    class StreamFriendCodesTests {
+
+        @Test
+        @DisplayName("Should open an event stream with the requested filters")
+        void shouldOpenEventStreamWithFilters() throws Exception {
+            // Given
+            when(friendCodeStreamBroadcaster.subscribe(Team.VALOR, "york")).thenReturn(new SseEmitter());
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/stream")
+                    .param("team", "valor")
+                    .param("location", "york")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(friendCodeStreamBroadcaster).subscribe(Team.VALOR, "york");
+            verifyNoInteractions(friendCodeService);
+        }
     }
 
     @Nested
@@ -330,6 +773,53 @@ class FriendCodeControllerTest {
             verify(friendCodeService).getFriendCodeById(1L);
         }
 
+        @Test
+        @DisplayName("Should return 304 when the friend code is unchanged")
+        void shouldReturn304WhenFriendCodeUnchanged() throws Exception {
+            // Given
+            when(friendCodeService.getFriendCodeById(1L)).thenReturn(testFriendCode);
+
+            String eTag = mockMvc.perform(get("/api/friend-codes/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("Last-Modified"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When & Then
+            mockMvc.perform(get("/api/friend-codes/1").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            testFriendCode.setUpdatedAt(testFriendCode.getUpdatedAt().plusSeconds(1));
+            mockMvc.perform(get("/api/friend-codes/1").header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        @Test
+        @DisplayName("Should send Last-Modified in the server's time zone and honor If-Modified-Since")
+        void shouldSendLastModifiedInServerTimeZone() throws Exception {
+            // Given - a host outside UTC
+            TimeZone defaultTimeZone = TimeZone.getDefault();
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            try {
+                testFriendCode.setUpdatedAt(LocalDateTime.of(2026, 10, 17, 9, 30, 15));
+                when(friendCodeService.getFriendCodeById(1L)).thenReturn(testFriendCode);
+                long updatedAt = ZonedDateTime.of(2026, 10, 17, 0, 30, 15, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+
+                // When & Then
+                mockMvc.perform(get("/api/friend-codes/1"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().dateValue("Last-Modified", updatedAt));
+
+                mockMvc.perform(get("/api/friend-codes/1").header("If-Modified-Since", "Sat, 17 Oct 2026 00:30:15 GMT"))
+                        .andExpect(status().isNotModified());
+                mockMvc.perform(get("/api/friend-codes/1").header("If-Modified-Since", "Sat, 17 Oct 2026 00:30:14 GMT"))
+                        .andExpect(status().isOk());
+            } finally {
+                TimeZone.setDefault(defaultTimeZone);
+            }
+        }
+
         @Test
         @DisplayName("Should return 404 for non-existent friend code")
         void shouldReturn404ForNonExistentFriendCode() throws Exception {
@@ -0,0 +1,65 @@
+package com.devs.simplicity.poke_go_friends.controller;
+
+import com.devs.simplicity.poke_go_friends.dto.LocationSuggestion;
+import com.devs.simplicity.poke_go_friends.service.LocationSuggestionIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for LocationController.
+ */
+@WebMvcTest(value = LocationController.class,
+    excludeAutoConfiguration = {SecurityAutoConfiguration.class})
+@DisplayName("LocationController Tests")
+class LocationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LocationSuggestionIndex locationSuggestionIndex;
+
+    @Nested
+    @DisplayName("GET /api/locations/suggest - Location Suggestions")
+    class SuggestLocationsTests {
+
+        @Test
+        @DisplayName("Should return suggestions with their counts")
+        void shouldReturnSuggestions() throws Exception {
+            // Given
+            when(locationSuggestionIndex.suggest("new", 10)).thenReturn(List.of(
+                    new LocationSuggestion("New York, NY", 12), new LocationSuggestion("Newark", 3)));
+
+            // When & Then
+            mockMvc.perform(get("/api/locations/suggest").param("q", "new"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].location").value("New York, NY"))
+                    .andExpect(jsonPath("$[0].count").value(12))
+                    .andExpect(jsonPath("$[1].location").value("Newark"));
+        }
+
+        @Test
+        @DisplayName("Should cap the requested limit")
+        void shouldCapRequestedLimit() throws Exception {
+            // When
+            mockMvc.perform(get("/api/locations/suggest").param("q", "new").param("limit", "500"))
+                    .andExpect(status().isOk());
+
+            // Then
+            verify(locationSuggestionIndex).suggest(eq("new"), eq(20));
+        }
+    }
+}
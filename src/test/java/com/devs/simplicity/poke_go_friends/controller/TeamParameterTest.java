@@ -1,6 +1,11 @@
 package com.devs.simplicity.poke_go_friends.controller;
 
+import com.devs.simplicity.poke_go_friends.service.FeedVersionService;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeCountEstimator;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeFacetCounter;
 import com.devs.simplicity.poke_go_friends.service.FriendCodeService;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeStreamBroadcaster;
+import com.devs.simplicity.poke_go_friends.service.RandomFriendCodeSampler;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +36,21 @@ class TeamParameterTest {
     @MockitoBean
     private FriendCodeService friendCodeService;
 
+    @MockitoBean
+    private FriendCodeCountEstimator friendCodeCountEstimator;
+
+    @MockitoBean
+    private FeedVersionService feedVersionService;
+
+    @MockitoBean
+    private FriendCodeStreamBroadcaster friendCodeStreamBroadcaster;
+
+    @MockitoBean
+    private RandomFriendCodeSampler randomFriendCodeSampler;
+
+    @MockitoBean
+    private FriendCodeFacetCounter friendCodeFacetCounter;
+
     @Test
     @DisplayName("Should accept valid lowercase team parameter")
     void shouldAcceptValidLowercaseTeamParameter() throws Exception {
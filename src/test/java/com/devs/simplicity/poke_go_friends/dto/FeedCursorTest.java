@@ -0,0 +1,42 @@
+package com.devs.simplicity.poke_go_friends.dto;
+
+import com.devs.simplicity.poke_go_friends.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FeedCursor encoding and decoding.
+ */
+@DisplayName("FeedCursor")
+class FeedCursorTest {
+
+    @Test
+    @DisplayName("should round-trip through the opaque token")
+    void shouldRoundTripThroughToken() {
+        // Arrange
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2025, 7, 3, 4, 16, 18, 278_123_000), 42L);
+
+        // Act
+        String token = cursor.encode();
+        FeedCursor decoded = FeedCursor.decode(token);
+
+        // Assert
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("should reject malformed tokens")
+    void shouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> FeedCursor.decode("not-a-cursor"))
+            .isInstanceOf(ValidationException.class)
+            .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> FeedCursor.decode(""))
+            .isInstanceOf(ValidationException.class);
+    }
+}
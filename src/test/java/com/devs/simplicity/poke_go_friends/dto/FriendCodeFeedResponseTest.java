@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -296,6 +297,69 @@ class FriendCodeFeedResponseTest {
         }
     }
 
+    @Nested
+    @DisplayName("Slice Mapping Tests")
+    class SliceMappingTests {
+
+        @Test
+        @DisplayName("should map slice with next cursor and without totals")
+        void shouldMapSliceWithNextCursorAndWithoutTotals() {
+            // Arrange
+            LocalDateTime now = LocalDateTime.now();
+            List<FriendCode> entities = Arrays.asList(
+                createFriendCodeEntity(2L, "234567890123", "Trainer2", 30, now),
+                createFriendCodeEntity(1L, "123456789012", "Trainer1", 25, now.minusMinutes(1))
+            );
+            SliceImpl<FriendCode> slice = new SliceImpl<>(entities, PageRequest.of(0, 2), true);
+
+            // Act
+            FriendCodeFeedResponse response = FriendCodeFeedResponse.fromSlice(slice);
+
+            // Assert
+            assertThat(response.getContent()).hasSize(2);
+            assertThat(response.getTotalElements()).isNull();
+            assertThat(response.getTotalPages()).isNull();
+            assertThat(response.isLast()).isFalse();
+            assertThat(FeedCursor.decode(response.getNextCursor()))
+                .isEqualTo(new FeedCursor(now.minusMinutes(1), 1L));
+        }
+
+        @Test
+        @DisplayName("should not return next cursor for last slice")
+        void shouldNotReturnNextCursorForLastSlice() {
+            // Arrange
+            List<FriendCode> entities = Collections.singletonList(
+                createFriendCodeEntity(1L, "123456789012", "Trainer1", 25, LocalDateTime.now())
+            );
+            SliceImpl<FriendCode> slice = new SliceImpl<>(entities, PageRequest.of(0, 2), false);
+
+            // Act
+            FriendCodeFeedResponse response = FriendCodeFeedResponse.fromSlice(slice);
+
+            // Assert
+            assertThat(response.isLast()).isTrue();
+            assertThat(response.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should raise estimated total to cover rows already seen")
+        void shouldRaiseEstimatedTotalToCoverRowsAlreadySeen() {
+            // Arrange
+            List<FriendCode> entities = Collections.singletonList(
+                createFriendCodeEntity(5L, "123456789012", "Trainer1", 25, LocalDateTime.now())
+            );
+            SliceImpl<FriendCode> slice = new SliceImpl<>(entities, PageRequest.of(2, 2), true);
+
+            // Act
+            FriendCodeFeedResponse response = FriendCodeFeedResponse.fromSlice(slice, 3L);
+
+            // Assert
+            assertThat(response.getTotalElements()).isEqualTo(6L);
+            assertThat(response.getTotalPages()).isEqualTo(3);
+            assertThat(response.getPage()).isEqualTo(2);
+        }
+    }
+
     // Helper methods
     private FriendCode createFriendCodeEntity(Long id, String friendCode, String trainerName, Integer level, LocalDateTime time) {
         FriendCode entity = new FriendCode(friendCode, trainerName, level, null, null);
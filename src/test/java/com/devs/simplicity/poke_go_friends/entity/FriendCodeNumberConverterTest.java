@@ -0,0 +1,50 @@
+package com.devs.simplicity.poke_go_friends.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FriendCodeNumberConverterTest {
+
+    private final FriendCodeNumberConverter converter = new FriendCodeNumberConverter();
+
+    @Test
+    void convertToDatabaseColumn_shouldStoreTheCodeAsANumber() {
+        assertThat(converter.convertToDatabaseColumn("123456789012")).isEqualTo(123_456_789_012L);
+        assertThat(converter.convertToDatabaseColumn("999999999999")).isEqualTo(999_999_999_999L);
+    }
+
+    @Test
+    void convertToEntityAttribute_shouldKeepLeadingZeros() {
+        assertThat(converter.convertToEntityAttribute(0L)).isEqualTo("000000000000");
+        assertThat(converter.convertToEntityAttribute(1_234L)).isEqualTo("000000001234");
+        assertThat(converter.convertToDatabaseColumn(converter.convertToEntityAttribute(1_234L))).isEqualTo(1_234L);
+    }
+
+    @Test
+    void convert_withNull_shouldReturnNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void toNumber_shouldIgnoreSpacesAndDashes() {
+        assertThat(FriendCodeNumberConverter.toNumber("1234 5678 9012")).isEqualTo(123_456_789_012L);
+        assertThat(FriendCodeNumberConverter.toNumber("1234-5678-9012")).isEqualTo(123_456_789_012L);
+    }
+
+    @Test
+    void toNumber_withMalformedCode_shouldReturnNull() {
+        assertThat(FriendCodeNumberConverter.toNumber("12345678901")).isNull();
+        assertThat(FriendCodeNumberConverter.toNumber("1234567890123")).isNull();
+        assertThat(FriendCodeNumberConverter.toNumber("12345678901a")).isNull();
+        assertThat(FriendCodeNumberConverter.toNumber("")).isNull();
+    }
+
+    @Test
+    void convertToDatabaseColumn_withMalformedCode_shouldThrow() {
+        assertThatThrownBy(() -> converter.convertToDatabaseColumn("12345"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
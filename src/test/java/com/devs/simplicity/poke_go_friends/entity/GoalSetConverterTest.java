@@ -0,0 +1,40 @@
+package com.devs.simplicity.poke_go_friends.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoalSetConverterTest {
+
+    private final GoalSetConverter converter = new GoalSetConverter();
+
+    @Test
+    void convertToDatabaseColumn_shouldSetOneBitPerGoal() {
+        assertThat(converter.convertToDatabaseColumn(Set.of(Goal.GIFTS, Goal.RAIDS))).isEqualTo((short) 5);
+        assertThat(converter.convertToDatabaseColumn(Set.of(Goal.ALL))).isEqualTo((short) 8);
+    }
+
+    @Test
+    void convertToDatabaseColumn_withNullOrEmpty_shouldStoreZero() {
+        assertThat(converter.convertToDatabaseColumn(null)).isEqualTo((short) 0);
+        assertThat(converter.convertToDatabaseColumn(Set.of())).isEqualTo((short) 0);
+    }
+
+    @Test
+    void convertToEntityAttribute_shouldRoundTripEveryCombination() {
+        for (short mask = 0; mask < 16; mask++) {
+            assertThat(converter.convertToDatabaseColumn(converter.convertToEntityAttribute(mask))).isEqualTo(mask);
+        }
+    }
+
+    @Test
+    void convertToEntityAttribute_withNull_shouldReturnMutableEmptySet() {
+        Set<Goal> goals = converter.convertToEntityAttribute(null);
+
+        assertThat(goals).isEmpty();
+        goals.add(Goal.EXP);
+        assertThat(goals).containsExactly(Goal.EXP);
+    }
+}
@@ -0,0 +1,127 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the Flyway migrations against PostgreSQL.
+ * The database is migrated to V13 and given friend codes before the application starts, so the
+ * application's own Flyway run applies V14 to existing rows, in the hourly and default partitions.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@DisplayName("Flyway Migrations PostgreSQL Tests")
+class FlywayMigrationsPostgresIT {
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "migrations", FlywayMigrationsPostgresIT::seedBeforeV14);
+    }
+
+    private static void seedBeforeV14(DataSource dataSource) {
+        Flyway.configure().dataSource(dataSource).target("13").load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String insert = "INSERT INTO friend_codes (friend_code, trainer_name, created_at) VALUES (?, ?, ?)";
+        jdbcTemplate.update(insert, "123456789012", "Recent", LocalDateTime.now());
+        jdbcTemplate.update(insert, "000000000042", "Old", LocalDateTime.now().minusDays(30));
+    }
+
+    private int countPartitions() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'friend_codes'::regclass", Integer.class);
+    }
+
+    private int countPartitionIndexes() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'idx_friend_codes_friend_code'::regclass",
+                Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should store existing friend codes as numbers in both tables")
+    void shouldConvertExistingFriendCodes() {
+        // Then
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT table_name || '.' || data_type FROM information_schema.columns
+                WHERE column_name = 'friend_code' AND table_name IN ('friend_codes', 'friend_code_keys')
+                ORDER BY table_name""", String.class))
+                .containsExactly("friend_code_keys.bigint", "friend_codes.bigint");
+        assertThat(jdbcTemplate.queryForList("SELECT friend_code FROM friend_code_keys ORDER BY friend_code", Long.class))
+                .containsExactly(42L, 123_456_789_012L);
+
+        assertThat(friendCodeRepository.findByFriendCode("000000000042"))
+                .map(FriendCode::getTrainerName).hasValue("Old");
+        assertThat(friendCodeRepository.findByFriendCode("123456789012"))
+                .map(FriendCode::getTrainerName).hasValue("Recent");
+    }
+
+    @Test
+    @DisplayName("Should check friend codes on every partition")
+    void shouldCheckFriendCodes() {
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT attnotnull FROM pg_attribute WHERE attrelid = 'friend_codes'::regclass AND attname = 'friend_code'",
+                Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_constraint
+                WHERE conname = 'chk_friend_code_format' AND contype = 'c' AND convalidated""", Integer.class))
+                .isEqualTo(countPartitions() + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep a valid friend code index on every partition")
+    void shouldKeepFriendCodeIndex() {
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_friend_codes_friend_code'", String.class))
+                .contains("friend_codes USING btree (friend_code)");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = 'idx_friend_codes_friend_code'::regclass",
+                Boolean.class)).isTrue();
+        assertThat(countPartitionIndexes()).isEqualTo(countPartitions());
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE indexname LIKE '%friend_code_number%'", String.class))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should index partitions created after the migration")
+    void shouldIndexNewPartitions() {
+        // When
+        jdbcTemplate.queryForObject("SELECT create_friend_code_partitions(LOCALTIMESTAMP + INTERVAL '7 days', "
+                + "LOCALTIMESTAMP + INTERVAL '7 days 2 hours')", Integer.class);
+
+        // Then
+        assertThat(countPartitionIndexes()).isEqualTo(countPartitions());
+    }
+}
@@ -0,0 +1,117 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the feed queries' plans against PostgreSQL.
+ * The database holds 20,000 friend codes over the last day, a tenth of them deactivated, so the planner
+ * chooses as it would in production; each test explains the statement a repository call ran.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    RecordingStatementInspector.PROPERTY
+})
+@ActiveProfiles("test")
+@DisplayName("Friend Code Feed PostgreSQL Tests")
+class FriendCodeFeedPostgresIT {
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "friend_code_feed", FriendCodeFeedPostgresIT::seed);
+    }
+
+    private static void seed(DataSource dataSource) {
+        PostgresTestDatabases.migrate(dataSource);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+                INSERT INTO friend_codes (friend_code, trainer_name, created_at, is_active)
+                SELECT g, 'Trainer' || g, LOCALTIMESTAMP - g * INTERVAL '4 seconds', g % 10 <> 0
+                FROM generate_series(1, 20000) g""");
+        jdbcTemplate.execute("ANALYZE friend_codes");
+    }
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.clear();
+    }
+
+    /**
+     * Plan of the first SELECT the repository call ran, before any count query.
+     */
+    private String plan() {
+        return RecordingStatementInspector.explain(jdbcTemplate, RecordingStatementInspector.selects().get(0));
+    }
+
+    @Test
+    @DisplayName("Should read the first feed page in order off the partial feed index")
+    void shouldReadFirstPageOffFeedIndex() {
+        // When
+        Slice<FriendCodeResponse> page = friendCodeRepository.findResponseSlice(
+                FriendCodeSpecifications.isActive(LocalDateTime.now()), PageRequest.of(0, 20, FeedCursor.FEED_SORT));
+
+        // Then
+        assertThat(page.getContent()).hasSize(20)
+                .allSatisfy(friendCode -> assertThat(friendCode.getIsActive()).isTrue())
+                .isSortedAccordingTo(Comparator.comparing(FriendCodeResponse::getCreatedAt).reversed());
+        assertThat(plan()).contains("created_at_id_idx")
+                .doesNotContain("_created_at_idx", "Seq Scan", "Sort  (");
+    }
+
+    @Test
+    @DisplayName("Should seek past a cursor with an index range on created_at")
+    void shouldSeekPastCursorOnFeedIndex() {
+        // Given
+        FeedCursor cursor = new FeedCursor(LocalDateTime.now().minusHours(12), Long.MAX_VALUE);
+
+        // When
+        friendCodeRepository.findResponseSlice(FriendCodeSpecifications.isActive(LocalDateTime.now())
+                .and(FriendCodeSpecifications.createdBefore(cursor)), PageRequest.of(0, 20, FeedCursor.FEED_SORT));
+
+        // Then
+        assertThat(plan()).contains("Index Cond: (created_at <= $2)").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Should let JPQL active-code queries use the partial feed index")
+    void shouldReadActiveFriendCodesOffFeedIndex() {
+        // When
+        friendCodeRepository.findActiveFriendCodes(LocalDateTime.now(), PageRequest.of(0, 20));
+
+        // Then
+        assertThat(plan()).contains("created_at_id_idx").doesNotContain("Seq Scan");
+    }
+}
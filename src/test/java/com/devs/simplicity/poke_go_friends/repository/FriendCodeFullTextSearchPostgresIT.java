@@ -0,0 +1,131 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of full-text search against PostgreSQL.
+ * Queries with the specifications the service uses when app.feed.full-text-search-enabled is set, which
+ * render through the fts_match and fts_rank functions. Besides the friend codes under test, the database
+ * holds 20,000 friend codes that match none of the searches, so the planner chooses as it would in production.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    RecordingStatementInspector.PROPERTY
+})
+@ActiveProfiles("test")
+@DisplayName("Full-Text Search PostgreSQL Tests")
+class FriendCodeFullTextSearchPostgresIT {
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "friend_code_full_text_search",
+                FriendCodeFullTextSearchPostgresIT::seed);
+    }
+
+    private static void seed(DataSource dataSource) {
+        PostgresTestDatabases.migrate(dataSource);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+                INSERT INTO friend_codes (friend_code, trainer_name, description, created_at)
+                SELECT g, 'Trainer' || g, 'Trading shinies #' || g, LOCALTIMESTAMP - g * INTERVAL '4 seconds'
+                FROM generate_series(1, 20000) g""");
+
+        String insert = """
+                INSERT INTO friend_codes (friend_code, trainer_name, location, description, created_at)
+                VALUES (?, ?, ?, ?, LOCALTIMESTAMP - ? * INTERVAL '1 hour')""";
+        jdbcTemplate.update(insert, 900_000_000_001L, "Ash", null, "Looking for a raid and daily gifts", 3);
+        jdbcTemplate.update(insert, 900_000_000_002L, "Misty", null, "Looking for a raid and daily gifts", 1);
+        jdbcTemplate.update(insert, 900_000_000_003L, "Brock", "Daily Raid Gifts Club", null, 5);
+        jdbcTemplate.update(insert, 900_000_000_004L, "Dawn", null, "Daily gifts, no raids", 2);
+        jdbcTemplate.update(insert, 900_000_000_005L, "Gary", null, "Daily gifts only", 2);
+        jdbcTemplate.execute("ANALYZE friend_codes");
+    }
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.clear();
+    }
+
+    private Specification<FriendCode> search(String searchText) {
+        FriendCodeSearchCriteria criteria = new FriendCodeSearchCriteria();
+        criteria.setSearchText(searchText);
+        return FriendCodeSpecifications.withCriteria(criteria, LocalDateTime.now(), true)
+                .and(FriendCodeSpecifications.orderByRelevance(searchText));
+    }
+
+    private List<String> searchTrainerNames(String searchText) {
+        return friendCodeRepository.findResponseSlice(search(searchText), PageRequest.of(0, 10)).getContent()
+                .stream().map(FriendCodeResponse::getTrainerName).toList();
+    }
+
+    @Test
+    @DisplayName("Should match all words of the search text, in any order and inflection")
+    void shouldMatchStemmedWords() {
+        // When
+        List<String> trainerNames = searchTrainerNames("raids daily gifts");
+
+        // Then
+        assertThat(trainerNames).containsExactlyInAnyOrder("Ash", "Misty", "Brock", "Dawn");
+    }
+
+    @Test
+    @DisplayName("Should rank by relevance, then newest first among equally relevant friend codes")
+    void shouldRankByRelevanceThenRecency() {
+        // When
+        List<String> trainerNames = searchTrainerNames("raid daily gifts");
+
+        // Then - a location match weighs more than a description match
+        assertThat(trainerNames).startsWith("Brock");
+        assertThat(trainerNames.indexOf("Misty")).isLessThan(trainerNames.indexOf("Ash"));
+    }
+
+    @Test
+    @DisplayName("Should find matches through the search document index")
+    void shouldUseSearchDocumentIndex() {
+        // When
+        friendCodeRepository.findResponseSlice(search("raids daily gifts"), PageRequest.of(0, 10));
+
+        // Then - empty partitions are scanned, as there is nothing to read
+        String plan = RecordingStatementInspector.explain(jdbcTemplate, RecordingStatementInspector.selects().get(0));
+        List<String> populatedPartitions = jdbcTemplate.queryForList(
+                "SELECT DISTINCT tableoid::regclass::text FROM friend_codes", String.class);
+        assertThat(populatedPartitions).isNotEmpty().allSatisfy(partition -> assertThat(plan)
+                .contains("Bitmap Index Scan on " + partition + "_friend_code_search_document_idx")
+                .doesNotContain("Seq Scan on " + partition + " "));
+    }
+}
@@ -0,0 +1,160 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.config.CleanupConfig;
+import com.devs.simplicity.poke_go_friends.service.FriendCodeCleanupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the hourly friend_codes partitions against PostgreSQL.
+ * Covers the V8 create_friend_code_partitions and drop_friend_code_partitions functions through the
+ * repository, and the cleanup job with app.cleanup.partitioned set, as in production. The function tests
+ * use hours days in the past, away from the partitions the migration creates around the current time.
+ * Runs outside a test transaction because the functions create and drop tables.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "app.cleanup.partitioned=true"
+})
+@Import({FriendCodeCleanupService.class, CleanupConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Friend Code Partitions PostgreSQL Tests")
+class FriendCodePartitionsPostgresIT {
+
+    private static final DateTimeFormatter PARTITION_HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private FriendCodeCleanupService friendCodeCleanupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "friend_code_partitions");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE friend_codes, friend_code_keys");
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private void insert(long friendCode, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO friend_codes (friend_code, trainer_name, created_at) VALUES (?, ?, ?)",
+                friendCode, "Trainer" + friendCode, createdAt);
+    }
+
+    private static String partition(LocalDateTime hour) {
+        return "friend_codes_p" + hour.format(PARTITION_HOUR);
+    }
+
+    private boolean exists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    private List<Long> storedFriendCodes(String table) {
+        return jdbcTemplate.queryForList("SELECT friend_code FROM " + table + " ORDER BY friend_code", Long.class);
+    }
+
+    @Test
+    @DisplayName("Should drop expired partitions, delete the remaining older rows and release their keys")
+    void shouldDropExpiredPartitions() {
+        // Given - three hourly partitions, the last straddling the cutoff, and an older row in the default partition
+        LocalDateTime hour = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.HOURS);
+        assertThat(inTransaction(() -> friendCodeRepository.createPartitions(hour, hour.plusHours(3)))).isEqualTo(3);
+        insert(1, hour.plusMinutes(10));
+        insert(2, hour.plusHours(1).plusMinutes(10));
+        insert(3, hour.plusHours(2).plusMinutes(10));
+        insert(4, hour.plusHours(2).plusMinutes(50));
+        insert(5, hour.minusHours(5));
+        LocalDateTime cutoff = hour.plusHours(2).plusMinutes(30);
+
+        // When
+        int removed = inTransaction(() -> friendCodeRepository.dropPartitionsBefore(cutoff));
+
+        // Then
+        assertThat(removed).isEqualTo(4);
+        assertThat(exists(partition(hour))).isFalse();
+        assertThat(exists(partition(hour.plusHours(1)))).isFalse();
+        assertThat(exists(partition(hour.plusHours(2)))).isTrue();
+        assertThat(storedFriendCodes("friend_codes")).containsExactly(4L);
+        assertThat(storedFriendCodes("friend_code_keys")).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should skip hours with rows in the default partition and partitions that exist")
+    void shouldSkipHoursInDefaultPartition() {
+        // Given - a row stored before its hour had a partition
+        LocalDateTime hour = LocalDateTime.now().minusDays(20).truncatedTo(ChronoUnit.HOURS);
+        insert(1, hour.plusMinutes(15));
+
+        // When
+        int created = inTransaction(() -> friendCodeRepository.createPartitions(hour, hour.plusHours(2)));
+        int createdAgain = inTransaction(() -> friendCodeRepository.createPartitions(hour, hour.plusHours(2)));
+
+        // Then
+        assertThat(created).isEqualTo(1);
+        assertThat(createdAgain).isZero();
+        assertThat(exists(partition(hour))).isFalse();
+        assertThat(exists(partition(hour.plusHours(1)))).isTrue();
+        assertThat(storedFriendCodes("friend_codes_default")).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should remove expired friend codes and create upcoming partitions in the cleanup job")
+    void shouldCleanUpByPartition() {
+        // Given - an upcoming partition is missing
+        LocalDateTime now = LocalDateTime.now();
+        String upcoming = partition(now.plusHours(47));
+        jdbcTemplate.execute("DROP TABLE " + upcoming);
+        insert(1, now.minusHours(30));
+        insert(2, now.minusMinutes(5));
+
+        // When
+        friendCodeCleanupService.cleanupOldFriendCodes();
+
+        // Then
+        assertThat(storedFriendCodes("friend_codes")).containsExactly(2L);
+        assertThat(storedFriendCodes("friend_code_keys")).containsExactly(2L);
+        assertThat(exists(upcoming)).isTrue();
+    }
+}
@@ -0,0 +1,157 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the native friend code insert against PostgreSQL.
+ * The schema is built by the Flyway migrations, V1 to the latest, on an embedded PostgreSQL server, so the
+ * multi-row INSERT ... ON CONFLICT runs against the real friend_code_keys table and its triggers.
+ * Runs outside a test transaction so concurrent inserts see each other's commits.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("FriendCodeRepository PostgreSQL Tests")
+class FriendCodeRepositoryPostgresIT {
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "friend_code_repository");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE friend_codes, friend_code_keys");
+    }
+
+    private FriendCode friendCode(String code, String trainerName) {
+        return new FriendCode(code, trainerName, 35, "Lisbon", "Daily gifts", Team.MYSTIC, Set.of(Goal.GIFTS));
+    }
+
+    private List<FriendCode> insertIfAbsent(FriendCode... friendCodes) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> friendCodeRepository.insertIfAbsent(List.of(friendCodes)));
+    }
+
+    private int countKeys() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM friend_code_keys", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should insert new friend codes with their ids and claim their keys")
+    void shouldInsertNewFriendCodes() {
+        // When
+        List<FriendCode> inserted = insertIfAbsent(friendCode("123456789012", "First"), friendCode("000000000042", "Second"));
+
+        // Then
+        assertThat(inserted).extracting(FriendCode::getFriendCode).containsExactly("123456789012", "000000000042");
+        assertThat(inserted).allSatisfy(friendCode -> {
+            assertThat(friendCode.getId()).isNotNull();
+            assertThat(friendCode.getCreatedAt()).isNotNull();
+        });
+
+        FriendCode stored = friendCodeRepository.findByFriendCode("000000000042").orElseThrow();
+        assertThat(stored.getId()).isEqualTo(inserted.get(1).getId());
+        assertThat(stored.getTrainerName()).isEqualTo("Second");
+        assertThat(stored.getTeam()).isEqualTo(Team.MYSTIC);
+        assertThat(stored.getGoals()).containsExactly(Goal.GIFTS);
+        assertThat(stored.getCreatedAt()).isEqualTo(inserted.get(1).getCreatedAt());
+        assertThat(countKeys()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip friend codes that already exist or repeat within the batch")
+    void shouldSkipDuplicates() {
+        // Given
+        Long existingId = insertIfAbsent(friendCode("123456789012", "Existing")).get(0).getId();
+
+        // When
+        List<FriendCode> inserted = insertIfAbsent(friendCode("123456789012", "Again"),
+                friendCode("210987654321", "New"), friendCode("210987654321", "Repeated"));
+
+        // Then
+        assertThat(inserted).extracting(FriendCode::getTrainerName).containsExactly("New");
+        assertThat(friendCodeRepository.findByFriendCode("123456789012"))
+                .hasValueSatisfying(friendCode -> {
+                    assertThat(friendCode.getId()).isEqualTo(existingId);
+                    assertThat(friendCode.getTrainerName()).isEqualTo("Existing");
+                });
+        assertThat(friendCodeRepository.count()).isEqualTo(2);
+        assertThat(countKeys()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should insert a friend code once when two transactions insert it concurrently")
+    void shouldInsertConcurrentDuplicateOnce() throws Exception {
+        // Given - the first transaction has claimed the code but not committed yet
+        CompletableFuture<List<FriendCode>> second = new TransactionTemplate(transactionManager).execute(status -> {
+            friendCodeRepository.insertIfAbsent(List.of(friendCode("123456789012", "First")));
+
+            CompletableFuture<List<FriendCode>> concurrent = CompletableFuture.supplyAsync(() ->
+                    insertIfAbsent(friendCode("123456789012", "Second"), friendCode("210987654321", "Other")));
+
+            // When - the second insert waits on the claimed key until the first commits
+            awaitBlockedTransaction();
+            return concurrent;
+        });
+
+        // Then
+        assertThat(second.get(10, TimeUnit.SECONDS)).extracting(FriendCode::getTrainerName).containsExactly("Other");
+        assertThat(friendCodeRepository.findByFriendCode("123456789012"))
+                .hasValueSatisfying(friendCode -> assertThat(friendCode.getTrainerName()).isEqualTo("First"));
+        assertThat(friendCodeRepository.count()).isEqualTo(2);
+        assertThat(countKeys()).isEqualTo(2);
+    }
+
+    private void awaitBlockedTransaction() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE NOT granted", Integer.class) == 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Second insert never waited on the first");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
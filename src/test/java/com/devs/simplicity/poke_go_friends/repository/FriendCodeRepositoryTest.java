@@ -1,28 +1,47 @@
 package com.devs.simplicity.poke_go_friends.repository;
 
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
 import com.devs.simplicity.poke_go_friends.entity.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications.containsText;
+import static com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications.createdBefore;
+import static com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications.hasAnyGoal;
+import static com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications.hasLocation;
+import static com.devs.simplicity.poke_go_friends.repository.specification.FriendCodeSpecifications.isActive;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for FriendCodeRepository.
  * Tests all custom queries and repository methods.
  */
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class FriendCodeRepositoryTest {
 
@@ -188,6 +207,16 @@ class FriendCodeRepositoryTest {
         assertThat(result.get().getTrainerName()).isEqualTo("ActiveTrainer1");
     }
 
+    @Test
+    void saveAndFlush_withExistingFriendCode_shouldReportTheFriendCodeKey() {
+        // When & Then - the service tells duplicates from other violations by this constraint name
+        assertThatThrownBy(() -> friendCodeRepository.saveAndFlush(new FriendCode("123456789012", "Copycat")))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .cause()
+            .isInstanceOfSatisfying(ConstraintViolationException.class, violation ->
+                assertThat(violation.getConstraintName()).containsIgnoringCase(FriendCode.FRIEND_CODE_KEY));
+    }
+
     @Test
     void findByFriendCode_shouldReturnEmptyForNonExistentCode() {
         // When
@@ -209,6 +238,28 @@ class FriendCodeRepositoryTest {
         assertThat(result.get(0).getExpiresAt()).isBefore(currentTime);
     }
 
+    @Test
+    void visibleUntil_shouldFollowActiveFlagAndExpiration() {
+        // Given
+        FriendCode deactivated = friendCodeRepository.findById(activeFriendCode1.getId()).orElseThrow();
+        deactivated.deactivate();
+        FriendCode renewed = friendCodeRepository.findById(expiredFriendCode.getId()).orElseThrow();
+        renewed.setExpiration(currentTime.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<FriendCode> result = friendCodeRepository.findAll(isActive(currentTime));
+
+        // Then
+        assertThat(result).extracting(FriendCode::getFriendCode)
+            .containsExactlyInAnyOrder("234567890123", "456789012345");
+        assertThat(friendCodeRepository.findById(activeFriendCode2.getId()).orElseThrow().getVisibleUntil())
+            .isEqualTo(FriendCode.VISIBLE_FOREVER);
+        assertThat(friendCodeRepository.findById(inactiveFriendCode.getId()).orElseThrow().getVisibleUntil())
+            .isEqualTo(FriendCode.HIDDEN);
+    }
+
     @Test
     void countActiveFriendCodes_shouldReturnCorrectCount() {
         // When
@@ -218,6 +269,17 @@ class FriendCodeRepositoryTest {
         assertThat(count).isEqualTo(2L);
     }
 
+    @Test
+    void countActiveFriendCodesByFacet_shouldGroupActiveCodesByTeamGoalsAndLevel() {
+        // When
+        List<Object[]> groups = friendCodeRepository.countActiveFriendCodesByFacet(currentTime);
+
+        // Then
+        assertThat(groups).hasSize(2);
+        assertThat(groups).extracting(group -> group[2]).containsExactlyInAnyOrder(30, 40);
+        assertThat(groups).extracting(group -> group[3]).containsOnly(1L);
+    }
+
     @Test
     void countByUser_shouldReturnUserFriendCodeCount() {
         // When
@@ -328,4 +390,202 @@ class FriendCodeRepositoryTest {
         assertThat(firstPageResult.isFirst()).isTrue();
         assertThat(secondPageResult.isFirst()).isFalse();
     }
+
+    @Test
+    void findSlice_shouldSeekPastCursorWithoutSkippingOrRepeating() {
+        // Given - codes sharing the same timestamp exercise the id tie-breaker
+        LocalDateTime sameTime = currentTime.minusMinutes(5);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(new FriendCode(String.format("%012d", 600000000000L + i), "Keyset" + i));
+        }
+        entityManager.flush();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE friend_codes SET created_at = ?1 WHERE trainer_name LIKE 'Keyset%'")
+            .setParameter(1, sameTime)
+            .executeUpdate();
+        entityManager.clear();
+
+        List<String> seen = new ArrayList<>();
+        FeedCursor cursor = null;
+
+        // When - walk the whole feed two rows at a time
+        Slice<FriendCode> slice;
+        do {
+            slice = friendCodeRepository.findSlice(
+                isActive(currentTime).and(createdBefore(cursor)), PageRequest.of(0, 2, FeedCursor.FEED_SORT));
+            slice.getContent().forEach(fc -> seen.add(fc.getFriendCode()));
+            cursor = slice.hasNext() ? FeedCursor.of(slice.getContent().get(slice.getContent().size() - 1)) : null;
+        } while (slice.hasNext());
+
+        // Then
+        assertThat(seen).hasSize(7); // 2 original active + 5 new
+        assertThat(seen).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void findSlice_shouldLoadGoalsWithoutExtraStatements() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            FriendCode friendCode = new FriendCode(String.format("%012d", 700000000000L + i), "Goals" + i);
+            friendCode.setGoals(Set.of(Goal.GIFTS, Goal.RAIDS));
+            entityManager.persist(friendCode);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = resetStatistics();
+
+        // When
+        Slice<FriendCode> slice = friendCodeRepository.findSlice(
+            isActive(currentTime), PageRequest.of(0, 12, FeedCursor.FEED_SORT));
+        List<FriendCodeResponse> responses = slice.getContent().stream()
+            .map(FriendCodeResponse::fromEntity)
+            .toList();
+
+        // Then - goals come from goals_mask on the same row, so a single select serves the page
+        assertThat(responses).hasSize(12);
+        assertThat(responses).filteredOn(r -> r.getFriendCode().startsWith("7000"))
+            .allSatisfy(r -> assertThat(r.getGoals()).containsExactlyInAnyOrder(Goal.GIFTS, Goal.RAIDS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll_withSpecificationPage_shouldNotLoadGoalsPerRow() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            FriendCode friendCode = new FriendCode(String.format("%012d", 710000000000L + i), "Paged" + i);
+            friendCode.setGoals(Set.of(Goal.EXP));
+            entityManager.persist(friendCode);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = resetStatistics();
+
+        // When
+        Page<FriendCode> page = friendCodeRepository.findAll(isActive(currentTime), PageRequest.of(0, 5, FeedCursor.FEED_SORT));
+        page.getContent().forEach(FriendCodeResponse::fromEntity);
+
+        // Then - select and count only
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findResponseSlice_shouldProjectColumnsWithoutLoadingEntities() {
+        // Given
+        FriendCode projected = new FriendCode("900000000001", "Projected", 33, "Berlin", "Daily gifts");
+        projected.setGoals(Set.of(Goal.GIFTS));
+        entityManager.persistAndFlush(projected);
+        entityManager.clear();
+        Statistics statistics = resetStatistics();
+
+        // When
+        Slice<FriendCodeResponse> slice = friendCodeRepository.findResponseSlice(
+            isActive(currentTime), PageRequest.of(0, 10, FeedCursor.FEED_SORT));
+
+        // Then
+        assertThat(slice.getContent()).hasSize(3);
+        FriendCodeResponse response = slice.getContent().stream()
+            .filter(r -> "900000000001".equals(r.getFriendCode()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(response.getTrainerName()).isEqualTo("Projected");
+        assertThat(response.getPlayerLevel()).isEqualTo(33);
+        assertThat(response.getLocation()).isEqualTo("Berlin");
+        assertThat(response.getGoals()).containsExactly(Goal.GIFTS);
+        assertThat(response.getIsActive()).isTrue();
+        assertThat(response.getCreatedAt()).isNotNull();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamResponses_shouldStreamMatchesWithoutManagingEntities() {
+        // Given
+        entityManager.clear();
+        Statistics statistics = resetStatistics();
+
+        // When
+        List<FriendCodeResponse> responses;
+        try (Stream<FriendCodeResponse> stream = friendCodeRepository.streamResponses(
+                isActive(currentTime), Sort.by("id"), 1)) {
+            responses = stream.toList();
+        }
+
+        // Then
+        assertThat(responses).extracting(FriendCodeResponse::getFriendCode)
+            .containsExactly("123456789012", "234567890123");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(entityManager.getEntityManager().unwrap(Session.class)
+            .getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void hasAnyGoal_shouldMatchSharedGoalsAndAllGoal() {
+        // Given
+        FriendCode gifter = new FriendCode("800000000001", "Gifter");
+        gifter.setGoals(Set.of(Goal.GIFTS));
+        FriendCode raider = new FriendCode("800000000002", "Raider");
+        raider.setGoals(Set.of(Goal.RAIDS, Goal.EXP));
+        FriendCode anything = new FriendCode("800000000003", "Anything");
+        anything.setGoals(Set.of(Goal.ALL));
+        entityManager.persist(gifter);
+        entityManager.persist(raider);
+        entityManager.persist(anything);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<String> giftCodes = friendCodeRepository.findAll(hasAnyGoal(Set.of(Goal.GIFTS))).stream()
+            .map(FriendCode::getFriendCode).toList();
+        List<String> anyGoalCodes = friendCodeRepository.findAll(hasAnyGoal(Set.of(Goal.ALL))).stream()
+            .map(FriendCode::getFriendCode).toList();
+
+        // Then
+        assertThat(giftCodes).containsExactlyInAnyOrder("800000000001", "800000000003");
+        assertThat(anyGoalCodes).containsExactlyInAnyOrder("800000000001", "800000000002", "800000000003");
+    }
+
+    @Test
+    void hasLocationAndContainsText_shouldMatchSubstringsIgnoringCase() {
+        // When
+        List<String> locationCodes = friendCodeRepository.findAll(hasLocation("NEW york")).stream()
+            .map(FriendCode::getFriendCode).toList();
+        List<String> textCodes = friendCodeRepository.findAll(isActive(currentTime).and(containsText("RAIDING")))
+            .stream().map(FriendCode::getFriendCode).toList();
+
+        // Then
+        assertThat(locationCodes).containsExactly("234567890123");
+        assertThat(textCodes).containsExactly("234567890123");
+    }
+
+    @Test
+    void goals_shouldRoundTripThroughGoalsMask() {
+        // Given
+        FriendCode friendCode = new FriendCode("800000000004", "RoundTrip");
+        friendCode.setGoals(Set.of(Goal.EXP, Goal.RAIDS));
+        entityManager.persistAndFlush(friendCode);
+        entityManager.clear();
+
+        // When
+        FriendCode reloaded = friendCodeRepository.findByFriendCode("800000000004").orElseThrow();
+        reloaded.addGoal(Goal.GIFTS);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        Number mask = (Number) entityManager.getEntityManager()
+            .createNativeQuery("SELECT goals_mask FROM friend_codes WHERE trainer_name = 'RoundTrip'")
+            .getSingleResult();
+        assertThat(mask.intValue()).isEqualTo(Goal.GIFTS.getBit() | Goal.EXP.getBit() | Goal.RAIDS.getBit());
+        assertThat(friendCodeRepository.findByFriendCode("800000000004").orElseThrow().getGoals())
+            .containsExactlyInAnyOrder(Goal.GIFTS, Goal.EXP, Goal.RAIDS);
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 }
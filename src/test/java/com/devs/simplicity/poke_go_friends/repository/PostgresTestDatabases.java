@@ -0,0 +1,94 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Embedded PostgreSQL server shared by the integration tests that need the real database.
+ * Each test class gets a database of its own, which it can prepare before the application context
+ * starts and runs the Flyway migrations.
+ */
+public final class PostgresTestDatabases {
+
+    private static EmbeddedPostgres postgres;
+    private static final Map<String, String> urls = new HashMap<>();
+
+    private PostgresTestDatabases() {
+    }
+
+    /**
+     * Skips the calling test class when PostgreSQL cannot be started; initdb and postgres refuse to run as root.
+     */
+    public static void assumeStartable() {
+        assumeFalse("root".equals(System.getProperty("user.name")), "PostgreSQL cannot be started as root");
+    }
+
+    /**
+     * Points the application's data source at a new, empty database, created when the context starts.
+     *
+     * @param registry The test's dynamic properties
+     * @param name     Name of the database
+     */
+    public static void registerDataSource(DynamicPropertyRegistry registry, String name) {
+        registerDataSource(registry, name, dataSource -> {
+        });
+    }
+
+    /**
+     * Points the application's data source at a new database, created when the context starts.
+     *
+     * @param registry The test's dynamic properties
+     * @param name     Name of the database
+     * @param prepare  Runs against the empty database before the application uses it
+     */
+    public static void registerDataSource(DynamicPropertyRegistry registry, String name, Consumer<DataSource> prepare) {
+        registry.add("spring.datasource.url", () -> createDatabase(name, prepare));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * Applies all Flyway migrations to a database being prepared, as the application would on startup.
+     */
+    public static void migrate(DataSource dataSource) {
+        Flyway.configure().dataSource(dataSource)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+    }
+
+    private static synchronized String createDatabase(String name, Consumer<DataSource> prepare) {
+        String url = urls.get(name);
+        if (url == null) {
+            EmbeddedPostgres server = start();
+            new JdbcTemplate(server.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+            prepare.accept(server.getDatabase("postgres", name));
+            url = server.getJdbcUrl("postgres", name);
+            urls.put(name, url);
+        }
+        return url;
+    }
+
+    private static EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                // Stopped by its own shutdown hook, after the cached application contexts are closed
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return postgres;
+    }
+}
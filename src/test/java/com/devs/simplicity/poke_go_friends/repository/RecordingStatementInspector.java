@@ -0,0 +1,82 @@
+package com.devs.simplicity.poke_go_friends.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL Hibernate runs, so PostgreSQL tests can explain the statements behind a repository call
+ * and assert which indexes they use. Registered as the session factory's statement inspector by those tests.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    /**
+     * The property registering this inspector, for {@code @DataJpaTest(properties = ...)}.
+     */
+    static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.devs.simplicity.poke_go_friends.repository.RecordingStatementInspector";
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        statements.clear();
+    }
+
+    /**
+     * Returns the recorded SELECT statements in the order they ran.
+     */
+    static List<String> selects() {
+        return statements.stream().filter(sql -> sql.startsWith("select")).toList();
+    }
+
+    /**
+     * Explains a recorded statement as a generic plan, the one a prepared statement settles on,
+     * planned without knowing its parameter values.
+     * Runs on a connection of its own using the simple query protocol, which sends the $n placeholders
+     * to the server as they are instead of expecting values for them.
+     *
+     * @return The plan, one line per node
+     */
+    static String explain(JdbcTemplate jdbcTemplate, String statement) {
+        Matcher parameters = PARAMETER.matcher(statement);
+        StringBuilder sql = new StringBuilder("EXPLAIN (GENERIC_PLAN) ");
+        int number = 0;
+        while (parameters.find()) {
+            parameters.appendReplacement(sql, "\\$" + ++number);
+        }
+        parameters.appendTail(sql);
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) pooled -> {
+            Properties properties = new Properties();
+            properties.setProperty("user", pooled.getMetaData().getUserName());
+            properties.setProperty("preferQueryMode", "simple");
+            try (Connection connection = DriverManager.getConnection(pooled.getMetaData().getURL(), properties);
+                 Statement explain = connection.createStatement();
+                 ResultSet plan = explain.executeQuery(sql.toString())) {
+                StringJoiner lines = new StringJoiner("\n");
+                while (plan.next()) {
+                    lines.add(plan.getString(1));
+                }
+                return lines.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Active friend codes over a mocked repository, for the tests of the views of {@link ActiveFriendCodes}.
+ * Friend code {@code id} is numbered {@code id}, named "Trainer" + id and created {@code id} minutes
+ * after {@link #BASE_TIME}, so feed order follows the ids.
+ */
+final class ActiveFriendCodesFixture {
+
+    static final LocalDateTime BASE_TIME = LocalDateTime.now().minusHours(1);
+
+    private final FriendCodeRepository friendCodeRepository;
+    private final ActiveFriendCodes activeFriendCodes;
+
+    ActiveFriendCodesFixture(FriendCodeRepository friendCodeRepository) {
+        this.friendCodeRepository = friendCodeRepository;
+        this.activeFriendCodes = new ActiveFriendCodes(friendCodeRepository);
+    }
+
+    ActiveFriendCodes activeFriendCodes() {
+        return activeFriendCodes;
+    }
+
+    static FriendCodeResponse response(long id) {
+        return new FriendCodeResponse(id, String.format("%012d", id), "Trainer" + id, null, null, null, true,
+                BASE_TIME.plusMinutes(id), BASE_TIME.plusMinutes(id), null);
+    }
+
+    static FriendCode friendCode(long id) {
+        FriendCode friendCode = new FriendCode(String.format("%012d", id), "Trainer" + id);
+        friendCode.setId(id);
+        friendCode.setCreatedAt(BASE_TIME.plusMinutes(id));
+        return friendCode;
+    }
+
+    /**
+     * Loads the given friend codes as the active ones, as at startup.
+     */
+    void load(FriendCodeResponse... responses) {
+        load(List.of(responses));
+    }
+
+    void load(List<FriendCodeResponse> responses) {
+        when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(responses));
+        activeFriendCodes.rebuild();
+    }
+}
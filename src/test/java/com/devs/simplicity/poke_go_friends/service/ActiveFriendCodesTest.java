@@ -0,0 +1,183 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.BASE_TIME;
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.friendCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActiveFriendCodes.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActiveFriendCodes Tests")
+class ActiveFriendCodesTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private ActiveFriendCodesFixture fixture;
+    private ActiveFriendCodes activeFriendCodes;
+    private RecordingView view;
+
+    /**
+     * View keeping the friend codes it was handed, counting resets.
+     */
+    private static final class RecordingView implements ActiveFriendCodes.View {
+
+        private final Map<Long, FriendCodeResponse> friendCodes = new HashMap<>();
+        private int resets;
+
+        @Override
+        public void reset(Collection<FriendCodeResponse> active) {
+            friendCodes.clear();
+            active.forEach(this::add);
+            resets++;
+        }
+
+        @Override
+        public void add(FriendCodeResponse friendCode) {
+            friendCodes.put(friendCode.getId(), friendCode);
+        }
+
+        @Override
+        public void remove(FriendCodeResponse friendCode) {
+            friendCodes.remove(friendCode.getId());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        fixture = new ActiveFriendCodesFixture(friendCodeRepository);
+        activeFriendCodes = fixture.activeFriendCodes();
+        view = new RecordingView();
+        activeFriendCodes.register(view);
+    }
+
+    private FriendCodeResponse response(long id, LocalDateTime expiresAt) {
+        FriendCodeResponse response = ActiveFriendCodesFixture.response(id);
+        response.setExpiresAt(expiresAt);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should reset views when loaded and pass on created, changed and purged friend codes")
+    void shouldPassChangesToViews() {
+        // Given
+        fixture.load(response(1, null));
+        FriendCode created = friendCode(2);
+        FriendCode deactivated = friendCode(1);
+        deactivated.deactivate();
+
+        // When
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(created)));
+        activeFriendCodes.onFriendCodesChanged(new FriendCodesChangedEvent(List.of(deactivated)));
+
+        // Then
+        assertThat(view.resets).isEqualTo(1);
+        assertThat(view.friendCodes).containsOnlyKeys(2L);
+
+        // When
+        activeFriendCodes.onFriendCodesPurged(new FriendCodesPurgedEvent(BASE_TIME.plusMinutes(3), 1));
+
+        // Then
+        assertThat(view.friendCodes).isEmpty();
+        assertThat(activeFriendCodes.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should replay friend codes created while the database was read")
+    void shouldReplayChangesDuringRebuild() {
+        // Given
+        when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class))).thenAnswer(invocation -> {
+            // Committed on another thread after the snapshot query started
+            activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(2))));
+            return new SliceImpl<>(List.of(response(1, null)));
+        });
+
+        // When
+        activeFriendCodes.rebuild();
+
+        // Then
+        assertThat(activeFriendCodes.isLoaded()).isTrue();
+        assertThat(view.friendCodes).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should drop friend codes whose expiration has passed")
+    void shouldRemoveExpired() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        fixture.load(response(1, now.minusSeconds(1)), response(2, now.plusHours(1)), response(3, null));
+
+        // When
+        activeFriendCodes.removeExpired(now);
+
+        // Then
+        assertThat(view.friendCodes).containsOnlyKeys(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reset a view registered after loading")
+    void shouldResetLateViews() {
+        // Given
+        fixture.load(response(1, null));
+        RecordingView lateView = new RecordingView();
+
+        // When
+        activeFriendCodes.register(lateView);
+
+        // Then
+        assertThat(lateView.friendCodes).containsOnlyKeys(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload when the active ids differ from the database")
+    void shouldRebuildWhenInconsistent() {
+        // Given
+        fixture.load(response(1, null));
+        when(friendCodeRepository.findActiveFriendCodeIds(any(LocalDateTime.class))).thenReturn(List.of(1L, 2L));
+
+        // When
+        activeFriendCodes.checkConsistency();
+
+        // Then
+        verify(friendCodeRepository, times(2)).findResponseSlice(any(), any(Pageable.class));
+        assertThat(view.resets).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not reload when the active ids match the database")
+    void shouldNotRebuildWhenConsistent() {
+        // Given
+        fixture.load(response(1, null));
+        when(friendCodeRepository.findActiveFriendCodeIds(any(LocalDateTime.class))).thenReturn(List.of(1L));
+
+        // When
+        activeFriendCodes.checkConsistency();
+
+        // Then
+        verify(friendCodeRepository, times(1)).findResponseSlice(any(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,168 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FeedPageCache.
+ */
+@DisplayName("FeedPageCache Tests")
+class FeedPageCacheTest {
+
+    private FeedPageCache feedPageCache;
+    private Cache cache;
+    private Method searchMethod;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(FeedPageCache.CACHE_NAME);
+        feedPageCache = new FeedPageCache(cacheManager, new FeedConfig());
+        cache = cacheManager.getCache(FeedPageCache.CACHE_NAME);
+        searchMethod = FriendCodeService.class.getMethod(
+                "searchWithCriteria", FriendCodeSearchCriteria.class, Pageable.class);
+    }
+
+    private Object key(FriendCodeSearchCriteria criteria, Pageable pageable) {
+        return feedPageCache.generate(null, searchMethod, criteria, pageable);
+    }
+
+    private FriendCodeResponse response(long id, LocalDateTime createdAt) {
+        FriendCodeResponse response = new FriendCodeResponse();
+        response.setId(id);
+        response.setCreatedAt(createdAt);
+        return response;
+    }
+
+    private FriendCode friendCode(long id, Team team, LocalDateTime createdAt) {
+        FriendCode friendCode = new FriendCode(String.format("%012d", id), "Trainer" + id);
+        friendCode.setId(id);
+        friendCode.setTeam(team);
+        friendCode.setCreatedAt(createdAt);
+        return friendCode;
+    }
+
+    @Test
+    @DisplayName("Should share keys between requests the database treats alike")
+    void shouldNormalizeKeys() {
+        // Given
+        FriendCodeSearchCriteria mixedCase = FriendCodeSearchCriteria.builder().location("New York").searchText(" ").build();
+        FriendCodeSearchCriteria lowerCase = FriendCodeSearchCriteria.builder().location("new york").build();
+
+        // When & Then
+        assertThat(key(mixedCase, PageRequest.of(0, 20)))
+                .isEqualTo(key(lowerCase, PageRequest.of(0, 20, FeedCursor.FEED_SORT)));
+        assertThat(key(lowerCase, PageRequest.of(0, 20)))
+                .isNotEqualTo(key(lowerCase, PageRequest.of(1, 20)));
+    }
+
+    @Test
+    @DisplayName("Should evict only pages whose filters match a created friend code")
+    void shouldEvictMatchingPagesOnCreate() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Object unfiltered = key(new FriendCodeSearchCriteria(), PageRequest.of(0, 20));
+        Object valor = key(FriendCodeSearchCriteria.builder().team(Team.VALOR).build(), PageRequest.of(0, 20));
+        Object mystic = key(FriendCodeSearchCriteria.builder().team(Team.MYSTIC).build(), PageRequest.of(0, 20));
+        SliceImpl<FriendCodeResponse> page = new SliceImpl<>(List.of(response(1L, now.minusMinutes(5))));
+        cache.put(unfiltered, page);
+        cache.put(valor, page);
+        cache.put(mystic, page);
+
+        // When
+        feedPageCache.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(2L, Team.VALOR, now))));
+
+        // Then
+        assertThat(cache.get(unfiltered)).isNull();
+        assertThat(cache.get(valor)).isNull();
+        assertThat(cache.get(mystic)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep earlier pages when a changed friend code sorts after them")
+    void shouldKeepEarlierPagesOnChange() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Object firstPage = key(new FriendCodeSearchCriteria(), PageRequest.of(0, 1));
+        Object secondPage = key(new FriendCodeSearchCriteria(), PageRequest.of(1, 1));
+        cache.put(firstPage, new SliceImpl<>(List.of(response(3L, now)), PageRequest.of(0, 1), true));
+        cache.put(secondPage, new SliceImpl<>(List.of(response(2L, now.minusMinutes(5))), PageRequest.of(1, 1), true));
+
+        // When
+        feedPageCache.onFriendCodesChanged(new FriendCodesChangedEvent(
+                List.of(friendCode(2L, null, now.minusMinutes(5)))));
+
+        // Then
+        assertThat(cache.get(firstPage)).isNotNull();
+        assertThat(cache.get(secondPage)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict pages holding purged friend codes")
+    void shouldEvictPagesHoldingPurgedCodes() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Object newPage = key(new FriendCodeSearchCriteria(), PageRequest.of(0, 1));
+        Object oldPage = key(new FriendCodeSearchCriteria(), PageRequest.of(1, 1));
+        cache.put(newPage, new SliceImpl<>(List.of(response(3L, now)), PageRequest.of(0, 1), true));
+        cache.put(oldPage, new SliceImpl<>(List.of(response(1L, now.minusDays(2))), PageRequest.of(1, 1), true));
+
+        // When
+        feedPageCache.onFriendCodesPurged(new FriendCodesPurgedEvent(now.minusDays(1), 1));
+
+        // Then
+        assertThat(cache.get(newPage)).isNotNull();
+        assertThat(cache.get(oldPage)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict relevance-ranked pages even when the changed friend code sorts after them")
+    void shouldEvictRelevanceRankedPagesOnChange() {
+        // Given
+        FeedConfig feedConfig = new FeedConfig();
+        feedConfig.setFullTextSearchEnabled(true);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(FeedPageCache.CACHE_NAME);
+        feedPageCache = new FeedPageCache(cacheManager, feedConfig);
+        cache = cacheManager.getCache(FeedPageCache.CACHE_NAME);
+
+        LocalDateTime now = LocalDateTime.now();
+        Object rankedPage = key(FriendCodeSearchCriteria.builder().searchText("raids").build(), PageRequest.of(0, 1));
+        Object feedPage = key(new FriendCodeSearchCriteria(), PageRequest.of(0, 1));
+        cache.put(rankedPage, new SliceImpl<>(List.of(response(3L, now)), PageRequest.of(0, 1), true));
+        cache.put(feedPage, new SliceImpl<>(List.of(response(3L, now)), PageRequest.of(0, 1), true));
+
+        // When
+        feedPageCache.onFriendCodesChanged(new FriendCodesChangedEvent(
+                List.of(friendCode(1L, null, now.minusDays(2)))));
+
+        // Then
+        assertThat(cache.get(rankedPage)).isNull();
+        assertThat(cache.get(feedPage)).isNotNull();
+
+        // And relevance-ranked pages are evicted by purges whatever they hold
+        cache.put(rankedPage, new SliceImpl<>(List.of(response(3L, now)), PageRequest.of(0, 1), true));
+        feedPageCache.onFriendCodesPurged(new FriendCodesPurgedEvent(now.minusDays(1), 1));
+        assertThat(cache.get(rankedPage)).isNull();
+        assertThat(cache.get(feedPage)).isNotNull();
+    }
+}
@@ -0,0 +1,145 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FeedVersionService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FeedVersionService Tests")
+class FeedVersionServiceTest {
+
+    private static final String KEY = "feed:version";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ActiveFriendCodes activeFriendCodes;
+
+    private FeedConfig feedConfig;
+    private FeedVersionService feedVersionService;
+
+    @BeforeEach
+    void setUp() {
+        feedConfig = new FeedConfig();
+        feedVersionService = new FeedVersionService(redisTemplate, feedConfig, CircuitBreaker.ofDefaults("hotFeed"),
+                activeFriendCodes);
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Should read the version once per cache period")
+    void shouldCacheVersion() {
+        // Given
+        when(valueOperations.get(KEY)).thenReturn("42");
+
+        // When & Then
+        assertThat(feedVersionService.currentVersion()).contains(42L);
+        assertThat(feedVersionService.currentVersion()).contains(42L);
+        verify(valueOperations, times(1)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("Should initialize a missing version from the clock")
+    void shouldInitializeMissingVersion() {
+        // Given
+        when(valueOperations.get(KEY)).thenReturn(null, "1700000000000");
+
+        // When & Then
+        assertThat(feedVersionService.currentVersion()).contains(1_700_000_000_000L);
+        verify(valueOperations).setIfAbsent(eq(KEY), anyString());
+    }
+
+    @Test
+    @DisplayName("Should bump the version on events and serve the new version")
+    void shouldBumpVersionOnEvents() {
+        // Given
+        when(valueOperations.increment(KEY)).thenReturn(43L);
+
+        // When
+        feedVersionService.onFriendCodesPurged(new FriendCodesPurgedEvent(LocalDateTime.now(), 3));
+
+        // Then
+        assertThat(feedVersionService.currentVersion()).contains(43L);
+        verify(valueOperations, never()).get(KEY);
+    }
+
+    @Test
+    @DisplayName("Should return no version when Redis is unavailable")
+    void shouldReturnEmptyWhenRedisUnavailable() {
+        // Given
+        when(valueOperations.get(KEY)).thenThrow(new RuntimeException("Redis connection failed"));
+
+        // When & Then
+        assertThat(feedVersionService.currentVersion()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop serving the cached version when a bump fails")
+    void shouldDropCachedVersionWhenBumpFails() {
+        // Given
+        when(valueOperations.get(KEY)).thenReturn("42", "44");
+        when(valueOperations.increment(KEY)).thenThrow(new RuntimeException("Redis connection failed"));
+        feedVersionService.currentVersion();
+
+        // When
+        feedVersionService.bump();
+
+        // Then
+        assertThat(feedVersionService.currentVersion()).contains(44L);
+    }
+
+    @Test
+    @DisplayName("Should change the time boundary when the next friend code expires")
+    void shouldChangeTimeBoundaryAtNextExpiration() {
+        // Given
+        LocalDateTime expiration = LocalDateTime.now().plusMinutes(5);
+        when(activeFriendCodes.isLoaded()).thenReturn(true);
+        when(activeFriendCodes.nextExpiration(any(LocalDateTime.class)))
+                .thenReturn(Optional.of(expiration), Optional.of(expiration), Optional.of(expiration.plusHours(1)));
+
+        // When
+        String before = feedVersionService.timeBoundary(false);
+        String unchanged = feedVersionService.timeBoundary(false);
+        String after = feedVersionService.timeBoundary(false);
+
+        // Then
+        assertThat(unchanged).isEqualTo(before);
+        assertThat(after).isNotEqualTo(before);
+        assertThat(before).doesNotContain("w");
+    }
+
+    @Test
+    @DisplayName("Should bound the time boundary by the ETag window for sliding windows and before loading")
+    void shouldUseETagWindowForSlidingWindows() {
+        // Given
+        when(activeFriendCodes.isLoaded()).thenReturn(true, false);
+        when(activeFriendCodes.nextExpiration(any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        // When & Then - windows are numbered from the epoch
+        assertThat(feedVersionService.timeBoundary(true)).matches("x-w\\d+");
+        assertThat(feedVersionService.timeBoundary(false)).matches("w\\d+");
+    }
+}
@@ -1,5 +1,6 @@
 package com.devs.simplicity.poke_go_friends.service;
 
+import com.devs.simplicity.poke_go_friends.config.CleanupConfig;
 import com.devs.simplicity.poke_go_friends.entity.FriendCode;
 import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests the end-to-end cleanup functionality with real database operations.
  */
 @DataJpaTest
-@Import(FriendCodeCleanupService.class)
+@Import({FriendCodeCleanupService.class, CleanupConfig.class})
 @ActiveProfiles("test")
 @DisplayName("FriendCodeCleanupService Integration Tests")
 class FriendCodeCleanupServiceIT {
@@ -1,5 +1,7 @@
 package com.devs.simplicity.poke_go_friends.service;
 
+import com.devs.simplicity.poke_go_friends.config.CleanupConfig;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
 import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,7 +10,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -28,6 +32,12 @@ class FriendCodeCleanupServiceTest {
     @Mock
     private FriendCodeRepository friendCodeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CleanupConfig cleanupConfig = new CleanupConfig();
+
     @InjectMocks
     private FriendCodeCleanupService friendCodeCleanupService;
 
@@ -52,6 +62,9 @@ class FriendCodeCleanupServiceTest {
         // Allow for a small margin due to test execution time (within 5 seconds)
         assertTrue(capturedTimestamp.isAfter(expectedTimestamp.minusSeconds(5)));
         assertTrue(capturedTimestamp.isBefore(expectedTimestamp.plusSeconds(5)));
+        
+        // Listeners such as the hot feed are told about the purge
+        verify(eventPublisher).publishEvent(new FriendCodesPurgedEvent(capturedTimestamp, 5));
     }
 
     @Test
@@ -66,4 +79,28 @@ class FriendCodeCleanupServiceTest {
 
         verify(friendCodeRepository).deleteByCreatedAtBefore(any(LocalDateTime.class));
     }
+
+    @Test
+    @DisplayName("Should create upcoming partitions and drop expired ones when partitioned")
+    void shouldDropPartitionsWhenPartitioned() {
+        // Given
+        cleanupConfig.setPartitioned(true);
+        when(friendCodeRepository.dropPartitionsBefore(any(LocalDateTime.class))).thenReturn(7);
+
+        // When
+        friendCodeCleanupService.cleanupOldFriendCodes();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> fromCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> untilCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(friendCodeRepository).createPartitions(fromCaptor.capture(), untilCaptor.capture());
+        assertEquals(48, ChronoUnit.HOURS.between(fromCaptor.getValue(), untilCaptor.getValue()));
+
+        ArgumentCaptor<LocalDateTime> cutoffCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(friendCodeRepository).dropPartitionsBefore(cutoffCaptor.capture());
+        assertEquals(24, ChronoUnit.HOURS.between(cutoffCaptor.getValue(), fromCaptor.getValue()));
+
+        verify(friendCodeRepository, never()).deleteByCreatedAtBefore(any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(new FriendCodesPurgedEvent(cutoffCaptor.getValue(), 7));
+    }
 }
@@ -0,0 +1,120 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FriendCodeCountEstimator.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FriendCodeCountEstimator Tests")
+class FriendCodeCountEstimatorTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private FeedConfig feedConfig;
+    private FriendCodeCountEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        feedConfig = new FeedConfig();
+        estimator = new FriendCodeCountEstimator(friendCodeRepository, feedConfig);
+    }
+
+    @Test
+    @DisplayName("Should reuse cached active count within TTL")
+    void shouldReuseCachedActiveCountWithinTtl() {
+        // Given
+        when(friendCodeRepository.countActiveFriendCodes(any(LocalDateTime.class))).thenReturn(42L);
+
+        // When
+        long first = estimator.estimateActiveCount();
+        long second = estimator.estimateActiveCount();
+
+        // Then
+        assertThat(first).isEqualTo(42L);
+        assertThat(second).isEqualTo(42L);
+        verify(friendCodeRepository, times(1)).countActiveFriendCodes(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should recount after TTL expires")
+    void shouldRecountAfterTtlExpires() {
+        // Given
+        feedConfig.setCountCacheTtlSeconds(0);
+        when(friendCodeRepository.countActiveFriendCodes(any(LocalDateTime.class))).thenReturn(1L, 2L);
+
+        // When & Then
+        assertThat(estimator.estimateActiveCount()).isEqualTo(1L);
+        assertThat(estimator.estimateActiveCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should cache counts per search criteria")
+    @SuppressWarnings("unchecked")
+    void shouldCacheCountsPerSearchCriteria() {
+        // Given
+        when(friendCodeRepository.count(any(Specification.class))).thenReturn(7L, 3L);
+        FriendCodeSearchCriteria nearby = FriendCodeSearchCriteria.builder().location("Tokyo").build();
+        FriendCodeSearchCriteria highLevel = FriendCodeSearchCriteria.builder().minLevel(40).build();
+
+        // When
+        long nearbyCount = estimator.estimateMatchingCount(nearby);
+        long highLevelCount = estimator.estimateMatchingCount(highLevel);
+        long nearbyAgain = estimator.estimateMatchingCount(FriendCodeSearchCriteria.builder().location("Tokyo").build());
+
+        // Then
+        assertThat(nearbyCount).isEqualTo(7L);
+        assertThat(highLevelCount).isEqualTo(3L);
+        assertThat(nearbyAgain).isEqualTo(7L);
+        verify(friendCodeRepository, times(2)).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("Should cache counts per single search filter and value")
+    @SuppressWarnings("unchecked")
+    void shouldCacheCountsPerSearchFilter() {
+        // Given
+        when(friendCodeRepository.count(any(Specification.class))).thenReturn(5L, 2L);
+
+        // When
+        long byTrainerName = estimator.estimateTrainerNameCount("Ash");
+        long byLocation = estimator.estimateLocationCount("Ash");
+        long byTrainerNameAgain = estimator.estimateTrainerNameCount("Ash");
+
+        // Then
+        assertThat(byTrainerName).isEqualTo(5L);
+        assertThat(byLocation).isEqualTo(2L);
+        assertThat(byTrainerNameAgain).isEqualTo(5L);
+        verify(friendCodeRepository, times(2)).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("Should recount after invalidation")
+    void shouldRecountAfterInvalidation() {
+        // Given
+        when(friendCodeRepository.countActiveFriendCodes(any(LocalDateTime.class))).thenReturn(1L, 2L);
+        estimator.estimateActiveCount();
+
+        // When
+        estimator.invalidate();
+
+        // Then
+        assertThat(estimator.estimateActiveCount()).isEqualTo(2L);
+    }
+}
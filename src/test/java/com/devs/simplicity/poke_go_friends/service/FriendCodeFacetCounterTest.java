@@ -0,0 +1,174 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeFacetsResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.GoalSetConverter;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.BASE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FriendCodeFacetCounter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FriendCodeFacetCounter Tests")
+class FriendCodeFacetCounterTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private ActiveFriendCodesFixture fixture;
+    private ActiveFriendCodes activeFriendCodes;
+    private FriendCodeFacetCounter facetCounter;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new ActiveFriendCodesFixture(friendCodeRepository);
+        activeFriendCodes = fixture.activeFriendCodes();
+        facetCounter = new FriendCodeFacetCounter(activeFriendCodes, friendCodeRepository);
+    }
+
+    private FriendCodeResponse response(long id, Team team, Set<Goal> goals, Integer level, LocalDateTime expiresAt) {
+        FriendCodeResponse response = ActiveFriendCodesFixture.response(id);
+        response.setTeam(team);
+        response.setGoals(goals);
+        response.setPlayerLevel(level);
+        response.setExpiresAt(expiresAt);
+        return response;
+    }
+
+    private FriendCode friendCode(long id, Team team, Integer level) {
+        FriendCode friendCode = ActiveFriendCodesFixture.friendCode(id);
+        friendCode.setTeam(team);
+        friendCode.setGoals(Set.of(Goal.GIFTS));
+        friendCode.setPlayerLevel(level);
+        return friendCode;
+    }
+
+    @Test
+    @DisplayName("Should count teams, goals as the goal filter matches them, and level ranges")
+    void shouldCountFacets() {
+        // Given
+        fixture.load(
+                response(1, Team.MYSTIC, Set.of(Goal.RAIDS), 40, null),
+                response(2, Team.MYSTIC, Set.of(Goal.ALL), 35, null),
+                response(3, Team.VALOR, Set.of(Goal.GIFTS), 12, null),
+                response(4, null, Set.of(), null, null));
+
+        // When
+        FriendCodeFacetsResponse facets = facetCounter.getFacets();
+
+        // Then
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getTeams()).containsEntry("mystic", 2).containsEntry("valor", 1).containsEntry("instinct", 0);
+        // Codes looking for all goals match every goal filter
+        assertThat(facets.getGoals()).containsEntry("raids", 2).containsEntry("gifts", 2)
+                .containsEntry("exp", 1).containsEntry("all", 3);
+        assertThat(facets.getLevels()).containsEntry("1-19", 1).containsEntry("20-29", 0)
+                .containsEntry("30-39", 1).containsEntry("40+", 1);
+    }
+
+    @Test
+    @DisplayName("Should subtract friend codes once they expire")
+    void shouldSubtractExpiredFriendCodes() {
+        // Given
+        fixture.load(
+                response(1, Team.MYSTIC, Set.of(), 40, LocalDateTime.now().minusSeconds(1)),
+                response(2, Team.MYSTIC, Set.of(), 40, null));
+
+        // When
+        FriendCodeFacetsResponse facets = facetCounter.getFacets();
+
+        // Then
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getTeams()).containsEntry("mystic", 1);
+        assertThat(facets.getLevels()).containsEntry("40+", 1);
+    }
+
+    @Test
+    @DisplayName("Should follow created, changed and purged friend codes without querying")
+    void shouldFollowEvents() {
+        // Given
+        fixture.load();
+        FriendCode first = friendCode(1, Team.INSTINCT, 45);
+        FriendCode second = friendCode(2, Team.INSTINCT, 25);
+
+        // When
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(first, second)));
+        second.deactivate();
+        activeFriendCodes.onFriendCodesChanged(new FriendCodesChangedEvent(List.of(second)));
+
+        // Then
+        FriendCodeFacetsResponse facets = facetCounter.getFacets();
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getTeams()).containsEntry("instinct", 1);
+        assertThat(facets.getLevels()).containsEntry("40+", 1).containsEntry("20-29", 0);
+
+        // When
+        activeFriendCodes.onFriendCodesPurged(new FriendCodesPurgedEvent(BASE_TIME.plusMinutes(2), 1));
+
+        // Then
+        assertThat(facetCounter.getFacets().getTotal()).isZero();
+        assertThat(facetCounter.getFacets().getGoals()).containsEntry("gifts", 0);
+        verify(friendCodeRepository, times(1)).findResponseSlice(any(), any(Pageable.class));
+        verify(friendCodeRepository, never()).countActiveFriendCodesByFacet(any());
+    }
+
+    @Test
+    @DisplayName("Should replace the counts with grouped counts from the database when reconciling")
+    void shouldReconcileWithGroupedCounts() {
+        // Given
+        fixture.load(response(1, Team.VALOR, Set.of(Goal.GIFTS), 12, null));
+        when(friendCodeRepository.countActiveFriendCodesByFacet(any(LocalDateTime.class))).thenReturn(List.of(
+                new Object[]{Team.MYSTIC, (short) GoalSetConverter.toMask(Set.of(Goal.RAIDS)), 40, 2L},
+                new Object[]{null, null, null, 1L}));
+
+        // When
+        facetCounter.reconcile();
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(2, Team.MYSTIC, 45))));
+
+        // Then
+        FriendCodeFacetsResponse facets = facetCounter.getFacets();
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getTeams()).containsEntry("mystic", 3).containsEntry("valor", 0);
+        assertThat(facets.getGoals()).containsEntry("raids", 2).containsEntry("gifts", 1);
+        assertThat(facets.getLevels()).containsEntry("40+", 3).containsEntry("1-19", 0);
+    }
+
+    @Test
+    @DisplayName("Should read grouped counts from the database until the active friend codes are loaded")
+    void shouldQueryGroupedCountsBeforeLoading() {
+        // Given
+        when(friendCodeRepository.countActiveFriendCodesByFacet(any(LocalDateTime.class))).thenReturn(List.<Object[]>of(
+                new Object[]{Team.INSTINCT, (short) 0, 25, 3L}));
+
+        // When
+        FriendCodeFacetsResponse facets = facetCounter.getFacets();
+
+        // Then
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getTeams()).containsEntry("instinct", 3);
+        assertThat(facets.getLevels()).containsEntry("20-29", 3);
+        verify(friendCodeRepository, never()).findResponseSlice(any(), any(Pageable.class));
+    }
+}
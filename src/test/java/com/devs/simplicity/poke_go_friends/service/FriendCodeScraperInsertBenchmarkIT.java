@@ -0,0 +1,138 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.config.SubmissionConfig;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of inserting scraped friend codes.
+ * Compares the JDBC statements and time of saving 1,000 codes one by one with addFriendCodesFromScraper,
+ * whose pooled sequence ids let Hibernate send the inserts as JDBC batches.
+ * The one-by-one side simulates the former IDENTITY mapping rather than running it: it keeps the pooled
+ * sequence but looks up and flushes every code on its own, so each insert is executed immediately as an
+ * IDENTITY insert would be. It makes a sequence call per 50 codes where IDENTITY would read the id back
+ * from each insert, so the statement counts of the two differ by those 20 calls.
+ * Runs outside a test transaction because the scraper commits its batch itself. On H2 this measures the
+ * path taken without upserts; {@link FriendCodeScraperInsertBenchmarkPostgresIT} repeats it on PostgreSQL.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=25",
+    "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import({FriendCodeService.class, FeedConfig.class, SubmissionConfig.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Scraper Insert Benchmark")
+class FriendCodeScraperInsertBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendCodeScraperInsertBenchmarkIT.class);
+
+    static final int CODES = 1_000;
+
+    @Autowired
+    private FriendCodeService friendCodeService;
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ValidationService validationService;
+
+    @MockitoBean
+    private SubmissionRateLimitStatusService submissionRateLimitStatusService;
+
+    @MockitoBean
+    private HotFeedCache hotFeedCache;
+
+    @MockitoBean
+    private FriendCodeSearchIndex searchIndex;
+
+    @MockitoBean
+    private KnownFriendCodeFilter knownFriendCodes;
+
+    record Measurement(long statements, long inserts, long millis) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Measure the duplicate lookup too, as if every scraped code might be known
+        when(knownFriendCodes.mightExist(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        friendCodeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should insert 1,000 scraped codes with a fraction of the statements of one-by-one saves")
+    void shouldInsertScrapedCodesInBatches() {
+        // Given
+        Set<String> perCodeBatch = codes(0);
+        Set<String> scraperBatch = codes(CODES);
+
+        // When - one by one, simulating IDENTITY ids
+        Measurement perCode = measure(() -> {
+            for (String friendCode : perCodeBatch) {
+                if (friendCodeRepository.findByFriendCode(friendCode).isEmpty()) {
+                    friendCodeRepository.saveAndFlush(new FriendCode(friendCode, null));
+                }
+            }
+        });
+        Measurement batched = measure(() -> friendCodeService.addFriendCodesFromScraper(scraperBatch));
+
+        log.info("Inserting {} scraped codes one by one (simulated IDENTITY): {} statements, {} ms", CODES, perCode.statements(), perCode.millis());
+        log.info("Inserting {} scraped codes in batches: {} statements, {} ms", CODES, batched.statements(), batched.millis());
+
+        // Then
+        assertThat(perCode.inserts()).isEqualTo(CODES);
+        assertThat(batched.inserts()).isEqualTo(CODES);
+        assertThat(perCode.statements()).isGreaterThanOrEqualTo(2L * CODES);
+        // One lookup, one sequence call per 50 ids and one statement per batch of 25 inserts
+        assertThat(batched.statements()).isLessThanOrEqualTo(1 + CODES / FriendCode.ID_ALLOCATION_SIZE + CODES / 25 + 2);
+    }
+
+    Measurement measure(Runnable inserts) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        inserts.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Measurement(statistics.getPrepareStatementCount(), statistics.getEntityInsertCount(), millis);
+    }
+
+    static Set<String> codes(int offset) {
+        return IntStream.range(offset, offset + CODES)
+            .mapToObj(i -> String.format("%012d", 100_000_000_000L + i))
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,77 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.SubmissionConfig;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.devs.simplicity.poke_go_friends.repository.PostgresTestDatabases;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The scraper insert benchmark on PostgreSQL, with the schema the Flyway migrations build.
+ * Also measures the single INSERT ... ON CONFLICT statement used when upserts are enabled; it runs on
+ * the JDBC connection directly, so Hibernate's statistics count neither the statement nor its rows.
+ */
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@DisplayName("Scraper Insert PostgreSQL Benchmark")
+class FriendCodeScraperInsertBenchmarkPostgresIT extends FriendCodeScraperInsertBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendCodeScraperInsertBenchmarkPostgresIT.class);
+
+    @Autowired
+    private FriendCodeService friendCodeService;
+
+    @Autowired
+    private FriendCodeRepository friendCodeRepository;
+
+    @Autowired
+    private SubmissionConfig submissionConfig;
+
+    @BeforeAll
+    static void requirePostgres() {
+        PostgresTestDatabases.assumeStartable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestDatabases.registerDataSource(registry, "scraper_insert_benchmark");
+    }
+
+    @Test
+    @DisplayName("Should insert 1,000 scraped codes with one upsert statement")
+    void shouldInsertScrapedCodesWithUpsert() {
+        // Given
+        Set<String> scraperBatch = codes(CODES);
+        submissionConfig.setUpsertEnabled(true);
+
+        // When
+        int[] inserted = new int[1];
+        Measurement upsert;
+        try {
+            upsert = measure(() -> inserted[0] = friendCodeService.addFriendCodesFromScraper(scraperBatch));
+        } finally {
+            submissionConfig.setUpsertEnabled(false);
+        }
+
+        log.info("Inserting {} scraped codes with one upsert: {} ms", CODES, upsert.millis());
+
+        // Then
+        assertThat(inserted[0]).isEqualTo(CODES);
+        assertThat(friendCodeRepository.count()).isEqualTo(CODES);
+        assertThat(upsert.statements()).isZero();
+    }
+}
@@ -0,0 +1,195 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FeedCursor;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeSearchCriteria;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Goal;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.BASE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FriendCodeSearchIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FriendCodeSearchIndex Tests")
+class FriendCodeSearchIndexTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private FeedConfig feedConfig;
+    private ActiveFriendCodesFixture fixture;
+    private ActiveFriendCodes activeFriendCodes;
+    private FriendCodeSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        feedConfig = new FeedConfig();
+        feedConfig.setFullTextSearchEnabled(false);
+        fixture = new ActiveFriendCodesFixture(friendCodeRepository);
+        activeFriendCodes = fixture.activeFriendCodes();
+        searchIndex = new FriendCodeSearchIndex(activeFriendCodes, feedConfig);
+    }
+
+    private FriendCodeResponse response(long id, String trainerName, String location, String description,
+                                        Team team, Integer level) {
+        FriendCodeResponse response = ActiveFriendCodesFixture.response(id);
+        response.setTrainerName(trainerName);
+        response.setLocation(location);
+        response.setDescription(description);
+        response.setPlayerLevel(level);
+        response.setTeam(team);
+        response.setGoals(Set.of(Goal.GIFTS));
+        return response;
+    }
+
+    private List<Long> ids(Optional<Slice<FriendCodeResponse>> result) {
+        assertThat(result).isPresent();
+        return result.get().getContent().stream().map(FriendCodeResponse::getId).toList();
+    }
+
+    private FriendCode friendCode(long id, String trainerName, String description) {
+        FriendCode friendCode = ActiveFriendCodesFixture.friendCode(id);
+        friendCode.setTrainerName(trainerName);
+        friendCode.setPlayerLevel(20);
+        friendCode.setLocation("Paris");
+        friendCode.setDescription(description);
+        return friendCode;
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database until the index is built")
+    void shouldNotAnswerBeforeRebuild() {
+        assertThat(searchIndex.search(new FriendCodeSearchCriteria(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match search text and location as case-insensitive substrings, newest first")
+    void shouldMatchTextAndLocation() {
+        // Given
+        fixture.load(
+                response(1, "Ash", "New York, NY", "Daily gifts and raids", Team.VALOR, 30),
+                response(2, "Misty", "Newark", "raid hour", Team.MYSTIC, 40),
+                response(3, "Brock", "York", "Looking for GIFTS", Team.VALOR, 35),
+                response(4, "Giftmaster", "Paris", null, null, null));
+
+        // When / Then
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().searchText("gift").build(),
+                PageRequest.of(0, 10)))).containsExactly(4L, 3L, 1L);
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().location("york").build(),
+                PageRequest.of(0, 10)))).containsExactly(3L, 1L);
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().location("new york").build(),
+                PageRequest.of(0, 10)))).containsExactly(1L);
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().location("ewar").build(),
+                PageRequest.of(0, 10)))).containsExactly(2L);
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().location("w yo").build(),
+                PageRequest.of(0, 10)))).containsExactly(1L);
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().searchText("ift").location("York").build(),
+                PageRequest.of(0, 10)))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should apply team, level range and goal filters like the database search")
+    void shouldApplyFilters() {
+        // Given
+        fixture.load(
+                response(1, "Ash", "Paris", null, Team.VALOR, 30),
+                response(2, "Misty", "Paris", null, Team.MYSTIC, 40),
+                response(3, "Brock", "Paris", null, Team.VALOR, 45),
+                response(4, "Gary", "Paris", null, Team.VALOR, null));
+
+        // When
+        FriendCodeSearchCriteria criteria = FriendCodeSearchCriteria.builder()
+                .team(Team.VALOR).minLevel(25).maxLevel(40).goals(Set.of(Goal.GIFTS)).build();
+        FriendCodeSearchCriteria otherGoal = FriendCodeSearchCriteria.builder().goals(Set.of(Goal.RAIDS)).build();
+
+        // Then - codes without a level pass level filters
+        assertThat(ids(searchIndex.search(criteria, PageRequest.of(0, 10)))).containsExactly(4L, 1L);
+        assertThat(ids(searchIndex.search(otherGoal, PageRequest.of(0, 10)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page by offset and after a cursor")
+    void shouldPage() {
+        // Given
+        fixture.load(
+                response(1, "A", "Paris", null, null, null),
+                response(2, "B", "Paris", null, null, null),
+                response(3, "C", "Paris", null, null, null),
+                response(4, "D", "Paris", null, null, null));
+        FriendCodeSearchCriteria criteria = FriendCodeSearchCriteria.builder().location("paris").build();
+
+        // When
+        Optional<Slice<FriendCodeResponse>> secondPage = searchIndex.search(criteria, PageRequest.of(1, 2, FeedCursor.FEED_SORT));
+        Optional<Slice<FriendCodeResponse>> afterCursor = searchIndex.searchAfter(
+                new FriendCodeSearchCriteria(), new FeedCursor(BASE_TIME.plusMinutes(3), 3L), 1);
+
+        // Then
+        assertThat(ids(secondPage)).containsExactly(2L, 1L);
+        assertThat(secondPage.get().hasNext()).isFalse();
+        assertThat(ids(afterCursor)).containsExactly(2L);
+        assertThat(afterCursor.get().hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave other sorts and full-text searches to the database")
+    void shouldNotAnswerUnsupportedSearches() {
+        // Given
+        fixture.load(response(1, "Ash", "Paris", "raids", null, null));
+        feedConfig.setFullTextSearchEnabled(true);
+
+        // When / Then
+        assertThat(searchIndex.search(new FriendCodeSearchCriteria(), PageRequest.of(0, 10, Sort.by("playerLevel"))))
+                .isEmpty();
+        assertThat(searchIndex.search(FriendCodeSearchCriteria.builder().searchText("raids").build(),
+                PageRequest.of(0, 10))).isEmpty();
+        assertThat(searchIndex.search(FriendCodeSearchCriteria.builder().location("paris").build(),
+                PageRequest.of(0, 10))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should follow created, changed and purged friend codes")
+    void shouldFollowEvents() {
+        // Given
+        fixture.load();
+        FriendCode raider = friendCode(1, "Ash", "raid hour");
+        FriendCode gifter = friendCode(2, "Misty", "gifts");
+
+        // When
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(raider, gifter)));
+        raider.deactivate();
+        activeFriendCodes.onFriendCodesChanged(new FriendCodesChangedEvent(List.of(raider)));
+
+        // Then
+        assertThat(ids(searchIndex.search(FriendCodeSearchCriteria.builder().searchText("raid").build(),
+                PageRequest.of(0, 10)))).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(1);
+
+        // When
+        activeFriendCodes.onFriendCodesPurged(new FriendCodesPurgedEvent(BASE_TIME.plusMinutes(3), 1));
+
+        // Then
+        assertThat(searchIndex.size()).isZero();
+    }
+}
@@ -0,0 +1,208 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.entity.Team;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FriendCodeStreamBroadcaster.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FriendCodeStreamBroadcaster Tests")
+class FriendCodeStreamBroadcasterTest {
+
+    private static final String CHANNEL = "feed:new";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private FeedConfig feedConfig;
+    private ObjectMapper objectMapper;
+    private List<Runnable> sendTasks;
+    private boolean sendImmediately;
+    private FriendCodeStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        feedConfig = new FeedConfig();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        sendTasks = new ArrayList<>();
+        sendImmediately = true;
+        broadcaster = new FriendCodeStreamBroadcaster(redisTemplate, feedConfig,
+                CircuitBreaker.ofDefaults("hotFeed"), objectMapper, task -> {
+                    if (sendImmediately) {
+                        task.run();
+                    } else {
+                        sendTasks.add(task);
+                    }
+                });
+    }
+
+    private FriendCode friendCode(long id, Team team, String location) {
+        FriendCode friendCode = new FriendCode(String.format("%012d", id), "Trainer" + id, 30, location, null);
+        friendCode.setId(id);
+        friendCode.setTeam(team);
+        friendCode.setCreatedAt(LocalDateTime.now());
+        return friendCode;
+    }
+
+    @Test
+    @DisplayName("Should publish new friend codes to Redis instead of delivering them directly")
+    void shouldPublishToRedis() throws IOException {
+        // Given
+        SseEmitter emitter = mock(SseEmitter.class);
+        broadcaster.register(emitter, null, null);
+
+        // When
+        broadcaster.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(1L, Team.VALOR, "Paris"))));
+
+        // Then
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payloadCaptor.capture());
+        assertThat(payloadCaptor.getValue()).contains("000000000001");
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should deliver published friend codes to subscribers whose filters match")
+    void shouldDeliverMatchingFriendCodes() throws IOException {
+        // Given
+        SseEmitter everything = mock(SseEmitter.class);
+        SseEmitter valorInYork = mock(SseEmitter.class);
+        SseEmitter mystic = mock(SseEmitter.class);
+        broadcaster.register(everything, null, null);
+        broadcaster.register(valorInYork, Team.VALOR, " York ");
+        broadcaster.register(mystic, Team.MYSTIC, null);
+        String payload = objectMapper.writeValueAsString(List.of(
+                FriendCodeResponse.fromEntity(friendCode(1L, Team.VALOR, "New York")),
+                FriendCodeResponse.fromEntity(friendCode(2L, Team.VALOR, "Paris"))));
+
+        // When
+        broadcaster.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                payload.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        verify(everything, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(valorInYork, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(mystic, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should deliver locally when Redis relaying is disabled")
+    void shouldDeliverLocallyWhenRedisDisabled() throws IOException {
+        // Given
+        feedConfig.setStreamRedisEnabled(false);
+        SseEmitter emitter = mock(SseEmitter.class);
+        broadcaster.register(emitter, null, null);
+
+        // When
+        broadcaster.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(1L, null, null))));
+
+        // Then
+        verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should deliver locally when publishing to Redis fails")
+    void shouldDeliverLocallyWhenPublishFails() throws IOException {
+        // Given
+        doThrow(new RuntimeException("Redis connection failed")).when(redisTemplate).convertAndSend(anyString(), anyString());
+        SseEmitter emitter = mock(SseEmitter.class);
+        broadcaster.register(emitter, null, null);
+
+        // When
+        broadcaster.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(1L, null, null))));
+
+        // Then
+        verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers that can no longer be written to")
+    void shouldDropBrokenSubscribers() throws IOException {
+        // Given
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        broadcaster.register(broken, null, null);
+        broadcaster.register(mock(SseEmitter.class), null, null);
+
+        // When
+        broadcaster.sendHeartbeats();
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write to subscribers on the executor, not on the delivering thread")
+    void shouldSendOnExecutor() throws IOException {
+        // Given
+        sendImmediately = false;
+        SseEmitter emitter = mock(SseEmitter.class);
+        broadcaster.register(emitter, null, null);
+
+        // When
+        broadcaster.broadcast(List.of(FriendCodeResponse.fromEntity(friendCode(1L, null, null)),
+                FriendCodeResponse.fromEntity(friendCode(2L, null, null))));
+
+        // Then - one task writes everything queued for the subscriber
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(sendTasks).hasSize(1);
+
+        // When
+        sendTasks.remove(0).run();
+
+        // Then
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should disconnect subscribers whose queue of unsent events is full")
+    void shouldDropSlowSubscribers() throws IOException {
+        // Given - the slow subscriber's write has not finished yet
+        feedConfig.setStreamQueueCapacity(2);
+        sendImmediately = false;
+        SseEmitter slow = mock(SseEmitter.class);
+        broadcaster.register(slow, null, null);
+
+        // When
+        broadcaster.broadcast(List.of(FriendCodeResponse.fromEntity(friendCode(1L, null, null)),
+                FriendCodeResponse.fromEntity(friendCode(2L, null, null)),
+                FriendCodeResponse.fromEntity(friendCode(3L, null, null))));
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+        verify(slow).complete();
+
+        // When
+        sendTasks.forEach(Runnable::run);
+
+        // Then - nothing is written to a dropped subscriber
+        verify(slow, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+}
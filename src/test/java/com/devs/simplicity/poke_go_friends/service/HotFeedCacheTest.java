@@ -0,0 +1,345 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.FeedConfig;
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HotFeedCache.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotFeedCache Tests")
+class HotFeedCacheTest {
+
+    private static final String KEY = "feed:hot";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ListOperations<String, String> listOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private FeedConfig feedConfig;
+    private List<Runnable> scheduledRefreshes;
+    private HotFeedCache hotFeedCache;
+
+    @BeforeEach
+    void setUp() {
+        feedConfig = new FeedConfig();
+        feedConfig.setHotFeedSize(10);
+        scheduledRefreshes = new ArrayList<>();
+        hotFeedCache = new HotFeedCache(redisTemplate, friendCodeRepository, feedConfig,
+                CircuitBreaker.ofDefaults("hotFeed"), new ObjectMapper().findAndRegisterModules(),
+                scheduledRefreshes::add);
+
+        lenient().when(redisTemplate.opsForList()).thenReturn(listOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private FriendCodeResponse response(long id, LocalDateTime createdAt) {
+        FriendCodeResponse response = new FriendCodeResponse();
+        response.setId(id);
+        response.setFriendCode(String.format("%012d", id));
+        response.setIsActive(true);
+        response.setCreatedAt(createdAt);
+        return response;
+    }
+
+    /**
+     * Runs the rebuilds scheduled on the refresh executor, including any they schedule themselves.
+     */
+    private void runScheduledRefreshes() {
+        while (!scheduledRefreshes.isEmpty()) {
+            scheduledRefreshes.remove(0).run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSwap(Long... results) {
+        when(redisTemplate.execute(eq(HotFeedCache.SWAP_SCRIPT), anyList(), any(Object[].class)))
+                .thenReturn(results[0], Arrays.copyOfRange(results, 1, results.length));
+    }
+
+    /**
+     * Builds the hot feed from the given responses and returns the entries written to Redis.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> buildFeed(List<FriendCodeResponse> responses) {
+        when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(responses));
+        stubSwap(1L);
+        hotFeedCache.refresh();
+        runScheduledRefreshes();
+
+        ArgumentCaptor<Collection<String>> entriesCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(listOperations).rightPushAll(startsWith(KEY + ":staging:"), entriesCaptor.capture());
+        return new ArrayList<>(entriesCaptor.getValue());
+    }
+
+    @Nested
+    @DisplayName("Reading pages")
+    class FindPageTests {
+
+        @Test
+        @DisplayName("Should serve a page from the hot feed with full timestamp precision")
+        void shouldServePageFromHotFeed() {
+            // Given
+            LocalDateTime createdAt = LocalDateTime.of(2025, 7, 3, 4, 16, 18, 278_123_000);
+            List<String> entries = buildFeed(List.of(
+                    response(3L, createdAt), response(2L, createdAt.minusMinutes(1)), response(1L, createdAt.minusMinutes(2))));
+            when(listOperations.range(KEY, 0, 2)).thenReturn(entries);
+
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(0, 2));
+
+            // Then
+            assertThat(result).isPresent();
+            assertThat(result.get().getContent()).extracting(FriendCodeResponse::getId).containsExactly(3L, 2L);
+            assertThat(result.get().getContent().get(0).getCreatedAt()).isEqualTo(createdAt);
+            assertThat(result.get().hasNext()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should serve an empty feed once built")
+        void shouldServeEmptyFeedOnceBuilt() {
+            // Given
+            when(listOperations.range(KEY, 0, 2)).thenReturn(List.of());
+            when(redisTemplate.hasKey(KEY + ":ready")).thenReturn(true);
+
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(0, 2));
+
+            // Then
+            assertThat(result).isPresent();
+            assertThat(result.get().getContent()).isEmpty();
+            assertThat(result.get().hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should rebuild and fall back when the hot feed was never built")
+        void shouldRebuildWhenNotBuilt() {
+            // Given
+            when(listOperations.range(KEY, 0, 2)).thenReturn(List.of());
+            when(redisTemplate.hasKey(KEY + ":ready")).thenReturn(false);
+            when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(response(1L, LocalDateTime.now()))));
+            stubSwap(1L);
+
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(0, 2));
+
+            // Then - the request does not wait for the rebuild
+            assertThat(result).isEmpty();
+            verifyNoInteractions(friendCodeRepository);
+
+            // When
+            runScheduledRefreshes();
+
+            // Then
+            verify(redisTemplate).execute(eq(HotFeedCache.SWAP_SCRIPT),
+                    argThat(keys -> keys.get(0).startsWith(KEY + ":staging:")
+                            && keys.subList(1, 4).equals(List.of(KEY, KEY + ":ready", KEY + ":version"))),
+                    eq("0"));
+        }
+
+        @Test
+        @DisplayName("Should fall back for pages beyond the hot feed")
+        void shouldFallBackForDeepPages() {
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(5, 2));
+
+            // Then
+            assertThat(result).isEmpty();
+            verifyNoInteractions(redisTemplate);
+        }
+
+        @Test
+        @DisplayName("Should fall back for other sort orders")
+        void shouldFallBackForOtherSortOrders() {
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(
+                    PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "createdAt")));
+
+            // Then
+            assertThat(result).isEmpty();
+            verifyNoInteractions(redisTemplate);
+        }
+
+        @Test
+        @DisplayName("Should fall back when Redis is unavailable")
+        void shouldFallBackWhenRedisUnavailable() {
+            // Given
+            when(listOperations.range(anyString(), anyLong(), anyLong()))
+                    .thenThrow(new RuntimeException("Redis connection failed"));
+
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(0, 2));
+
+            // Then
+            assertThat(result).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should fall back when the hot feed is disabled")
+        void shouldFallBackWhenDisabled() {
+            // Given
+            feedConfig.setHotFeedEnabled(false);
+
+            // When
+            Optional<Slice<FriendCodeResponse>> result = hotFeedCache.findPage(PageRequest.of(0, 2));
+
+            // Then
+            assertThat(result).isEmpty();
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuilding")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should retry when codes were pushed between the database read and the swap")
+        void shouldRetryWhenPushedDuringRebuild() {
+            // Given - the first swap finds the version bumped by a push
+            when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(response(1L, LocalDateTime.now()))));
+            when(valueOperations.get(KEY + ":version")).thenReturn("4", "5");
+            stubSwap(0L, 1L);
+
+            // When
+            hotFeedCache.refresh();
+            runScheduledRefreshes();
+
+            // Then
+            verify(friendCodeRepository, times(2)).findResponseSlice(any(), any(Pageable.class));
+            verify(redisTemplate).execute(eq(HotFeedCache.SWAP_SCRIPT), anyList(), eq("4"));
+            verify(redisTemplate).execute(eq(HotFeedCache.SWAP_SCRIPT), anyList(), eq("5"));
+        }
+
+        @Test
+        @DisplayName("Should give up and keep the live list when every swap finds new pushes")
+        void shouldKeepLiveListWhenAlwaysChanged() {
+            // Given
+            when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(response(1L, LocalDateTime.now()))));
+            stubSwap(0L);
+
+            // When
+            hotFeedCache.refresh();
+            runScheduledRefreshes();
+
+            // Then
+            verify(friendCodeRepository, times(3)).findResponseSlice(any(), any(Pageable.class));
+            verify(redisTemplate, never()).rename(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should collapse refreshes requested during a rebuild into one more rebuild")
+        void shouldCollapseRefreshesDuringRebuild() {
+            // Given
+            when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class))).thenAnswer(invocation -> {
+                if (mockingDetails(friendCodeRepository).getInvocations().size() == 1) {
+                    hotFeedCache.refresh();
+                    hotFeedCache.refresh();
+                }
+                return new SliceImpl<>(List.of(response(1L, LocalDateTime.now())));
+            });
+            stubSwap(1L);
+
+            // When
+            hotFeedCache.refresh();
+            hotFeedCache.refresh();
+
+            // Then - only one rebuild is scheduled at a time
+            assertThat(scheduledRefreshes).hasSize(1);
+
+            // When
+            runScheduledRefreshes();
+
+            // Then
+            verify(friendCodeRepository, times(2)).findResponseSlice(any(), any(Pageable.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Updating on events")
+    class EventTests {
+
+        @Test
+        @DisplayName("Should push new friend codes newest first, trimming and bumping the version")
+        void shouldPushNewFriendCodesNewestFirst() {
+            // Given
+            FriendCode older = new FriendCode("111111111111", "Older");
+            older.setId(1L);
+            older.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+            FriendCode newer = new FriendCode("222222222222", "Newer");
+            newer.setId(2L);
+            newer.setCreatedAt(LocalDateTime.now());
+
+            // When
+            hotFeedCache.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(newer, older)));
+
+            // Then - LPUSH prepends one by one, so the oldest goes first
+            verify(redisTemplate).execute(eq(HotFeedCache.PUSH_SCRIPT),
+                    eq(List.of(KEY, KEY + ":ready", KEY + ":version")),
+                    eq("9"),
+                    argThat((String entry) -> entry.contains("111111111111")),
+                    argThat((String entry) -> entry.contains("222222222222")));
+            verifyNoInteractions(listOperations);
+        }
+
+        @Test
+        @DisplayName("Should not push friend codes that are no longer active")
+        void shouldNotPushInactiveFriendCodes() {
+            // Given
+            FriendCode friendCode = new FriendCode("111111111111", "Trainer");
+            friendCode.setId(1L);
+            friendCode.setCreatedAt(LocalDateTime.now());
+            friendCode.deactivate();
+
+            // When
+            hotFeedCache.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode)));
+
+            // Then
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+}
@@ -82,6 +82,28 @@ class InMemoryRateLimiterTest {
             // Second IP should still be allowed
             assertThat(rateLimiter.isAllowed(ipKey2)).isTrue();
         }
+        
+        @Test
+        @DisplayName("Should consume several units at once only when all of them fit")
+        void shouldConsumeSeveralUnitsAtOnce() {
+            String ipKey = "ip:192.168.1.1:submission";
+            
+            assertThat(rateLimiter.isAllowed(ipKey, 3)).isTrue();
+            // Only 2 of the 5 units are left, so a request for 3 is denied without consuming any
+            assertThat(rateLimiter.isAllowed(ipKey, 3)).isFalse();
+            assertThat(rateLimiter.getCurrentUsage(ipKey)).isEqualTo(3);
+            assertThat(rateLimiter.isAllowed(ipKey, 2)).isTrue();
+            assertThat(rateLimiter.isAllowed(ipKey)).isFalse();
+        }
+        
+        @Test
+        @DisplayName("Should deny a request for more units than the limit")
+        void shouldDenyRequestOverLimit() {
+            String ipKey = "ip:192.168.1.1:submission";
+            
+            assertThat(rateLimiter.isAllowed(ipKey, 6)).isFalse();
+            assertThat(rateLimiter.getCurrentUsage(ipKey)).isZero();
+        }
     }
     
     @Nested
@@ -168,6 +190,35 @@ class InMemoryRateLimiterTest {
             // Should be able to make requests again
             assertThat(rateLimiter.isAllowed(key)).isTrue();
         }
+        
+        @Test
+        @DisplayName("Should peek without consuming quota")
+        void shouldPeekWithoutConsumingQuota() {
+            String key = "ip:192.168.1.1:submission";
+            
+            rateLimiter.isAllowed(key);
+            for (int i = 0; i < 10; i++) {
+                assertThat(rateLimiter.wouldAllow(key)).isTrue();
+            }
+            assertThat(rateLimiter.getCurrentUsage(key)).isEqualTo(1);
+        }
+        
+        @Test
+        @DisplayName("Should report exhausted limit when peeking")
+        void shouldReportExhaustedLimitWhenPeeking() {
+            String ipKey = "ip:192.168.1.1:submission";
+            String userKey = "user:123:submission";
+            
+            for (int i = 0; i < 5; i++) {
+                rateLimiter.isAllowed(ipKey);
+                rateLimiter.isAllowed(userKey);
+            }
+            
+            assertThat(rateLimiter.wouldAllow(ipKey)).isFalse();
+            // User keys use the daily limit of 10
+            assertThat(rateLimiter.wouldAllow(userKey)).isTrue();
+            assertThat(rateLimiter.wouldAllow("ip:10.0.0.1:submission")).isTrue();
+        }
     }
     
     @Nested
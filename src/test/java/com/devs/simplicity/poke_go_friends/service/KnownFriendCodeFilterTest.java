@@ -0,0 +1,140 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.SubmissionConfig;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KnownFriendCodeFilter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KnownFriendCodeFilter Tests")
+class KnownFriendCodeFilterTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private SubmissionConfig submissionConfig;
+    private KnownFriendCodeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        submissionConfig = new SubmissionConfig();
+        filter = new KnownFriendCodeFilter(friendCodeRepository, submissionConfig);
+    }
+
+    private void loadFilter(String... friendCodes) {
+        when(friendCodeRepository.streamAllFriendCodeNumbers())
+                .thenReturn(Stream.of(friendCodes).map(Long::parseLong));
+        filter.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should report every code as possibly existing until loaded")
+    void shouldNotAnswerBeforeLoad() {
+        assertThat(filter.mightExist("123456789012")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should tell known codes from codes never seen")
+    void shouldTellKnownCodesFromUnknown() {
+        // Given
+        loadFilter("123456789012", "000000000000", "999999999999");
+
+        // When / Then
+        assertThat(filter.mightExist("123456789012")).isTrue();
+        assertThat(filter.mightExist("000000000000")).isTrue();
+        assertThat(filter.mightExist("999999999999")).isTrue();
+        assertThat(filter.mightExist("123456789013")).isFalse();
+        assertThat(filter.size()).isEqualTo(3);
+        // Malformed codes are left to the database
+        assertThat(filter.mightExist("12345")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grow to hold many codes")
+    void shouldGrowToHoldManyCodes() {
+        // Given
+        String[] friendCodes = IntStream.range(0, 5_000)
+                .mapToObj(i -> String.format("%012d", 100_000_000_000L + i * 7L))
+                .toArray(String[]::new);
+
+        // When
+        loadFilter(friendCodes);
+
+        // Then
+        assertThat(filter.size()).isEqualTo(5_000);
+        assertThat(filter.mightExist(friendCodes[4_999])).isTrue();
+        assertThat(filter.mightExist(String.format("%012d", 100_000_000_001L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should add created codes and reload after a purge")
+    void shouldFollowCreatedAndPurgedCodes() {
+        // Given
+        loadFilter("123456789012");
+
+        // When
+        filter.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(new FriendCode("210987654321", null))));
+
+        // Then
+        assertThat(filter.mightExist("210987654321")).isTrue();
+
+        // When - the purge deleted the original code
+        when(friendCodeRepository.streamAllFriendCodeNumbers()).thenReturn(Stream.of(210_987_654_321L));
+        filter.onFriendCodesPurged(new FriendCodesPurgedEvent(LocalDateTime.now(), 1));
+
+        // Then
+        assertThat(filter.mightExist("123456789012")).isFalse();
+        assertThat(filter.mightExist("210987654321")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep codes created while the filter was being reloaded")
+    void shouldKeepCodesCreatedDuringReload() {
+        // Given
+        when(friendCodeRepository.streamAllFriendCodeNumbers()).thenAnswer(invocation -> {
+            // Committed on another thread after the reload query started
+            filter.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(new FriendCode("210987654321", null))));
+            return Stream.of(123_456_789_012L);
+        });
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertThat(filter.mightExist("123456789012")).isTrue();
+        assertThat(filter.mightExist("210987654321")).isTrue();
+        assertThat(filter.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not load or answer when disabled")
+    void shouldNotAnswerWhenDisabled() {
+        // Given
+        submissionConfig.setKnownCodesFilterEnabled(false);
+
+        // When
+        filter.onApplicationReady();
+
+        // Then
+        assertThat(filter.mightExist("123456789012")).isTrue();
+        verify(friendCodeRepository, never()).streamAllFriendCodeNumbers();
+    }
+}
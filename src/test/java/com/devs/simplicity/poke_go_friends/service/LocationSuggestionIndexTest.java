@@ -0,0 +1,133 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.dto.LocationSuggestion;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesPurgedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.BASE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LocationSuggestionIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocationSuggestionIndex Tests")
+class LocationSuggestionIndexTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private ActiveFriendCodesFixture fixture;
+    private ActiveFriendCodes activeFriendCodes;
+    private LocationSuggestionIndex locationSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new ActiveFriendCodesFixture(friendCodeRepository);
+        activeFriendCodes = fixture.activeFriendCodes();
+        locationSuggestionIndex = new LocationSuggestionIndex(activeFriendCodes);
+    }
+
+    private FriendCodeResponse response(long id, String location, LocalDateTime expiresAt) {
+        FriendCodeResponse response = ActiveFriendCodesFixture.response(id);
+        response.setLocation(location);
+        response.setExpiresAt(expiresAt);
+        return response;
+    }
+
+    private FriendCode friendCode(long id, String location) {
+        FriendCode friendCode = ActiveFriendCodesFixture.friendCode(id);
+        friendCode.setLocation(location);
+        return friendCode;
+    }
+
+    @Test
+    @DisplayName("Should suggest normalized locations starting with the prefix, most used first")
+    void shouldSuggestByPrefix() {
+        // Given
+        fixture.load(
+                response(1, "New York, NY", null),
+                response(2, " new  york, ny ", null),
+                response(3, "Newark", null),
+                response(4, "Paris", null),
+                response(5, null, null));
+
+        // When
+        List<LocationSuggestion> suggestions = locationSuggestionIndex.suggest("  NEW ", 10);
+
+        // Then
+        assertThat(suggestions).extracting(LocationSuggestion::getLocation).containsExactly("New York, NY", "Newark");
+        assertThat(suggestions).extracting(LocationSuggestion::getCount).containsExactly(2, 1);
+        assertThat(locationSuggestionIndex.suggest("new", 1)).extracting(LocationSuggestion::getLocation)
+                .containsExactly("New York, NY");
+        assertThat(locationSuggestionIndex.suggest("x", 10)).isEmpty();
+        assertThat(locationSuggestionIndex.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop friend codes once they expire")
+    void shouldDropExpiredFriendCodes() {
+        // Given
+        fixture.load(
+                response(1, "Paris", LocalDateTime.now().minusSeconds(1)),
+                response(2, "Paris", null),
+                response(3, "Porto", LocalDateTime.now().minusSeconds(1)));
+
+        // When
+        List<LocationSuggestion> suggestions = locationSuggestionIndex.suggest("p", 10);
+
+        // Then
+        assertThat(suggestions).containsExactly(new LocationSuggestion("Paris", 1));
+    }
+
+    @Test
+    @DisplayName("Should follow created, changed and purged friend codes without querying")
+    void shouldFollowEvents() {
+        // Given
+        fixture.load();
+        FriendCode first = friendCode(1, "Lyon");
+        FriendCode second = friendCode(2, "Lyon");
+
+        // When
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(first, second)));
+        second.deactivate();
+        activeFriendCodes.onFriendCodesChanged(new FriendCodesChangedEvent(List.of(second)));
+
+        // Then
+        assertThat(locationSuggestionIndex.suggest("ly", 5)).containsExactly(new LocationSuggestion("Lyon", 1));
+
+        // When
+        activeFriendCodes.onFriendCodesPurged(new FriendCodesPurgedEvent(BASE_TIME.plusMinutes(2), 1));
+
+        // Then
+        assertThat(locationSuggestionIndex.suggest("ly", 5)).isEmpty();
+        verify(friendCodeRepository, times(1)).findResponseSlice(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should suggest nothing until the active friend codes are loaded")
+    void shouldNotQueryOnRequestThread() {
+        // When
+        List<LocationSuggestion> suggestions = locationSuggestionIndex.suggest("p", 10);
+
+        // Then
+        assertThat(suggestions).isEmpty();
+        verifyNoInteractions(friendCodeRepository);
+    }
+}
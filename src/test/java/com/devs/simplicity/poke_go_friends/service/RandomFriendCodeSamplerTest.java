@@ -0,0 +1,124 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.dto.FriendCodeResponse;
+import com.devs.simplicity.poke_go_friends.entity.FriendCode;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesChangedEvent;
+import com.devs.simplicity.poke_go_friends.event.FriendCodesCreatedEvent;
+import com.devs.simplicity.poke_go_friends.repository.FriendCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.friendCode;
+import static com.devs.simplicity.poke_go_friends.service.ActiveFriendCodesFixture.response;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RandomFriendCodeSampler.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RandomFriendCodeSampler Tests")
+class RandomFriendCodeSamplerTest {
+
+    @Mock
+    private FriendCodeRepository friendCodeRepository;
+
+    private ActiveFriendCodesFixture fixture;
+    private ActiveFriendCodes activeFriendCodes;
+    private RandomFriendCodeSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new ActiveFriendCodesFixture(friendCodeRepository);
+        activeFriendCodes = fixture.activeFriendCodes();
+        sampler = new RandomFriendCodeSampler(activeFriendCodes, friendCodeRepository);
+    }
+
+    private List<FriendCodeResponse> responses(long... ids) {
+        return LongStream.of(ids).mapToObj(ActiveFriendCodesFixture::response).toList();
+    }
+
+    @Test
+    @DisplayName("Should return distinct friend codes drawn from the active ids")
+    void shouldReturnDistinctActiveFriendCodes() {
+        // Given
+        fixture.load(LongStream.rangeClosed(1, 50).mapToObj(ActiveFriendCodesFixture::response).toList());
+
+        // When
+        List<FriendCodeResponse> result = sampler.sample(5);
+
+        // Then
+        assertThat(result).hasSize(5);
+        assertThat(result).extracting(FriendCodeResponse::getId).doesNotHaveDuplicates();
+        // One query loading the active codes, one loading the drawn ids
+        verify(friendCodeRepository, times(2)).findResponseSlice(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should replace ids that are no longer active and drop them from the pool")
+    void shouldReplaceStaleIds() {
+        // Given
+        fixture.load(responses(1, 2, 3));
+        // Only friend code 3 is still active
+        when(friendCodeRepository.findResponseSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(response(3L))));
+
+        // When
+        List<FriendCodeResponse> result = sampler.sample(3);
+
+        // Then
+        assertThat(result).extracting(FriendCodeResponse::getId).containsExactly(3L);
+        assertThat(sampler.poolSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should follow created and deactivated friend codes")
+    void shouldFollowEvents() {
+        // Given
+        fixture.load(responses(1));
+        FriendCode deactivated = friendCode(1L);
+        deactivated.deactivate();
+
+        // When
+        activeFriendCodes.onFriendCodesCreated(new FriendCodesCreatedEvent(List.of(friendCode(2L), friendCode(3L))));
+        activeFriendCodes.onFriendCodesChanged(new FriendCodesChangedEvent(List.of(deactivated)));
+
+        // Then
+        assertThat(sampler.poolSize()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return nothing, without querying, until the active friend codes are loaded")
+    void shouldNotLoadOnRequestThread() {
+        // When
+        List<FriendCodeResponse> result = sampler.sample(5);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(friendCodeRepository);
+    }
+
+    @Test
+    @DisplayName("Should return everything when asking for more than exists")
+    void shouldReturnAllWhenAskingForMore() {
+        // Given
+        fixture.load(responses(1, 2));
+
+        // When
+        List<FriendCodeResponse> result = sampler.sample(10);
+
+        // Then
+        assertThat(result).extracting(FriendCodeResponse::getId).containsExactlyInAnyOrderElementsOf(Set.of(1L, 2L));
+    }
+}
@@ -136,6 +136,69 @@ class RedisRateLimiterTest {
         }
     }
     
+    @Nested
+    @DisplayName("wouldAllow")
+    class WouldAllowTests {
+        
+        @Test
+        @DisplayName("should count the window without running the script")
+        void shouldCountWindow_withoutRunningScript() {
+            // Given
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.count(eq("rate_limit:test-key"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(4L);
+            
+            // When
+            boolean result = rateLimiter.wouldAllow("test-key");
+            
+            // Then
+            assertThat(result).isTrue();
+            verify(redisTemplate, never()).execute(any(DefaultRedisScript.class), anyList(), any(Object[].class));
+            verify(zSetOperations, never()).removeRangeByScore(anyString(), anyDouble(), anyDouble());
+        }
+        
+        @Test
+        @DisplayName("should report limit reached")
+        void shouldReportLimitReached() {
+            // Given
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.count(anyString(), anyDouble(), anyDouble())).thenReturn(5L);
+            
+            // When
+            boolean result = rateLimiter.wouldAllow("test-key");
+            
+            // Then
+            assertThat(result).isFalse();
+        }
+        
+        @Test
+        @DisplayName("should use custom limit")
+        void shouldUseCustomLimit() {
+            // Given
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.count(anyString(), anyDouble(), anyDouble())).thenReturn(5L);
+            
+            // When
+            boolean result = rateLimiter.wouldAllow("test-key", 10, 86400000L);
+            
+            // Then
+            assertThat(result).isTrue();
+        }
+        
+        @Test
+        @DisplayName("should fail open when Redis fails")
+        void shouldFailOpen_whenRedisFails() {
+            // Given
+            when(redisTemplate.opsForZSet()).thenThrow(new RuntimeException("Redis connection failed"));
+            
+            // When
+            boolean result = rateLimiter.wouldAllow("test-key");
+            
+            // Then
+            assertThat(result).isTrue();
+        }
+    }
+    
     @Nested
     @DisplayName("getCurrentUsage")
     class GetCurrentUsageTests {
@@ -0,0 +1,103 @@
+package com.devs.simplicity.poke_go_friends.service;
+
+import com.devs.simplicity.poke_go_friends.config.RateLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SubmissionRateLimitStatusService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SubmissionRateLimitStatusService Tests")
+class SubmissionRateLimitStatusServiceTest {
+
+    @Mock
+    private ValidationService validationService;
+
+    private RateLimitConfig rateLimitConfig;
+    private SubmissionRateLimitStatusService statusService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitConfig = new RateLimitConfig();
+        statusService = new SubmissionRateLimitStatusService(validationService, rateLimitConfig);
+    }
+
+    @Test
+    @DisplayName("Should reuse cached status within TTL")
+    void shouldReuseCachedStatusWithinTtl() {
+        // Given
+        when(validationService.wouldAllowSubmission("192.168.1.1", 1L)).thenReturn(false);
+
+        // When
+        boolean first = statusService.isRateLimited("192.168.1.1", 1L);
+        boolean second = statusService.isRateLimited("192.168.1.1", 1L);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(validationService, times(1)).wouldAllowSubmission("192.168.1.1", 1L);
+    }
+
+    @Test
+    @DisplayName("Should cache status per client")
+    void shouldCacheStatusPerClient() {
+        // Given
+        when(validationService.wouldAllowSubmission("192.168.1.1", null)).thenReturn(false);
+        when(validationService.wouldAllowSubmission("192.168.1.2", null)).thenReturn(true);
+
+        // When & Then
+        assertThat(statusService.isRateLimited("192.168.1.1", null)).isTrue();
+        assertThat(statusService.isRateLimited("192.168.1.2", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should recheck after invalidation")
+    void shouldRecheckAfterInvalidation() {
+        // Given
+        when(validationService.wouldAllowSubmission("192.168.1.1", null)).thenReturn(true, false);
+
+        // When
+        boolean before = statusService.isRateLimited("192.168.1.1", null);
+        statusService.invalidate("192.168.1.1", null);
+        boolean after = statusService.isRateLimited("192.168.1.1", null);
+
+        // Then
+        assertThat(before).isFalse();
+        assertThat(after).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should recheck after TTL expires")
+    void shouldRecheckAfterTtlExpires() {
+        // Given
+        rateLimitConfig.setStatusCacheSeconds(0);
+        when(validationService.wouldAllowSubmission("192.168.1.1", null)).thenReturn(true, false);
+
+        // When & Then
+        assertThat(statusService.isRateLimited("192.168.1.1", null)).isFalse();
+        assertThat(statusService.isRateLimited("192.168.1.1", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip the check when rate limiting is disabled")
+    void shouldSkipCheckWhenRateLimitingDisabled() {
+        // Given
+        rateLimitConfig.setEnabled(false);
+
+        // When
+        boolean result = statusService.isRateLimited("192.168.1.1", 1L);
+
+        // Then
+        assertThat(result).isFalse();
+        verify(validationService, never()).wouldAllowSubmission(any(), any());
+    }
+}
@@ -16,8 +16,11 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * Comprehensive unit tests for ValidationService.
@@ -386,6 +389,71 @@ class ValidationServiceTest {
             assertThat(testValidationService.getCurrentRateLimitUsage(ipAddress)).isEqualTo(1);
             assertThat(testValidationService.getCurrentRateLimitUsage(ipAddress)).isEqualTo(2);
         }
+
+        @Test
+        @DisplayName("Should peek at IP and user limits without consuming quota")
+        void shouldPeekAtIpAndUserLimits() {
+            CircuitBreakerRateLimiter mockCircuitBreakerRateLimiter = mock(CircuitBreakerRateLimiter.class);
+            when(mockCircuitBreakerRateLimiter.wouldAllow("ip:192.168.1.6:submission")).thenReturn(true);
+            when(mockCircuitBreakerRateLimiter.wouldAllow("user:7:submission", 10, 86400000L)).thenReturn(false);
+            ValidationService testValidationService = new ValidationService(rateLimitConfig, sanitizationService, mockCircuitBreakerRateLimiter);
+
+            assertThat(testValidationService.wouldAllowSubmission("192.168.1.6", null)).isTrue();
+            assertThat(testValidationService.wouldAllowSubmission("192.168.1.6", 7L)).isFalse();
+            verify(mockCircuitBreakerRateLimiter, never()).isAllowed(anyString());
+        }
+
+        @Test
+        @DisplayName("Should charge a batch against the IP and user limits in one call each")
+        void shouldChargeBatchOnce() {
+            CircuitBreakerRateLimiter mockCircuitBreakerRateLimiter = mock(CircuitBreakerRateLimiter.class);
+            when(mockCircuitBreakerRateLimiter.isAllowed("ip:192.168.1.9:submission", 5)).thenReturn(true);
+            when(mockCircuitBreakerRateLimiter.isAllowed("user:3:submission", 10, 86400000L, 5)).thenReturn(true);
+            ValidationService testValidationService = new ValidationService(rateLimitConfig, sanitizationService, mockCircuitBreakerRateLimiter);
+
+            assertThatNoException().isThrownBy(() ->
+                testValidationService.checkSubmissionRateLimit("192.168.1.9", 3L, 5));
+            verify(mockCircuitBreakerRateLimiter, never()).isAllowed(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject a batch over the user limit without charging the IP limit")
+        void shouldRejectBatchOverUserLimitWithoutChargingIp() {
+            CircuitBreakerRateLimiter mockCircuitBreakerRateLimiter = mock(CircuitBreakerRateLimiter.class);
+            when(mockCircuitBreakerRateLimiter.isAllowed("user:4:submission", 10, 86400000L, 5)).thenReturn(false);
+            ValidationService testValidationService = new ValidationService(rateLimitConfig, sanitizationService, mockCircuitBreakerRateLimiter);
+
+            assertThatThrownBy(() -> testValidationService.checkSubmissionRateLimit("192.168.1.11", 4L, 5))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("user:4");
+            verify(mockCircuitBreakerRateLimiter, never()).isAllowed(eq("ip:192.168.1.11:submission"), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should reject a batch that does not fit in the IP limit")
+        void shouldRejectBatchOverIpLimit() {
+            when(rateLimiter.isAllowed("ip:192.168.1.10:submission", 6)).thenReturn(false);
+
+            assertThatThrownBy(() -> validationService.checkSubmissionRateLimit("192.168.1.10", null, 6))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("Rate limit exceeded");
+        }
+
+        @Test
+        @DisplayName("Should report exhausted IP limit when peeking")
+        void shouldReportExhaustedIpLimitWhenPeeking() {
+            when(rateLimiter.wouldAllow("ip:192.168.1.7:submission")).thenReturn(false);
+
+            assertThat(validationService.wouldAllowSubmission("192.168.1.7", null)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should allow peeking when rate limiting is disabled")
+        void shouldAllowPeekingWhenRateLimitingDisabled() {
+            when(rateLimitConfig.isEnabled()).thenReturn(false);
+
+            assertThat(validationService.wouldAllowSubmission("192.168.1.8", 1L)).isTrue();
+        }
     }
 
     @Nested